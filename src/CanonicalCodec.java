@@ -0,0 +1,281 @@
+/**
+ * The canonical record format: the bytes {@link Seminar#serialize()} writes
+ * through an ObjectOutputStream. This is the default format, and the one the
+ * reference outputs' record sizes are based on.
+ * <p>
+ * Encoding does not use object streams. It writes the same bytes directly:
+ * the 4-byte stream header, then the fields as block data, split into blocks
+ * of 1024 bytes with a 0x7A header and a 4-byte length, and a final shorter
+ * block with a 0x77 header and a 1-byte length if it has at most 255 bytes.
+ * Numbers are big-endian and strings are a 2-byte length and modified
+ * UTF-8. The size is computed from the field lengths alone, so a record can
+ * be sized, allocated and then encoded in place without any scratch buffer.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.01
+ */
+public class CanonicalCodec implements RecordCodec {
+    private static final byte[] STREAM_HEADER = { (byte)0xAC, (byte)0xED, 0,
+        5 };
+    private static final int MAX_BLOCK_SIZE = 1024;
+    private static final int LONG_BLOCK_HEADER = 5;
+    private static final int SHORT_BLOCK_HEADER = 2;
+
+    /**
+     * Returns the number of block data bytes: the fields without the stream
+     * header or block headers.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The data size.
+     */
+    private static int dataSize(Seminar seminar) {
+        int size = 4 + utfSize(seminar.getTitle()) + utfSize(seminar
+            .getDate()) + 4 + 2 + 2 + 4 + 4 + utfSize(seminar
+                .getDescription());
+        for (String keyword : seminar.getKeywords()) {
+            size += utfSize(keyword);
+        }
+        return size;
+    }
+
+
+    /**
+     * Returns the size of a string as written by writeUTF.
+     *
+     * @param s
+     *            The string.
+     * @return The 2-byte length plus the modified UTF-8 bytes.
+     * @throws IllegalArgumentException
+     *             if the string needs more than 65535 bytes
+     */
+    private static int utfSize(String s) {
+        int size = 0;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                size++;
+            }
+            else if (c <= 0x07FF) {
+                size += 2;
+            }
+            else {
+                size += 3;
+            }
+        }
+        if (size > 0xFFFF) {
+            throw new IllegalArgumentException("string is too long: " + size
+                + " bytes");
+        }
+        return 2 + size;
+    }
+
+
+    /**
+     * Returns the size of the block headers for some block data.
+     *
+     * @param dataSize
+     *            The number of data bytes.
+     * @return The header bytes.
+     */
+    private static int headerSize(int dataSize) {
+        int last = dataSize % MAX_BLOCK_SIZE;
+        int size = dataSize / MAX_BLOCK_SIZE * LONG_BLOCK_HEADER;
+        if (last > 0) {
+            size += last <= 0xFF ? SHORT_BLOCK_HEADER : LONG_BLOCK_HEADER;
+        }
+        return size;
+    }
+
+
+    /**
+     * Returns the size of the seminar's serialized form.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The encoded size.
+     */
+    @Override
+    public int encodedSize(Seminar seminar) {
+        int data = dataSize(seminar);
+        return STREAM_HEADER.length + headerSize(data) + data;
+    }
+
+
+    /**
+     * Writes the seminar's serialized form into a buffer. The fields are
+     * first written contiguously at the end of the record's space; if they
+     * span several blocks, each block is then moved down to make room for
+     * its header.
+     *
+     * @param seminar
+     *            The seminar.
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            Where to write the first byte.
+     * @return The number of bytes written.
+     */
+    @Override
+    public int encode(Seminar seminar, byte[] buffer, int offset) {
+        int data = dataSize(seminar);
+        int size = STREAM_HEADER.length + headerSize(data) + data;
+        System.arraycopy(STREAM_HEADER, 0, buffer, offset,
+            STREAM_HEADER.length);
+
+        int pos = offset + size - data;
+        pos = writeInt(seminar.getId(), buffer, pos);
+        pos = writeUtf(seminar.getTitle(), buffer, pos);
+        pos = writeUtf(seminar.getDate(), buffer, pos);
+        pos = writeInt(seminar.getLength(), buffer, pos);
+        pos = writeShort(seminar.getX(), buffer, pos);
+        pos = writeShort(seminar.getY(), buffer, pos);
+        pos = writeInt(seminar.getCost(), buffer, pos);
+        String[] keywords = seminar.getKeywords();
+        pos = writeInt(keywords.length, buffer, pos);
+        for (String keyword : keywords) {
+            pos = writeUtf(keyword, buffer, pos);
+        }
+        writeUtf(seminar.getDescription(), buffer, pos);
+
+        int source = offset + size - data;
+        int target = offset + STREAM_HEADER.length;
+        for (int done = 0; done < data; done += MAX_BLOCK_SIZE) {
+            int block = Math.min(MAX_BLOCK_SIZE, data - done);
+            if (block <= 0xFF) {
+                buffer[target++] = 0x77;
+                buffer[target++] = (byte)block;
+            }
+            else {
+                buffer[target++] = 0x7A;
+                target = writeInt(block, buffer, target);
+            }
+            if (target != source) {
+                System.arraycopy(buffer, source, buffer, target, block);
+            }
+            source += block;
+            target += block;
+        }
+        return size;
+    }
+
+
+    /**
+     * Writes a big-endian int.
+     *
+     * @param value
+     *            The value.
+     * @param buffer
+     *            The buffer.
+     * @param pos
+     *            Where to write.
+     * @return The index after the last byte written.
+     */
+    private static int writeInt(int value, byte[] buffer, int pos) {
+        buffer[pos] = (byte)(value >>> 24);
+        buffer[pos + 1] = (byte)(value >>> 16);
+        buffer[pos + 2] = (byte)(value >>> 8);
+        buffer[pos + 3] = (byte)value;
+        return pos + 4;
+    }
+
+
+    /**
+     * Writes a big-endian short.
+     *
+     * @param value
+     *            The value.
+     * @param buffer
+     *            The buffer.
+     * @param pos
+     *            Where to write.
+     * @return The index after the last byte written.
+     */
+    private static int writeShort(int value, byte[] buffer, int pos) {
+        buffer[pos] = (byte)(value >>> 8);
+        buffer[pos + 1] = (byte)value;
+        return pos + 2;
+    }
+
+
+    /**
+     * Writes a string the way writeUTF does: a 2-byte length and modified
+     * UTF-8, where the character 0 takes two bytes.
+     *
+     * @param s
+     *            The string, already checked by utfSize.
+     * @param buffer
+     *            The buffer.
+     * @param pos
+     *            Where to write.
+     * @return The index after the last byte written.
+     */
+    private static int writeUtf(String s, byte[] buffer, int pos) {
+        int start = pos;
+        pos += 2;
+        int n = s.length();
+        for (int i = 0; i < n; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x0001 && c <= 0x007F) {
+                buffer[pos++] = (byte)c;
+            }
+            else if (c <= 0x07FF) {
+                buffer[pos++] = (byte)(0xC0 | (c >> 6));
+                buffer[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+            else {
+                buffer[pos++] = (byte)(0xE0 | (c >> 12));
+                buffer[pos++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                buffer[pos++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        writeShort(pos - start - 2, buffer, start);
+        return pos;
+    }
+
+
+    /**
+     * Deserializes a seminar.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The seminar.
+     */
+    @Override
+    public Seminar decode(byte[] buffer, int offset, int length) {
+        byte[] bytes = buffer;
+        if (offset != 0 || length != buffer.length) {
+            bytes = new byte[length];
+            System.arraycopy(buffer, offset, bytes, 0, length);
+        }
+        try {
+            return Seminar.deserialize(bytes);
+        }
+        catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+
+    /**
+     * Returns a view of a record in this format.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The view.
+     */
+    @Override
+    public SeminarView view(byte[] buffer, int offset, int length) {
+        return SeminarView.canonical(buffer, offset, length);
+    }
+}
@@ -0,0 +1,85 @@
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CanonicalCodec class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.29
+ */
+public class CanonicalCodecTest {
+
+    /**
+     * Tests that the codec writes exactly the serialized form and reads it
+     * back from the middle of a buffer.
+     */
+    @Test
+    public void testMatchesSerialize() throws Exception {
+        CanonicalCodec codec = new CanonicalCodec();
+        Seminar seminar = new Seminar(7, "Title", "0610051600", 30,
+            (short)-3, (short)4, 12, new String[] { "a", "b" }, "Words");
+        byte[] expected = seminar.serialize();
+        assertEquals(expected.length, codec.encodedSize(seminar));
+        byte[] buffer = new byte[expected.length + 3];
+        assertEquals(expected.length, codec.encode(seminar, buffer, 3));
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], buffer[i + 3]);
+        }
+        assertEquals(seminar.toString(), codec.decode(buffer, 3,
+            expected.length).toString());
+    }
+
+
+    /**
+     * Tests that the bytes match the serialized form for records whose
+     * fields cross block boundaries, with characters of every encoded width
+     * including the character 0.
+     */
+    @Test
+    public void testMatchesSerializeAcrossBlocks() throws Exception {
+        CanonicalCodec codec = new CanonicalCodec();
+        Random random = new Random(3114);
+        char[] alphabet = { 'a', 'Z', ' ', '\u0000', '\u00e9', '\u07ff',
+            '\u0800', '\u4e2d', '\ud83d', '\ude00' };
+        int[] lengths = { 0, 200, 220, 221, 222, 700, 990, 1000, 1500, 3000 };
+        for (int length : lengths) {
+            for (int round = 0; round < 5; round++) {
+                char[] text = new char[length];
+                for (int i = 0; i < length; i++) {
+                    text[i] = round == 0
+                        ? 'x'
+                        : alphabet[random.nextInt(alphabet.length)];
+                }
+                Seminar seminar = new Seminar(random.nextInt(), "T" + round,
+                    "0610051600", length, (short)round, (short)-round, -7,
+                    new String[] { "k", new String(text, 0, length / 3) },
+                    new String(text));
+                byte[] expected = seminar.serialize();
+                assertEquals(expected.length, codec.encodedSize(seminar));
+                byte[] buffer = new byte[expected.length + 2];
+                assertEquals(expected.length, codec.encode(seminar, buffer,
+                    1));
+                for (int i = 0; i < expected.length; i++) {
+                    assertEquals("length " + length + " byte " + i,
+                        expected[i], buffer[i + 1]);
+                }
+            }
+        }
+    }
+
+
+    /**
+     * Tests that a string too long for writeUTF is rejected before anything
+     * is written.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testStringTooLong() {
+        char[] text = new char[40000];
+        Arrays.fill(text, '\u00e9');
+        new CanonicalCodec().encodedSize(new Seminar(1, "T", "0610051600", 1,
+            (short)0, (short)0, 0, new String[0], new String(text)));
+    }
+}
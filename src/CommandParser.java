@@ -11,6 +11,7 @@ import java.io.IOException;
  */
 public class CommandParser {
     private Controller controller;
+    private CommandTokenizer words;
 
     /**
      * Constructor for the CommandParser class.
@@ -20,6 +21,7 @@ public class CommandParser {
      */
     public CommandParser(Controller controller) {
         this.controller = controller;
+        this.words = new CommandTokenizer("");
     }
 
 
@@ -30,20 +32,57 @@ public class CommandParser {
      *            The BufferedReader with the commands.
      */
     public void parseCommands(BufferedReader reader) {
+        parseCommands(reader::readLine);
+    }
+
+
+    /**
+     * Parses the commands of a line source, such as a
+     * {@link MappedLineReader}. Command lines are matched and tokenized in
+     * place, so only the values that are stored or printed become Strings.
+     * 
+     * @param source
+     *            The lines with the commands.
+     */
+    public void parseCommands(LineSource source) {
         try {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                line = line.trim();
-                if (line.startsWith("insert")) {
-                    handleInsert(reader, line);
+            CharSequence line;
+            while ((line = source.readLine()) != null) {
+                words.reset(line);
+                if (words.startsWith("insert")) {
+                    handleInsert(source, line);
+                }
+                else if (words.startsWith("deleterange")) {
+                    handleDeleteRange(line);
+                }
+                else if (words.startsWith("searchrange")) {
+                    handleSearchRange(line);
+                }
+                else if (words.startsWith("searchkeyword")) {
+                    handleSearchKeyword(line);
+                }
+                else if (words.startsWith("searchradius")) {
+                    handleSearchRadius(line);
                 }
-                else if (line.startsWith("delete")) {
+                else if (words.startsWith("searchrect")) {
+                    handleSearchRect(line);
+                }
+                else if (words.startsWith("searchcost")) {
+                    handleSearchCost(line);
+                }
+                else if (words.startsWith("searchdate")) {
+                    handleSearchDate(line);
+                }
+                else if (words.startsWith("delete")) {
                     handleDelete(line);
                 }
-                else if (line.startsWith("search")) {
+                else if (words.startsWith("search")) {
                     handleSearch(line);
                 }
-                else if (line.startsWith("print")) {
+                else if (words.startsWith("query")) {
+                    handleQuery(line);
+                }
+                else if (words.startsWith("print")) {
                     handlePrint(line);
                 }
 
@@ -51,7 +90,8 @@ public class CommandParser {
 
         }
         catch (IOException e) {
-            System.out.println("Error reading commands: " + e.getMessage());
+            controller.getOutput().println("Error reading commands: " + e
+                .getMessage());
         }
     }
 
@@ -59,27 +99,28 @@ public class CommandParser {
     /**
      * For dealing with the "insert" command.
      * 
-     * @param reader
-     *            The BufferedReader with the commands.
+     * @param source
+     *            The lines with the commands.
      * @param firstLine
      *            The first line of the command.
      * @throws IOException
      */
-    private void handleInsert(BufferedReader reader, String firstLine)
+    private void handleInsert(LineSource source, CharSequence firstLine)
         throws IOException {
-        int id = Integer.parseInt(firstLine.split("\\s+")[1].trim());
-
-        String title = reader.readLine().trim();
-        String[] details = reader.readLine().trim().split("\\s+");
-        String keywordsLine = reader.readLine().trim();
-        String description = reader.readLine().trim().replaceAll("\\s+", " ");
+        words.reset(firstLine);
+        words.skip();
+        int id = words.nextInt();
 
-        String date = details[0];
-        int length = Integer.parseInt(details[1]);
-        short x = Short.parseShort(details[2]);
-        short y = Short.parseShort(details[3]);
-        int cost = Integer.parseInt(details[4]);
-        String[] keywords = keywordsLine.split("\\s+");
+        // A line may be reused by the next read, so each is parsed first
+        String title = CommandTokenizer.trim(source.readLine());
+        words.reset(source.readLine());
+        String date = words.next();
+        int length = words.nextInt();
+        short x = words.nextShort();
+        short y = words.nextShort();
+        int cost = words.nextInt();
+        String[] keywords = CommandTokenizer.split(source.readLine());
+        String description = CommandTokenizer.collapse(source.readLine());
 
         controller.insert(id, title, date, length, x, y, cost, keywords,
             description);
@@ -92,22 +133,47 @@ public class CommandParser {
      * @param line
      *            The string after the "delete" keyword.
      */
-    private void handleDelete(String line) {
-        int id = Integer.parseInt(line.split("\\s+")[1].trim());
-        controller.delete(id);
+    private void handleDelete(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        controller.delete(words.nextInt());
     }
 
 
     /**
-     * For dealing with the "search" command.
+     * For dealing with the "search" command. A search with several IDs looks
+     * them all up as one batch. A missing or malformed ID fails the whole
+     * command.
      * 
      * @param line
      *            The string after the "search" keyword.
      */
-    private void handleSearch(String line) {
-        int id = Integer.parseInt(line.split("\\s+")[1].trim());
+    private void handleSearch(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int count = words.remaining();
+        if (count == 0) {
+            controller.getOutput().println("Search FAILED -- no ID given");
+            return;
+        }
+        int[] ids = new int[count];
         try {
-            controller.search(id);
+            for (int i = 0; i < count; i++) {
+                ids[i] = words.nextInt();
+            }
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Search FAILED -- bad ID "
+                + words.lastWord());
+            return;
+        }
+        try {
+            if (count > 1) {
+                controller.searchAll(ids);
+            }
+            else {
+                controller.search(ids[0]);
+            }
         }
         catch (Exception e) {
             // Exception is caught
@@ -115,21 +181,284 @@ public class CommandParser {
     }
 
 
+    /**
+     * For dealing with the "searchrange" command.
+     * 
+     * @param line
+     *            The line with the smallest and largest ID to find.
+     */
+    private void handleSearchRange(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int low;
+        int high;
+        try {
+            low = words.nextInt();
+            high = words.nextInt();
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Search FAILED -- bad ID "
+                + words.lastWord());
+            return;
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println(
+                "Search FAILED -- searchrange needs a low and a high ID");
+            return;
+        }
+        try {
+            controller.searchRange(low, high);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "searchkeyword" command. The keywords may be
+     * preceded by "and" (the default) or "or".
+     * 
+     * @param line
+     *            The line with the keywords to find.
+     */
+    private void handleSearchKeyword(CharSequence line) {
+        String[] parts = CommandTokenizer.split(line);
+        int first = 1;
+        boolean any = false;
+        if (parts.length > 2 && (parts[1].equals("and") || parts[1].equals(
+            "or"))) {
+            any = parts[1].equals("or");
+            first = 2;
+        }
+        if (parts.length <= first) {
+            controller.getOutput().println(
+                "Searchkeyword command has no keywords");
+            return;
+        }
+        String[] keywords = new String[parts.length - first];
+        System.arraycopy(parts, first, keywords, 0, keywords.length);
+        try {
+            controller.searchKeyword(keywords, any);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "searchradius" command.
+     * 
+     * @param line
+     *            The line with the x, y and radius of the search.
+     */
+    private void handleSearchRadius(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int x;
+        int y;
+        int radius;
+        try {
+            x = words.nextInt();
+            y = words.nextInt();
+            radius = words.nextInt();
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Search FAILED -- bad number "
+                + words.lastWord());
+            return;
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println(
+                "Search FAILED -- searchradius needs an x, a y and a radius");
+            return;
+        }
+        try {
+            controller.searchRadius(x, y, radius);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "searchrect" command.
+     * 
+     * @param line
+     *            The line with the x, y, width and height of the rectangle.
+     */
+    private void handleSearchRect(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int x;
+        int y;
+        int width;
+        int height;
+        try {
+            x = words.nextInt();
+            y = words.nextInt();
+            width = words.nextInt();
+            height = words.nextInt();
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Search FAILED -- bad number "
+                + words.lastWord());
+            return;
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println("Search FAILED -- searchrect "
+                + "needs an x, a y, a width and a height");
+            return;
+        }
+        try {
+            controller.searchRect(x, y, width, height);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "searchcost" command.
+     * 
+     * @param line
+     *            The line with the smallest and largest cost to find.
+     */
+    private void handleSearchCost(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int low;
+        int high;
+        try {
+            low = words.nextInt();
+            high = words.nextInt();
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Search FAILED -- bad cost "
+                + words.lastWord());
+            return;
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println(
+                "Search FAILED -- searchcost needs a low and a high cost");
+            return;
+        }
+        try {
+            controller.searchCost(low, high);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "searchdate" command.
+     * 
+     * @param line
+     *            The line with the earliest and latest date to find.
+     */
+    private void handleSearchDate(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        String low;
+        String high;
+        try {
+            low = words.next();
+            high = words.next();
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println(
+                "Search FAILED -- searchdate needs an earliest and a latest "
+                    + "date");
+            return;
+        }
+        try {
+            controller.searchDate(low, high);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "query" command.
+     * 
+     * @param line
+     *            The line with the predicates of the query.
+     */
+    private void handleQuery(CharSequence line) {
+        Query query;
+        try {
+            query = Query.parse(CommandTokenizer.split(line), 1);
+        }
+        catch (IllegalArgumentException e) {
+            controller.getOutput().println("Query FAILED -- " + e.getMessage());
+            return;
+        }
+        try {
+            controller.query(query);
+        }
+        catch (Exception e) {
+            // Exception is caught
+        }
+    }
+
+
+    /**
+     * For dealing with the "deleterange" command.
+     * 
+     * @param line
+     *            The line with the smallest and largest ID to delete.
+     */
+    private void handleDeleteRange(CharSequence line) {
+        words.reset(line);
+        words.skip();
+        int low;
+        int high;
+        try {
+            low = words.nextInt();
+            high = words.nextInt();
+        }
+        catch (NumberFormatException e) {
+            controller.getOutput().println("Delete FAILED -- bad ID "
+                + words.lastWord());
+            return;
+        }
+        catch (IndexOutOfBoundsException e) {
+            controller.getOutput().println(
+                "Delete FAILED -- deleterange needs a low and a high ID");
+            return;
+        }
+        controller.deleteRange(low, high);
+    }
+
+
     /**
      * For dealing with the "print" command.
      * 
      * @param line
      *            The string after the "print" keyword.
      */
-    private void handlePrint(String line) {
-        if (line.contains("hashtable")) {
+    private void handlePrint(CharSequence line) {
+        if (CommandTokenizer.contains(line, "hashtable")) {
             controller.printHashTable();
         }
-        else if (line.contains("blocks")) {
+        else if (CommandTokenizer.contains(line, "hashstats")) {
+            controller.printHashStats();
+        }
+        else if (CommandTokenizer.contains(line, "blocks")) {
             controller.printFreeBlocks();
         }
+        else if (CommandTokenizer.contains(line, "stats")) {
+            controller.printStats();
+        }
         else {
-            System.out.println("Print command has bad parameter");
+            controller.getOutput().println("Print command has bad parameter");
         }
     }
 }
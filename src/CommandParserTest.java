@@ -0,0 +1,116 @@
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CommandParser class on malformed command lines.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.08
+ */
+public class CommandParserTest {
+    private CommandParser parser;
+    private ByteArrayOutputStream bytes;
+    private OutputSink sink;
+
+    /**
+     * Creates a parser whose controller prints into a buffer.
+     */
+    @Before
+    public void setUp() {
+        Controller controller = new Controller(4, 512);
+        bytes = new ByteArrayOutputStream();
+        sink = OutputSink.buffered(new PrintStream(bytes),
+            OutputSink.DEFAULT_BUFFER_SIZE, false);
+        controller.setOutput(sink);
+        parser = new CommandParser(controller);
+    }
+
+
+    /**
+     * Parses commands and returns what they printed.
+     *
+     * @param commands
+     *            The command lines.
+     * @return The output, with line separators turned into "\n".
+     */
+    private String run(String commands) {
+        parser.parseCommands(new BufferedReader(new StringReader(commands)));
+        sink.flush();
+        return bytes.toString().replace(System.lineSeparator(), "\n");
+    }
+
+
+    /**
+     * Tests that search lines with missing or malformed IDs report a
+     * failure and the commands after them still run.
+     */
+    @Test
+    public void testBadSearchIds() {
+        String output = run("search\nsearch abc\nsearch 3 junk\n"
+            + "search 99999999999\nsearch 3\n");
+        assertEquals("Search FAILED -- no ID given\n"
+            + "Search FAILED -- bad ID abc\n"
+            + "Search FAILED -- bad ID junk\n"
+            + "Search FAILED -- bad ID 99999999999\n"
+            + "Search FAILED -- There is no record with ID 3\n", output);
+    }
+
+
+    /**
+     * Tests that malformed searchcost and searchdate lines report a failure
+     * and do not stop the commands after them.
+     */
+    @Test
+    public void testBadCostAndDateSearches() {
+        String output = run("searchcost abc 5\nsearchcost 5\n"
+            + "searchdate 0610051600\nsearchdate x y\nprint blocks\n");
+        String[] lines = output.split("\n");
+        assertEquals("Search FAILED -- bad cost abc", lines[0]);
+        assertEquals("Search FAILED -- searchcost needs a low and a high "
+            + "cost", lines[1]);
+        assertEquals("Search FAILED -- searchdate needs an earliest and a "
+            + "latest date", lines[2]);
+        assertTrue(lines[3].startsWith("Search FAILED -- bad date"));
+        assertTrue(output.contains("Freeblock List:"));
+    }
+
+
+    /**
+     * Tests that malformed searchrange, searchradius and searchrect lines
+     * report a failure instead of printing nothing.
+     */
+    @Test
+    public void testBadRangeAndLocationSearches() {
+        String output = run("searchrange 5\nsearchrange 1 x\n"
+            + "searchradius 1 2\nsearchradius 1 2 r\n"
+            + "searchrect 0 0 10\nsearchrect 0 0 w 10\n");
+        assertEquals("Search FAILED -- searchrange needs a low and a high ID\n"
+            + "Search FAILED -- bad ID x\n"
+            + "Search FAILED -- searchradius needs an x, a y and a radius\n"
+            + "Search FAILED -- bad number r\n"
+            + "Search FAILED -- searchrect needs an x, a y, a width and a "
+            + "height\n"
+            + "Search FAILED -- bad number w\n", output);
+    }
+
+
+    /**
+     * Tests that a malformed deleterange line reports a failure, deletes
+     * nothing, and does not stop the commands after it.
+     */
+    @Test
+    public void testBadDeleteRange() {
+        String output = run("deleterange 5\ndeleterange abc 9\n"
+            + "deleterange 1 99999999999\ndeleterange 1 9\n");
+        assertEquals("Delete FAILED -- deleterange needs a low and a high ID\n"
+            + "Delete FAILED -- bad ID abc\n"
+            + "Delete FAILED -- bad ID 99999999999\n"
+            + "Deleted 0 records with ID in range 1 to 9\n", output);
+    }
+}
@@ -0,0 +1,199 @@
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A fast pass over a command file that counts the insert commands and
+ * estimates how many bytes their serialized records will take, so the hash
+ * table and memory pool can be built at their final sizes instead of growing
+ * one step at a time.
+ * <p>
+ * The scan works on raw bytes and never decodes characters or builds
+ * strings. An insert is a line starting with "insert" followed by four lines:
+ * title, details, keywords and description. Each record is estimated as the
+ * trimmed length of those four lines plus the fixed overhead of the
+ * serialized form. Runs of spaces inside the lines are counted as written,
+ * so the estimate errs on the large side.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.25
+ */
+public class CommandPrescan {
+    private int insertCount;
+    private long estimatedBytes;
+
+    /**
+     * Stream header, block data header, the ID, length, x, y, cost and
+     * keyword count fields, and the length prefixes of title, date and
+     * description.
+     */
+    static final int RECORD_OVERHEAD = 4 + 2 + 4 + 4 + 2 + 2 + 4 + 4 + 2 * 3;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Scans a command file.
+     *
+     * @param path
+     *            The command file.
+     * @return The counts for the file.
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    public static CommandPrescan scan(String path) throws IOException {
+        try (InputStream in = new FileInputStream(path)) {
+            return scan(in);
+        }
+    }
+
+
+    /**
+     * Scans a stream of commands.
+     *
+     * @param in
+     *            The commands.
+     * @return The counts for the stream.
+     * @throws IOException
+     *             if the stream cannot be read
+     */
+    public static CommandPrescan scan(InputStream in) throws IOException {
+        CommandPrescan result = new CommandPrescan();
+        byte[] buffer = new byte[BUFFER_SIZE];
+        byte[] prefix = "insert".getBytes();
+
+        int pendingLines = 0; // lines of the current insert still to come
+        int lineStart = -1; // column of the first non-blank byte, or -1
+        int lineEnd = 0; // column after the last non-blank byte
+        int column = 0;
+        boolean isInsert = true; // the line so far matches the prefix
+
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                byte b = buffer[i];
+                if (b == '\n') {
+                    pendingLines = result.endLine(pendingLines, lineStart,
+                        lineEnd, isInsert);
+                    lineStart = -1;
+                    lineEnd = 0;
+                    column = 0;
+                    isInsert = true;
+                    continue;
+                }
+                if (!isBlank(b)) {
+                    if (lineStart == -1) {
+                        lineStart = column;
+                    }
+                    lineEnd = column + 1;
+                    int offset = column - lineStart;
+                    if (offset < prefix.length && b != prefix[offset]) {
+                        isInsert = false;
+                    }
+                }
+                column++;
+            }
+        }
+        result.endLine(pendingLines, lineStart, lineEnd, isInsert);
+        return result;
+    }
+
+
+    /**
+     * Accounts for one finished line.
+     *
+     * @param pendingLines
+     *            Lines of the current insert still to come.
+     * @param lineStart
+     *            Column of the first non-blank byte, or -1 for a blank line.
+     * @param lineEnd
+     *            Column after the last non-blank byte.
+     * @param isInsert
+     *            Whether the line starts with the insert prefix.
+     * @return The lines of the current insert still to come after this one.
+     */
+    private int endLine(
+        int pendingLines,
+        int lineStart,
+        int lineEnd,
+        boolean isInsert) {
+        if (pendingLines > 0) {
+            if (lineStart != -1) {
+                estimatedBytes += lineEnd - lineStart;
+            }
+            return pendingLines - 1;
+        }
+        if (lineStart != -1 && isInsert && lineEnd - lineStart >= 6) {
+            insertCount++;
+            estimatedBytes += RECORD_OVERHEAD;
+            return 4;
+        }
+        return 0;
+    }
+
+
+    /**
+     * Tests for the whitespace that String.trim removes from a line.
+     *
+     * @param b
+     *            A byte of the file.
+     * @return True for control characters and spaces.
+     */
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+
+    /**
+     * Returns the number of insert commands found.
+     *
+     * @return The insert count.
+     */
+    public int getInsertCount() {
+        return insertCount;
+    }
+
+
+    /**
+     * Returns the estimated serialized size of all inserted records.
+     *
+     * @return The estimate in bytes.
+     */
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+
+    /**
+     * Returns the hash table capacity that holds every insert without
+     * resizing: the initial size doubled until the inserts fit in half of it,
+     * the same capacity the table would grow to on its own.
+     *
+     * @param initialHashSize
+     *            The requested initial hash table size.
+     * @return The final hash table size.
+     */
+    public int hashSize(int initialHashSize) {
+        long size = Math.max(1, initialHashSize);
+        while (size / 2 < insertCount && size * 2 <= Integer.MAX_VALUE) {
+            size *= 2;
+        }
+        return (int)size;
+    }
+
+
+    /**
+     * Returns the memory pool size that holds every inserted record without
+     * expanding: the smallest multiple of the initial size, the amount the
+     * pool grows by, that covers the estimate.
+     *
+     * @param initialPoolSize
+     *            The requested initial memory pool size.
+     * @return The final memory pool size.
+     */
+    public int poolSize(int initialPoolSize) {
+        long step = Math.max(1, initialPoolSize);
+        long size = Math.max(step, (estimatedBytes + step - 1) / step * step);
+        return (int)Math.min(size, Integer.MAX_VALUE / step * step);
+    }
+}
@@ -0,0 +1,65 @@
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import student.TestCase;
+
+/**
+ * Tests for the CommandPrescan class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.25
+ */
+public class CommandPrescanTest extends TestCase {
+
+    /**
+     * Scans a string of commands.
+     *
+     * @param commands
+     *            The command text.
+     * @return The scan result.
+     * @throws IOException
+     */
+    private CommandPrescan scan(String commands) throws IOException {
+        return CommandPrescan.scan(new ByteArrayInputStream(commands
+            .getBytes()));
+    }
+
+
+    /**
+     * Test counting inserts and estimating record sizes in the sample input.
+     *
+     * @throws IOException
+     */
+    public void testSampleInput() throws IOException {
+        CommandPrescan prescan = CommandPrescan.scan(
+            "TestData/P4SimpSample_input.txt");
+        assertEquals(4, prescan.getInsertCount());
+        // The serialized records are 173 + 242 + 182 + 164 bytes
+        assertTrue(prescan.getEstimatedBytes() >= 761);
+        assertTrue(prescan.getEstimatedBytes() < 1000);
+        assertEquals(8, prescan.hashSize(2));
+        assertEquals(16, prescan.hashSize(16));
+        assertEquals(1024, prescan.poolSize(512));
+        assertEquals(2048, prescan.poolSize(2048));
+    }
+
+
+    /**
+     * Test that only lines starting with insert begin a record, as in the
+     * parser, and that the four lines after one are never taken as commands.
+     *
+     * @throws IOException
+     */
+    public void testCommandLines() throws IOException {
+        CommandPrescan prescan = scan("  insert 1\r\nT\n d \ninsert\nx y\n"
+            + "search 1\ninserted\n\n\n\nins\ndelete 1\ninsert 2\nAB");
+        assertEquals(3, prescan.getInsertCount());
+        assertEquals(3 * CommandPrescan.RECORD_OVERHEAD + 1 + 1 + 6 + 3 + 3
+            + 2, prescan.getEstimatedBytes());
+
+        prescan = scan("");
+        assertEquals(0, prescan.getInsertCount());
+        assertEquals(1, prescan.hashSize(0));
+        assertEquals(100, prescan.poolSize(100));
+    }
+}
@@ -0,0 +1,371 @@
+/**
+ * Splits a command line into words in one pass, without regular
+ * expressions. A tokenizer reads exactly the words of
+ * {@code line.trim().split("\\s+")}: the line is trimmed as String.trim
+ * does, removing every character up to a space from both ends, and the rest
+ * is split at runs of the whitespace of {@code \s}, which is space, tab,
+ * newline, vertical tab, form feed and carriage return. Other control
+ * characters inside the line are part of a word, as they are for split.
+ * <p>
+ * Numbers are parsed straight from the characters of the line, without
+ * creating a String for them. A word that is not a plain decimal number of
+ * at most nine digits, or that is out of range, is handed to
+ * Integer.parseInt or Short.parseShort, so the results and exceptions are
+ * those of the parse methods the parser used before.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.06
+ */
+public class CommandTokenizer {
+    private static final int FAST_DIGITS = 9;
+    private static final String[] EMPTY_LINE = { "" };
+
+    private CharSequence line;
+    private int pos;
+    private int end;
+    private int wordStart;
+
+    /**
+     * Creates a tokenizer over a line.
+     *
+     * @param line
+     *            The line.
+     */
+    public CommandTokenizer(CharSequence line) {
+        reset(line);
+    }
+
+
+    /**
+     * Starts over on another line, so that one tokenizer can serve every
+     * line of a command file.
+     *
+     * @param text
+     *            The line.
+     */
+    public void reset(CharSequence text) {
+        this.line = text;
+        this.pos = trimStart(text);
+        this.end = trimEnd(text, pos);
+        this.wordStart = pos;
+    }
+
+
+    /**
+     * Returns whether a character is whitespace to {@code \s}.
+     *
+     * @param c
+     *            The character.
+     * @return True for space, tab, newline, vertical tab, form feed and
+     *         carriage return.
+     */
+    public static boolean isSpace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+
+    /**
+     * Returns where a line starts once trimmed.
+     *
+     * @param text
+     *            The line.
+     * @return The index of the first character above a space, or the
+     *         length if there is none.
+     */
+    private static int trimStart(CharSequence text) {
+        int start = 0;
+        int length = text.length();
+        while (start < length && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+
+    /**
+     * Returns where a line ends once trimmed.
+     *
+     * @param text
+     *            The line.
+     * @param start
+     *            Where the trimmed line starts.
+     * @return The index after the last character above a space.
+     */
+    private static int trimEnd(CharSequence text, int start) {
+        int stop = text.length();
+        while (stop > start && text.charAt(stop - 1) <= ' ') {
+            stop--;
+        }
+        return stop;
+    }
+
+
+    /**
+     * Moves past whitespace and returns whether a word follows.
+     *
+     * @return True if there is another word.
+     */
+    public boolean hasNext() {
+        while (pos < end && isSpace(line.charAt(pos))) {
+            pos++;
+        }
+        return pos < end;
+    }
+
+
+    /**
+     * Counts the words left without reading them.
+     *
+     * @return The number of words after the current position.
+     */
+    public int remaining() {
+        int count = 0;
+        boolean inWord = false;
+        for (int i = pos; i < end; i++) {
+            boolean space = isSpace(line.charAt(i));
+            if (!space && !inWord) {
+                count++;
+            }
+            inWord = !space;
+        }
+        return count;
+    }
+
+
+    /**
+     * Finds the end of the word at the current position.
+     *
+     * @return The index after its last character.
+     * @throws IndexOutOfBoundsException
+     *             if there are no more words
+     */
+    private int wordEnd() {
+        if (!hasNext()) {
+            throw new IndexOutOfBoundsException("No more words in \"" + line
+                + "\"");
+        }
+        wordStart = pos;
+        int stop = pos;
+        while (stop < end && !isSpace(line.charAt(stop))) {
+            stop++;
+        }
+        return stop;
+    }
+
+
+    /**
+     * Reads the next word.
+     *
+     * @return The word.
+     * @throws IndexOutOfBoundsException
+     *             if there are no more words
+     */
+    public String next() {
+        int stop = wordEnd();
+        String word = line.subSequence(pos, stop).toString();
+        pos = stop;
+        return word;
+    }
+
+
+    /**
+     * Returns the word read last, such as one that failed to parse as a
+     * number, so that it can be reported.
+     *
+     * @return The word, or "" if none was read since the last reset.
+     */
+    public String lastWord() {
+        return line.subSequence(wordStart, Math.max(wordStart, pos))
+            .toString();
+    }
+
+
+    /**
+     * Skips the next word.
+     *
+     * @throws IndexOutOfBoundsException
+     *             if there are no more words
+     */
+    public void skip() {
+        pos = wordEnd();
+    }
+
+
+    /**
+     * Reads the next word as an int, as Integer.parseInt would.
+     *
+     * @return The value.
+     * @throws IndexOutOfBoundsException
+     *             if there are no more words
+     * @throws NumberFormatException
+     *             if the word is not an int
+     */
+    public int nextInt() {
+        int stop = wordEnd();
+        int start = pos;
+        pos = stop;
+        boolean negative = line.charAt(start) == '-';
+        int i = negative || line.charAt(start) == '+' ? start + 1 : start;
+        if (i == stop || stop - i > FAST_DIGITS) {
+            return Integer.parseInt(line.subSequence(start, stop).toString());
+        }
+        int value = 0;
+        for (; i < stop; i++) {
+            char c = line.charAt(i);
+            if (c < '0' || c > '9') {
+                return Integer.parseInt(line.subSequence(start, stop)
+                    .toString());
+            }
+            value = value * 10 + c - '0';
+        }
+        return negative ? -value : value;
+    }
+
+
+    /**
+     * Reads the next word as a short, as Short.parseShort would.
+     *
+     * @return The value.
+     * @throws IndexOutOfBoundsException
+     *             if there are no more words
+     * @throws NumberFormatException
+     *             if the word is not a short
+     */
+    public short nextShort() {
+        int start = pos;
+        int value = nextInt();
+        if (value < Short.MIN_VALUE || value > Short.MAX_VALUE) {
+            // Let Short report the range error with the original word
+            pos = start;
+            int stop = wordEnd();
+            pos = stop;
+            return Short.parseShort(line.subSequence(wordStart, stop)
+                .toString());
+        }
+        return (short)value;
+    }
+
+
+    /**
+     * Splits a line into its words.
+     *
+     * @param text
+     *            The line.
+     * @return The same array as {@code text.toString().trim().split("\\s+")},
+     *         which holds one empty word for a blank line.
+     */
+    public static String[] split(CharSequence text) {
+        CommandTokenizer tokenizer = new CommandTokenizer(text);
+        int count = tokenizer.remaining();
+        if (count == 0) {
+            return EMPTY_LINE.clone();
+        }
+        String[] words = new String[count];
+        for (int i = 0; i < count; i++) {
+            words[i] = tokenizer.next();
+        }
+        return words;
+    }
+
+
+    /**
+     * Trims a line.
+     *
+     * @param text
+     *            The line.
+     * @return The same string as {@code text.toString().trim()}.
+     */
+    public static String trim(CharSequence text) {
+        int start = trimStart(text);
+        return text.subSequence(start, trimEnd(text, start)).toString();
+    }
+
+
+    /**
+     * Returns whether the rest of the line starts with a string, without
+     * reading past it. Straight after {@link #reset(CharSequence)} this is
+     * the same as {@code line.toString().trim().startsWith(prefix)}.
+     *
+     * @param prefix
+     *            The prefix.
+     * @return True if the characters at the current position match it.
+     */
+    public boolean startsWith(String prefix) {
+        if (end - pos < prefix.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (line.charAt(pos + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Returns whether a line contains a string, without copying the line.
+     *
+     * @param text
+     *            The line.
+     * @param part
+     *            The string to find.
+     * @return The same as {@code text.toString().contains(part)}.
+     */
+    public static boolean contains(CharSequence text, String part) {
+        int last = text.length() - part.length();
+        for (int i = 0; i <= last; i++) {
+            int j = 0;
+            while (j < part.length() && text.charAt(i + j) == part.charAt(j)) {
+                j++;
+            }
+            if (j == part.length()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * Trims a line and replaces each run of whitespace inside it with one
+     * space.
+     *
+     * @param text
+     *            The line.
+     * @return The same string as
+     *         {@code text.toString().trim().replaceAll("\\s+", " ")}.
+     */
+    public static String collapse(CharSequence text) {
+        int start = trimStart(text);
+        int stop = trimEnd(text, start);
+        StringBuilder result = null;
+        int copied = start;
+        int i = start;
+        while (i < stop) {
+            char c = text.charAt(i);
+            if (!isSpace(c)) {
+                i++;
+                continue;
+            }
+            int run = i + 1;
+            while (run < stop && isSpace(text.charAt(run))) {
+                run++;
+            }
+            if (c != ' ' || run > i + 1) {
+                // Only runs other than a single space need rewriting
+                if (result == null) {
+                    result = new StringBuilder(stop - start);
+                }
+                result.append(text, copied, i).append(' ');
+                copied = run;
+            }
+            i = run;
+        }
+        if (result == null) {
+            return text.subSequence(start, stop).toString();
+        }
+        return result.append(text, copied, stop).toString();
+    }
+}
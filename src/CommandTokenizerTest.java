@@ -0,0 +1,185 @@
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CommandTokenizer class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.06
+ */
+public class CommandTokenizerTest {
+
+    /**
+     * Characters the random lines are made of: every kind of whitespace,
+     * control characters that trim removes but split does not, and a few
+     * word characters.
+     */
+    private static final char[] ALPHABET = { ' ', '\t', '\n', '\u000B', '\f',
+        '\r', '\u0000', '\u001C', '\u0085', '\u00A0', 'a', 'b', '1', '-',
+        '+' };
+
+    /**
+     * Tests reading words and numbers from a command line.
+     */
+    @Test
+    public void testWords() {
+        CommandTokenizer words = new CommandTokenizer(
+            "  insert \t 1729  \r\n");
+        assertTrue(words.hasNext());
+        assertEquals(2, words.remaining());
+        assertEquals("insert", words.next());
+        assertEquals(1729, words.nextInt());
+        assertFalse(words.hasNext());
+        assertEquals(0, words.remaining());
+
+        words.reset("0610051600 90 10 -10 +45");
+        assertEquals("0610051600", words.next());
+        assertEquals(90, words.nextInt());
+        assertEquals(10, words.nextShort());
+        assertEquals(-10, words.nextShort());
+        words.skip();
+        assertFalse(words.hasNext());
+        assertEquals("+45", words.lastWord());
+
+        words.reset("search 12x");
+        assertEquals("", words.lastWord());
+        words.skip();
+        try {
+            words.nextInt();
+            fail("parsed 12x");
+        }
+        catch (NumberFormatException e) {
+            assertEquals("12x", words.lastWord());
+        }
+    }
+
+
+    /**
+     * Tests that numbers parse as Integer.parseInt and Short.parseShort
+     * would, including the errors.
+     */
+    @Test
+    public void testNumbers() {
+        String[] ints = { "0", "-0", "+7", "2147483647", "-2147483648",
+            "0000000000012", "\u0661\u0662" };
+        for (String word : ints) {
+            assertEquals(Integer.parseInt(word), new CommandTokenizer(word)
+                .nextInt());
+        }
+        String[] badInts = { "-", "+", "2147483648", "12a", "1-2", "--1" };
+        for (String word : badInts) {
+            try {
+                new CommandTokenizer(word).nextInt();
+                fail("parsed " + word);
+            }
+            catch (NumberFormatException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+        assertEquals(Short.MAX_VALUE, new CommandTokenizer("32767")
+            .nextShort());
+        assertEquals(Short.MIN_VALUE, new CommandTokenizer("-32768")
+            .nextShort());
+        try {
+            new CommandTokenizer("x 32768").nextShort();
+            fail("parsed a word");
+        }
+        catch (NumberFormatException e) {
+            assertNotNull(e.getMessage());
+        }
+        CommandTokenizer words = new CommandTokenizer("32768");
+        try {
+            words.nextShort();
+            fail("parsed 32768 as a short");
+        }
+        catch (NumberFormatException e) {
+            assertTrue(e.getMessage().contains("32768"));
+        }
+    }
+
+
+    /**
+     * Tests that reading past the last word throws.
+     */
+    @Test
+    public void testNoMoreWords() {
+        CommandTokenizer words = new CommandTokenizer(" delete ");
+        words.skip();
+        try {
+            words.nextInt();
+            fail("read a missing word");
+        }
+        catch (IndexOutOfBoundsException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Tests split and collapse against the regular expressions they replace
+     * on random lines.
+     */
+    @Test
+    public void testMatchesRegex() {
+        Random random = new Random(49);
+        for (int n = 0; n < 5000; n++) {
+            StringBuilder line = new StringBuilder();
+            int length = random.nextInt(12);
+            for (int i = 0; i < length; i++) {
+                line.append(ALPHABET[random.nextInt(ALPHABET.length)]);
+            }
+            String text = line.toString();
+            String[] expected = text.trim().split("\\s+");
+            String[] actual = CommandTokenizer.split(text);
+            assertEquals(text, expected.length, actual.length);
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(text, expected[i], actual[i]);
+            }
+            assertEquals(text, text.trim().replaceAll("\\s+", " "),
+                CommandTokenizer.collapse(text));
+            CommandTokenizer words = new CommandTokenizer(text);
+            int count = expected[0].isEmpty() ? 0 : expected.length;
+            assertEquals(text, count, words.remaining());
+            for (int i = 0; i < count; i++) {
+                assertEquals(text, expected[i], words.next());
+            }
+            assertFalse(text, words.hasNext());
+        }
+    }
+
+
+    /**
+     * Tests that a blank line splits into one empty word, as split does.
+     */
+    @Test
+    public void testBlankLine() {
+        String[] parts = CommandTokenizer.split(" \t ");
+        assertEquals(1, parts.length);
+        assertEquals("", parts[0]);
+        assertEquals("", CommandTokenizer.collapse(""));
+        assertEquals("a b", CommandTokenizer.collapse("a b"));
+        assertEquals("a b c", CommandTokenizer.collapse(" a\t\tb\r\nc "));
+    }
+
+
+    /**
+     * Tests the helpers the parser uses on lines it does not copy.
+     */
+    @Test
+    public void testLineHelpers() {
+        assertEquals("print  stats", CommandTokenizer.trim(
+            "\u0000 print  stats\r"));
+        assertEquals("", CommandTokenizer.trim(" \t"));
+        CommandTokenizer words = new CommandTokenizer("\t searchrect 1 2");
+        assertTrue(words.startsWith("search"));
+        assertTrue(words.startsWith("searchrect"));
+        assertFalse(words.startsWith("searchrange"));
+        assertFalse(new CommandTokenizer(" print ").startsWith("print "));
+        assertTrue(CommandTokenizer.contains("print hashstats", "stats"));
+        assertTrue(CommandTokenizer.contains("blocks", "blocks"));
+        assertFalse(CommandTokenizer.contains("print block", "blocks"));
+        assertTrue(CommandTokenizer.contains("", ""));
+    }
+}
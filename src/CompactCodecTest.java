@@ -0,0 +1,80 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CompactCodec class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.29
+ */
+public class CompactCodecTest {
+    private CompactCodec codec;
+    private Seminar seminar;
+
+    /**
+     * Setup method creates the codec and a sample seminar.
+     */
+    @Before
+    public void setUp() {
+        codec = new CompactCodec();
+        seminar = new Seminar(1, "Overview of HCI Research at VT",
+            "0610051600", 90, (short)10, (short)10, 45, new String[] { "HCI",
+                "Computer_Science", "VT", "Virginia_Tech" },
+            "This seminar will present an overview of HCI research at VT");
+    }
+
+
+    /**
+     * Tests a round trip and that the record is smaller than its canonical
+     * form.
+     */
+    @Test
+    public void testRoundTrip() throws Exception {
+        int size = codec.encodedSize(seminar);
+        byte[] buffer = new byte[size + 10];
+        assertEquals(size, codec.encode(seminar, buffer, 5));
+        Seminar copy = codec.decode(buffer, 5, size);
+        assertEquals(seminar.toString(), copy.toString());
+        assertEquals(173, seminar.serialize().length);
+        assertEquals(147, size);
+    }
+
+
+    /**
+     * Tests extreme numbers and non-ASCII text, including a character
+     * outside the basic plane and an unpaired surrogate.
+     */
+    @Test
+    public void testEdgeValues() {
+        Seminar odd = new Seminar(Integer.MIN_VALUE, "Caf\u00e9 \u4e2d",
+            "", Integer.MAX_VALUE, Short.MIN_VALUE, Short.MAX_VALUE, -1,
+            new String[0], "\ud83d\ude00 and \ud800");
+        int size = codec.encodedSize(odd);
+        byte[] buffer = new byte[size];
+        assertEquals(size, codec.encode(odd, buffer, 0));
+        Seminar copy = codec.decode(buffer, 0, size);
+        assertEquals(Integer.MIN_VALUE, copy.getId());
+        assertEquals("Caf\u00e9 \u4e2d", copy.getTitle());
+        assertEquals(Integer.MAX_VALUE, copy.getLength());
+        assertEquals(Short.MIN_VALUE, copy.getX());
+        assertEquals(Short.MAX_VALUE, copy.getY());
+        assertEquals(-1, copy.getCost());
+        assertEquals(0, copy.getKeywords().length);
+        assertEquals("\ud83d\ude00 and ?", copy.getDescription());
+        assertEquals(1, CompactCodec.varintSize(-1));
+        assertEquals(5, CompactCodec.varintSize(Integer.MIN_VALUE));
+    }
+
+
+    /**
+     * Tests that a truncated record is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testTruncated() {
+        byte[] buffer = new byte[codec.encodedSize(seminar)];
+        codec.encode(seminar, buffer, 0);
+        codec.decode(buffer, 0, buffer.length - 1);
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * Wraps another record format and compresses the records that reach a size
+ * threshold with {@link LzCompressor}. The description is most of a large
+ * record, so in practice this compresses the long descriptions and leaves
+ * short records alone, where the token overhead would outweigh the gain.
+ * <p>
+ * Every stored record starts with a flag byte. With the flag clear, the
+ * inner format's bytes follow as is; with it set, the inner size follows as
+ * a varint and then the compressed bytes. A record is only stored
+ * compressed if that makes it smaller, and reads check the flag, so callers
+ * never see the difference.
+ * <p>
+ * A record under the threshold is encoded straight into the memory pool. A
+ * larger one is encoded and compressed when it is sized, into buffers the
+ * codec keeps, and copied into the pool by the encode call that follows, so
+ * a codec must be used by one thread at a time.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.03
+ */
+public class CompressedCodec implements RecordCodec {
+    private static final byte PLAIN = 0;
+    private static final byte COMPRESSED = 1;
+
+    private final RecordCodec inner;
+    private final int threshold;
+    private final CompressionStats stats;
+
+    private byte[] scratch;
+    private byte[] packed;
+    private Seminar pending;
+    private int pendingRaw;
+    private int pendingSize;
+    private boolean pendingTried;
+    private boolean pendingCompressed;
+    private long pendingNanos;
+
+    /**
+     * Constructs a codec.
+     *
+     * @param inner
+     *            The format of the records before compression.
+     * @param threshold
+     *            The size in the inner format at which a record is
+     *            compressed.
+     */
+    public CompressedCodec(RecordCodec inner, int threshold) {
+        this.inner = inner;
+        this.threshold = threshold;
+        this.stats = new CompressionStats();
+        this.scratch = new byte[0];
+        this.packed = new byte[0];
+    }
+
+
+    /**
+     * @return the counters of records compressed and time spent
+     */
+    public CompressionStats getStats() {
+        return stats;
+    }
+
+
+    /**
+     * @return the size in the inner format at which records are compressed
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+
+    /**
+     * Returns the stored size of a seminar, compressing it first if it
+     * reaches the threshold.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The encoded size, with the flag byte.
+     */
+    @Override
+    public int encodedSize(Seminar seminar) {
+        int raw = inner.encodedSize(seminar);
+        pending = seminar;
+        pendingRaw = raw;
+        pendingSize = 1 + raw;
+        pendingTried = raw >= threshold;
+        pendingCompressed = false;
+        pendingNanos = 0;
+        if (!pendingTried) {
+            return pendingSize;
+        }
+        long start = System.nanoTime();
+        if (scratch.length < raw) {
+            scratch = new byte[raw];
+        }
+        inner.encode(seminar, scratch, 0);
+        int header = 1 + CompactCodec.varintSize(raw);
+        int bound = header + LzCompressor.maxCompressedSize(raw);
+        if (packed.length < bound) {
+            packed = new byte[bound];
+        }
+        int size = header + LzCompressor.compress(scratch, 0, raw, packed,
+            header);
+        if (size < pendingSize) {
+            packed[0] = COMPRESSED;
+            CompactCodec.writeVarint(raw, packed, 1);
+            pendingSize = size;
+            pendingCompressed = true;
+        }
+        pendingNanos = System.nanoTime() - start;
+        return pendingSize;
+    }
+
+
+    /**
+     * Writes a seminar's stored form into a buffer.
+     *
+     * @param seminar
+     *            The seminar.
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            Where to write the first byte.
+     * @return The number of bytes written.
+     */
+    @Override
+    public int encode(Seminar seminar, byte[] buffer, int offset) {
+        if (seminar != pending) {
+            encodedSize(seminar);
+        }
+        pending = null;
+        if (pendingCompressed) {
+            System.arraycopy(packed, 0, buffer, offset, pendingSize);
+        }
+        else {
+            buffer[offset] = PLAIN;
+            if (pendingTried) {
+                System.arraycopy(scratch, 0, buffer, offset + 1, pendingRaw);
+            }
+            else {
+                inner.encode(seminar, buffer, offset + 1);
+            }
+        }
+        stats.recordEncode(pendingRaw, pendingSize, pendingCompressed,
+            pendingNanos);
+        return pendingSize;
+    }
+
+
+    /**
+     * Reads a seminar's stored form, decompressing it if needed.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The seminar.
+     */
+    @Override
+    public Seminar decode(byte[] buffer, int offset, int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("record is truncated");
+        }
+        if (buffer[offset] == PLAIN) {
+            stats.recordDecode(false, 0);
+            return inner.decode(buffer, offset + 1, length - 1);
+        }
+        byte[] raw = decompress(buffer, offset, length);
+        return inner.decode(raw, 0, raw.length);
+    }
+
+
+    /**
+     * Returns a view of a record, decompressing it first if needed.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The view.
+     */
+    @Override
+    public SeminarView view(byte[] buffer, int offset, int length) {
+        if (length < 1) {
+            throw new IllegalArgumentException("record is truncated");
+        }
+        if (buffer[offset] == PLAIN) {
+            stats.recordDecode(false, 0);
+            return inner.view(buffer, offset + 1, length - 1);
+        }
+        byte[] raw = decompress(buffer, offset, length);
+        return inner.view(raw, 0, raw.length);
+    }
+
+
+    /**
+     * Decompresses a record stored compressed.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record, its flag byte.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The record in the inner format.
+     * @throws IllegalArgumentException
+     *             if the flag byte is unknown or the data is corrupt
+     */
+    private byte[] decompress(byte[] buffer, int offset, int length) {
+        if (buffer[offset] != COMPRESSED) {
+            throw new IllegalArgumentException("bad record flags "
+                + buffer[offset]);
+        }
+        long start = System.nanoTime();
+        CompactCodec.Reader in = new CompactCodec.Reader(buffer, offset + 1,
+            offset + length);
+        int size = in.readVarint();
+        // A match of n bytes takes at least n / 255 bytes to describe
+        if (size < 0 || size > (long)length * 255) {
+            throw new IllegalArgumentException("bad record size " + size);
+        }
+        int header = 1 + CompactCodec.varintSize(size);
+        byte[] raw = new byte[size];
+        LzCompressor.decompress(buffer, offset + header, length - header, raw,
+            0, size);
+        stats.recordDecode(true, System.nanoTime() - start);
+        return raw;
+    }
+}
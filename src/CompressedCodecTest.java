@@ -0,0 +1,134 @@
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the CompressedCodec class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.03
+ */
+public class CompressedCodecTest {
+    private CompressedCodec codec;
+
+    /**
+     * Setup method creates a codec over the canonical format that
+     * compresses records of 200 bytes or more.
+     */
+    @Before
+    public void setUp() {
+        codec = new CompressedCodec(new CanonicalCodec(), 200);
+    }
+
+
+    /**
+     * Creates a seminar with the given description.
+     *
+     * @param description
+     *            The description.
+     * @return The seminar.
+     */
+    private Seminar seminar(String description) {
+        return new Seminar(1, "Overview of HCI Research at VT", "0610051600",
+            90, (short)10, (short)10, 45, new String[] { "HCI", "VT" },
+            description);
+    }
+
+
+    /**
+     * Encodes a seminar at an offset, checks the size, and decodes it both
+     * ways.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The stored size.
+     */
+    private int roundTrip(Seminar seminar) {
+        int size = codec.encodedSize(seminar);
+        byte[] buffer = new byte[size + 4];
+        assertEquals(size, codec.encode(seminar, buffer, 4));
+        assertEquals(seminar.toString(), codec.decode(buffer, 4, size)
+            .toString());
+        assertEquals(seminar.getDescription(), codec.view(buffer, 4, size)
+            .getDescription());
+        return size;
+    }
+
+
+    /**
+     * Tests that a short record is stored as is behind the flag byte.
+     */
+    @Test
+    public void testShort() {
+        Seminar seminar = seminar("Short");
+        assertEquals(new CanonicalCodec().encodedSize(seminar) + 1, roundTrip(
+            seminar));
+        assertEquals(0, codec.getStats().getCompressed());
+    }
+
+
+    /**
+     * Tests that a long, repetitive description is compressed.
+     */
+    @Test
+    public void testLong() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            description.append("Learn what research is done on HPC at VT. ");
+        }
+        Seminar seminar = seminar(description.toString());
+        int raw = new CanonicalCodec().encodedSize(seminar);
+        int size = roundTrip(seminar);
+        assertTrue(size < raw / 4);
+        CompressionStats stats = codec.getStats();
+        assertEquals(1, stats.getRecords());
+        assertEquals(1, stats.getCompressed());
+        assertEquals(raw, stats.getRawBytes());
+        assertEquals(size, stats.getStoredBytes());
+        assertTrue(stats.toString().startsWith("compressed: 1 of 1 records\n"
+            + "bytes: " + raw + " raw, " + size + " stored, ratio: "));
+        assertTrue(stats.toString().contains(", 2 of 2 reads decompressed"));
+    }
+
+
+    /**
+     * Tests that a long record that does not shrink is stored as is.
+     */
+    @Test
+    public void testIncompressible() {
+        StringBuilder description = new StringBuilder();
+        Random random = new Random(3);
+        for (int i = 0; i < 300; i++) {
+            description.append((char)('!' + random.nextInt(90)));
+        }
+        Seminar seminar = seminar(description.toString());
+        int raw = new CanonicalCodec().encodedSize(seminar);
+        assertEquals(raw + 1, roundTrip(seminar));
+        assertEquals(0, codec.getStats().getCompressed());
+    }
+
+
+    /**
+     * Tests encoding without sizing first.
+     */
+    @Test
+    public void testEncodeWithoutSize() {
+        Seminar seminar = seminar(new String(new char[500]).replace('\0',
+            'x'));
+        byte[] buffer = new byte[600];
+        int size = codec.encode(seminar, buffer, 0);
+        assertEquals(seminar.toString(), codec.decode(buffer, 0, size)
+            .toString());
+    }
+
+
+    /**
+     * Tests that an unknown flag byte is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadFlags() {
+        codec.decode(new byte[] { 7, 0, 0 }, 0, 3);
+    }
+}
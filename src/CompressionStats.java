@@ -0,0 +1,138 @@
+/**
+ * Counters for a {@link CompressedCodec}: how many records were compressed,
+ * the bytes before and after, and the time spent compressing on insert and
+ * decompressing on read. Like {@link HashStats}, every update is a few plain
+ * field increments and the counters need no synchronization.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.03
+ */
+public class CompressionStats {
+    private long records;
+    private long compressed;
+    private long rawBytes;
+    private long storedBytes;
+    private long compressNanos;
+    private long reads;
+    private long decompressed;
+    private long decompressNanos;
+
+    /**
+     * Records an encoded record.
+     *
+     * @param raw
+     *            Its size before compression.
+     * @param stored
+     *            Its size as stored, with the flag byte.
+     * @param wasCompressed
+     *            True if it is stored compressed.
+     * @param nanos
+     *            The time spent compressing it, 0 if it was not tried.
+     */
+    public void recordEncode(
+        int raw,
+        int stored,
+        boolean wasCompressed,
+        long nanos) {
+        records++;
+        if (wasCompressed) {
+            compressed++;
+        }
+        rawBytes += raw;
+        storedBytes += stored;
+        compressNanos += nanos;
+    }
+
+
+    /**
+     * Records a decoded record.
+     *
+     * @param wasCompressed
+     *            True if it had to be decompressed.
+     * @param nanos
+     *            The time spent decompressing it, 0 if it was not.
+     */
+    public void recordDecode(boolean wasCompressed, long nanos) {
+        reads++;
+        if (wasCompressed) {
+            decompressed++;
+        }
+        decompressNanos += nanos;
+    }
+
+
+    /**
+     * @return the number of records encoded
+     */
+    public long getRecords() {
+        return records;
+    }
+
+
+    /**
+     * @return the number of records stored compressed
+     */
+    public long getCompressed() {
+        return compressed;
+    }
+
+
+    /**
+     * @return the total size of the records encoded, before compression
+     */
+    public long getRawBytes() {
+        return rawBytes;
+    }
+
+
+    /**
+     * @return the total size of the records encoded, as stored
+     */
+    public long getStoredBytes() {
+        return storedBytes;
+    }
+
+
+    /**
+     * Returns the counters as text: the records compressed, the ratio of
+     * stored to raw bytes, and the average added time per insert and read
+     * in microseconds.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        result.append("compressed: " + compressed + " of " + records
+            + " records\n");
+        result.append("bytes: " + rawBytes + " raw, " + storedBytes
+            + " stored, ratio: ");
+        result.append(rawBytes == 0
+            ? "1.00"
+            : String.format("%.2f", (double)storedBytes / rawBytes));
+        result.append("\n");
+        result.append("compression time: " + average(compressNanos, records)
+            + " us per insert\n");
+        result.append("decompression time: " + average(decompressNanos, reads)
+            + " us per read, " + decompressed + " of " + reads
+            + " reads decompressed");
+        return result.toString();
+    }
+
+
+    /**
+     * Formats an average time in microseconds.
+     *
+     * @param nanos
+     *            The total time in nanoseconds.
+     * @param count
+     *            The number of operations.
+     * @return The average with two decimals.
+     */
+    private static String average(long nanos, long count) {
+        return count == 0
+            ? "0.00"
+            : String.format("%.2f", nanos / 1000.0 / count);
+    }
+}
@@ -0,0 +1,339 @@
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread-safe hash table from seminar ID to Handle for multi-threaded
+ * serving, with lock-free lookups.
+ * <p>
+ * Slots live in an {@link AtomicReferenceArray} behind a volatile table
+ * reference. Records are never modified in place: writers install a new
+ * Record with a compare-and-set on its slot. Once an ID claims a slot it
+ * keeps it for the life of that table, so a removal installs a record with a
+ * null handle and a later insert of the same ID revives it. Readers therefore
+ * need no lock; they read the table reference and probe.
+ * <p>
+ * Writers share the read side of a read/write lock, so inserts and removes
+ * run concurrently with one another. The writer that crosses 50% of claimed
+ * slots takes the write side, copies the live records into a new table, and
+ * publishes it with a single volatile write. The new table is twice the size
+ * if the live records fill a quarter of the old one; otherwise removed IDs
+ * made up most of the claimed slots, and the table is rebuilt at the same
+ * size so that churn does not grow it without bound. Readers are never
+ * blocked by a resize; they keep using the old table, which is frozen while
+ * it is copied, until they see the new one.
+ * <p>
+ * The resize stops the writers: it is not cooperative. Writers that arrive
+ * while the table is copied wait on the lock until the copy is published,
+ * rather than helping move slots across through a forwarding table, so one
+ * writer pays for the whole copy and the others stall for it. Under
+ * write-heavy churn that pause shows up in the throughput;
+ * ConcurrentHashBenchmark measures it against a locked Hash.
+ * <p>
+ * The capacity is always a power of two, IDs are hashed with
+ * {@link Hash#mix(int)}, and collisions use triangular probing.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class ConcurrentHash {
+    private volatile AtomicReferenceArray<Record> table;
+    private final AtomicInteger numberOfRecords;
+    private final AtomicInteger claimedSlots;
+    private final ReentrantReadWriteLock resizeLock;
+    private volatile OutputSink output = OutputSink.console();
+    private static final int FULL = -2;
+
+    /**
+     * Constructs a new table.
+     *
+     * @param initialCapacity
+     *            The initial capacity, rounded up to a power of two.
+     */
+    public ConcurrentHash(int initialCapacity) {
+        table = new AtomicReferenceArray<>(Hash.roundUpToPowerOfTwo(
+            initialCapacity));
+        numberOfRecords = new AtomicInteger();
+        claimedSlots = new AtomicInteger();
+        resizeLock = new ReentrantReadWriteLock();
+    }
+
+
+    /**
+     * Inserts an ID into the hash table with its associated memory handle.
+     *
+     * @param id
+     *            The ID to insert into the table.
+     * @param handle
+     *            The associated memory handle in the memory pool. Must not be
+     *            null.
+     * @return The index where the ID was inserted, or -1 if the ID is already
+     *         present.
+     */
+    public int insert(int id, Handle handle) {
+        if (handle == null) {
+            throw new IllegalArgumentException("Handle must not be null");
+        }
+        Record record = new Record(id, handle);
+        while (true) {
+            AtomicReferenceArray<Record> current;
+            resizeLock.readLock().lock();
+            try {
+                current = table;
+                if (claimedSlots.get() < current.length() / 2) {
+                    int pos = insertInto(current, record);
+                    if (pos != FULL) {
+                        return pos;
+                    }
+                }
+            }
+            finally {
+                resizeLock.readLock().unlock();
+            }
+            resize(current);
+        }
+    }
+
+
+    /**
+     * Installs a record into the probe sequence of its ID. Must be called
+     * while holding the read side of the resize lock.
+     *
+     * @param current
+     *            The current table.
+     * @param record
+     *            The record to install.
+     * @return The index where the ID was inserted, -1 if the ID is already
+     *         present, or FULL if concurrent writers used up its probe
+     *         sequence.
+     */
+    private int insertInto(
+        AtomicReferenceArray<Record> current,
+        Record record) {
+        int id = record.getId();
+        int mask = current.length() - 1;
+        int pos = Hash.mix(id) & mask;
+        int i = 0;
+
+        while (i <= mask) {
+            Record resident = current.get(pos);
+            if (resident == null) {
+                if (current.compareAndSet(pos, null, record)) {
+                    claimedSlots.incrementAndGet();
+                    numberOfRecords.incrementAndGet();
+                    return pos;
+                }
+                continue; // lost the race; look at the slot again
+            }
+            if (resident.getId() == id) {
+                if (resident.getHandle() != null) {
+                    print("Insert FAILED - There is already a record with ID "
+                        + id);
+                    return -1;
+                }
+                if (current.compareAndSet(pos, resident, record)) {
+                    numberOfRecords.incrementAndGet();
+                    return pos;
+                }
+                continue;
+            }
+            i++;
+            pos = (pos + i) & mask;
+        }
+        return FULL;
+    }
+
+
+    /**
+     * Rebuilds the table without its removed IDs, unless another writer
+     * already replaced it. The table doubles only if the live records fill at
+     * least a quarter of it, so a rebuild at the same size always leaves room
+     * for as many inserts again before the next one. Every other writer
+     * waits until the copy is published; readers are not blocked.
+     *
+     * @param seen
+     *            The table the caller found too full.
+     */
+    private void resize(AtomicReferenceArray<Record> seen) {
+        resizeLock.writeLock().lock();
+        try {
+            AtomicReferenceArray<Record> old = table;
+            if (old != seen) {
+                return;
+            }
+            // Writers are blocked, so the count is exact
+            boolean grow = numberOfRecords.get() >= old.length() / 4;
+            int capacity = grow ? old.length() * 2 : old.length();
+            AtomicReferenceArray<Record> grown = new AtomicReferenceArray<>(
+                capacity);
+            int live = 0;
+            for (int slot = 0; slot < old.length(); slot++) {
+                Record record = old.get(slot);
+                if (record != null && record.getHandle() != null) {
+                    int pos = Hash.mix(record.getId()) & (capacity - 1);
+                    int i = 0;
+                    while (grown.get(pos) != null) {
+                        i++;
+                        pos = (pos + i) & (capacity - 1);
+                    }
+                    grown.set(pos, record);
+                    live++;
+                }
+            }
+            claimedSlots.set(live);
+            if (grow) {
+                print("Hash table expanded to " + capacity + " records");
+            }
+            table = grown;
+        }
+        finally {
+            resizeLock.writeLock().unlock();
+        }
+    }
+
+
+    /**
+     * Prints a message to the output sink. Writers print concurrently, so
+     * each line is printed holding the sink's monitor.
+     *
+     * @param message
+     *            The message.
+     */
+    private void print(String message) {
+        OutputSink sink = output;
+        synchronized (sink) {
+            sink.println(message);
+        }
+    }
+
+
+    /**
+     * Sets where the expansion and duplicate messages are printed.
+     *
+     * @param sink
+     *            The output sink.
+     */
+    public void setOutput(OutputSink sink) {
+        output = sink;
+    }
+
+
+    /**
+     * Finds the handle associated with the given ID without taking any lock.
+     *
+     * @param id
+     *            The ID to find in the table.
+     * @return The handle associated with the ID, or null if not found.
+     */
+    public Handle find(int id) {
+        AtomicReferenceArray<Record> current = table;
+        int mask = current.length() - 1;
+        int pos = Hash.mix(id) & mask;
+
+        for (int i = 0; i <= mask; i++) {
+            Record resident = current.get(pos);
+            if (resident == null) {
+                return null;
+            }
+            if (resident.getId() == id) {
+                return resident.getHandle();
+            }
+            pos = (pos + i + 1) & mask;
+        }
+        return null;
+    }
+
+
+    /**
+     * Removes the specified ID from the hash table.
+     *
+     * @param id
+     *            The ID to remove.
+     * @return The handle associated with the removed ID, or null if the ID is
+     *         not found.
+     */
+    public Handle remove(int id) {
+        resizeLock.readLock().lock();
+        try {
+            AtomicReferenceArray<Record> current = table;
+            int mask = current.length() - 1;
+            int pos = Hash.mix(id) & mask;
+            int i = 0;
+
+            while (i <= mask) {
+                Record resident = current.get(pos);
+                if (resident == null) {
+                    return null;
+                }
+                if (resident.getId() == id) {
+                    Handle handle = resident.getHandle();
+                    if (handle == null) {
+                        return null;
+                    }
+                    if (current.compareAndSet(pos, resident, new Record(id,
+                        null))) {
+                        numberOfRecords.decrementAndGet();
+                        return handle;
+                    }
+                    continue;
+                }
+                i++;
+                pos = (pos + i) & mask;
+            }
+            return null;
+        }
+        finally {
+            resizeLock.readLock().unlock();
+        }
+    }
+
+
+    /**
+     * Returns the current capacity of the hash table.
+     *
+     * @return The capacity of the hash table.
+     */
+    public int getCapacity() {
+        return table.length();
+    }
+
+
+    /**
+     * Returns the number of records in the table.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return numberOfRecords.get();
+    }
+
+
+    /**
+     * Prints the contents of the hash table. Slots claimed by a removed ID
+     * are shown as tombstones. The result is a consistent snapshot only when
+     * no writer is active.
+     *
+     * @return A string representation of the hash table contents.
+     */
+    public String printToString() {
+        AtomicReferenceArray<Record> current = table;
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < current.length(); i++) {
+            Record record = current.get(i);
+            if (record == null) {
+                continue;
+            }
+            if (record.getHandle() == null) {
+                result.append(i + ": TOMBSTONE\n");
+            }
+            else {
+                result.append(i + ": " + record.getId() + "\n");
+            }
+        }
+
+        result.append("total records: " + numberOfRecords.get());
+        return result.toString();
+    }
+}
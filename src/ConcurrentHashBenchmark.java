@@ -0,0 +1,295 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Measures the throughput of ConcurrentHash under several threads at
+ * read-heavy and write-heavy mixes, next to a Hash that every thread
+ * shares behind one lock. The table is filled with IDs for the reads to
+ * find; each thread then runs a fixed number of operations, doing a number
+ * of lookups of random filled IDs for every write. Writes alternate between
+ * inserting a new ID from the thread's own range and removing the one it
+ * inserted a fixed number of writes before, so the live size stays level
+ * while removed IDs pile up and force resizes. Each mix is run a few times
+ * and the best round is reported.
+ * <p>
+ * Usage:
+ * {@code java ConcurrentHashBenchmark [threads] [operations] [rounds]}
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class ConcurrentHashBenchmark {
+
+    /** The lookups per write of each mix: 50:1, 10:1 and 1:1. */
+    public static final int[] MIXES = { 50, 10, 1 };
+
+    private static final int FILLED = 1 << 14;
+    private static final int WINDOW = 1 << 10;
+    private static final Handle HANDLE = new Handle(0, 1);
+
+    /** Lookups are counted here so the JIT cannot drop them. */
+    private static volatile long checksum;
+
+    /**
+     * The operations one thread runs on a table.
+     */
+    private interface Table {
+        /**
+         * Finds an ID.
+         *
+         * @param id
+         *            The ID.
+         * @return True if it is in the table.
+         */
+        boolean find(int id);
+
+
+        /**
+         * Inserts an ID.
+         *
+         * @param id
+         *            The ID.
+         */
+        void insert(int id);
+
+
+        /**
+         * Removes an ID.
+         *
+         * @param id
+         *            The ID.
+         */
+        void remove(int id);
+    }
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            The number of threads, operations per thread and rounds,
+     *            defaulting to the number of processors, 1000000 and 3.
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int threads = args.length > 0
+            ? Integer.parseInt(args[0])
+            : Runtime.getRuntime().availableProcessors();
+        int operations = args.length > 1 ? Integer.parseInt(args[1]) : 1000000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        System.out.println(threads + " threads, " + operations
+            + " operations each");
+        for (int reads : MIXES) {
+            System.out.println(String.format(
+                "%d:1  ConcurrentHash %.0f ops/s, locked Hash %.0f ops/s",
+                reads, concurrentRate(threads, reads, operations, rounds),
+                lockedRate(threads, reads, operations, rounds)));
+        }
+    }
+
+
+    /**
+     * Times a fresh ConcurrentHash.
+     *
+     * @param threads
+     *            The number of threads.
+     * @param reads
+     *            The lookups per write.
+     * @param operations
+     *            The operations each thread runs.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best rate in operations per second over all threads.
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static double concurrentRate(
+        int threads,
+        int reads,
+        int operations,
+        int rounds)
+        throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            ConcurrentHash hash = new ConcurrentHash(1024);
+            hash.setOutput(discard());
+            Table table = new Table() {
+                @Override
+                public boolean find(int id) {
+                    return hash.find(id) != null;
+                }
+
+
+                @Override
+                public void insert(int id) {
+                    hash.insert(id, HANDLE);
+                }
+
+
+                @Override
+                public void remove(int id) {
+                    hash.remove(id);
+                }
+            };
+            best = Math.min(best, time(table, threads, reads, operations));
+        }
+        return (double)threads * operations / (best / 1e9);
+    }
+
+
+    /**
+     * Times a fresh Hash with every operation holding one shared lock.
+     *
+     * @param threads
+     *            The number of threads.
+     * @param reads
+     *            The lookups per write.
+     * @param operations
+     *            The operations each thread runs.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best rate in operations per second over all threads.
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    public static double lockedRate(
+        int threads,
+        int reads,
+        int operations,
+        int rounds)
+        throws InterruptedException {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            Hash hash = new Hash(1024, true);
+            hash.setOutput(discard());
+            Table table = new Table() {
+                @Override
+                public synchronized boolean find(int id) {
+                    return hash.find(id) != null;
+                }
+
+
+                @Override
+                public synchronized void insert(int id) {
+                    hash.insert(id, HANDLE);
+                }
+
+
+                @Override
+                public synchronized void remove(int id) {
+                    hash.remove(id);
+                }
+            };
+            best = Math.min(best, time(table, threads, reads, operations));
+        }
+        return (double)threads * operations / (best / 1e9);
+    }
+
+
+    /**
+     * Fills a table and times the threads running against it.
+     *
+     * @param table
+     *            The table.
+     * @param threads
+     *            The number of threads.
+     * @param reads
+     *            The lookups per write.
+     * @param operations
+     *            The operations each thread runs.
+     * @return The time from starting the threads until the last finished,
+     *         in nanoseconds.
+     * @throws InterruptedException
+     *             if interrupted while waiting for the threads
+     */
+    private static long time(
+        Table table,
+        int threads,
+        int reads,
+        int operations)
+        throws InterruptedException {
+        for (int id = 0; id < FILLED; id++) {
+            table.insert(id);
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            int base = FILLED + t * operations;
+            int seed = 2024 + t;
+            workers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                }
+                catch (InterruptedException e) {
+                    return;
+                }
+                run(table, base, seed, reads, operations);
+            });
+            workers[t].start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return System.nanoTime() - begin;
+    }
+
+
+    /**
+     * Runs one thread's operations.
+     *
+     * @param table
+     *            The table.
+     * @param base
+     *            The first ID of the thread's own range for inserts.
+     * @param seed
+     *            The seed of the IDs to look up.
+     * @param reads
+     *            The lookups per write.
+     * @param operations
+     *            The number of operations.
+     */
+    private static void run(
+        Table table,
+        int base,
+        int seed,
+        int reads,
+        int operations) {
+        int random = seed;
+        int inserted = 0;
+        boolean insertNext = true;
+        long found = 0;
+        for (int op = 0; op < operations; op++) {
+            if (op % (reads + 1) != reads) {
+                // xorshift, cheaper than sharing a Random between threads
+                random ^= random << 13;
+                random ^= random >>> 17;
+                random ^= random << 5;
+                if (table.find(random & (FILLED - 1))) {
+                    found++;
+                }
+            }
+            else if (insertNext || inserted < WINDOW) {
+                table.insert(base + inserted++);
+                insertNext = false;
+            }
+            else {
+                table.remove(base + inserted - WINDOW);
+                insertNext = true;
+            }
+        }
+        checksum += found;
+    }
+
+
+    /**
+     * @return a sink that throws away the expansion messages
+     */
+    private static OutputSink discard() {
+        return OutputSink.buffered(new PrintStream(OutputStream
+            .nullOutputStream()), OutputSink.DEFAULT_BUFFER_SIZE, false);
+    }
+}
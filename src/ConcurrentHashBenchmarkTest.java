@@ -0,0 +1,27 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ConcurrentHashBenchmark class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class ConcurrentHashBenchmarkTest {
+
+    /**
+     * Tests that every mix runs on both tables and a rate is measured.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testSmallRun() throws InterruptedException {
+        for (int reads : ConcurrentHashBenchmark.MIXES) {
+            assertTrue(ConcurrentHashBenchmark.concurrentRate(2, reads, 5000,
+                1) > 0);
+            assertTrue(ConcurrentHashBenchmark.lockedRate(2, reads, 5000,
+                1) > 0);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ConcurrentHash class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.21
+ */
+public class ConcurrentHashTest {
+    private ConcurrentHash hashTable;
+    private Handle handle1;
+    private Handle handle2;
+
+    /**
+     * Setup method initializes the hash table and Handle objects for testing.
+     */
+    @Before
+    public void setUp() {
+        hashTable = new ConcurrentHash(4);
+        handle1 = new Handle(10, 50);
+        handle2 = new Handle(60, 100);
+    }
+
+
+    /**
+     * Tests single-threaded insert, find, remove and reinsertion.
+     */
+    @Test
+    public void testInsertFindRemove() {
+        assertTrue(hashTable.insert(1, handle1) >= 0);
+        assertEquals(-1, hashTable.insert(1, handle2));
+        assertEquals(handle1, hashTable.find(1));
+        assertEquals(handle1, hashTable.remove(1));
+        assertNull(hashTable.remove(1));
+        assertNull(hashTable.find(1));
+        assertTrue(hashTable.printToString().contains("TOMBSTONE"));
+        assertTrue(hashTable.insert(1, handle2) >= 0);
+        assertEquals(handle2, hashTable.find(1));
+        assertEquals(1, hashTable.size());
+        assertNull(hashTable.find(2));
+        assertNull(hashTable.remove(2));
+    }
+
+
+    /**
+     * Tests that resizing doubles the table and drops removed IDs.
+     */
+    @Test
+    public void testResize() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(2, handle2);
+        hashTable.remove(1);
+        hashTable.insert(3, handle1);
+        assertEquals(8, hashTable.getCapacity());
+        assertFalse(hashTable.printToString().contains("TOMBSTONE"));
+        assertTrue(hashTable.printToString().endsWith("total records: 2"));
+        assertEquals(handle2, hashTable.find(2));
+        assertEquals(handle1, hashTable.find(3));
+    }
+
+
+    /**
+     * Tests that inserting and removing distinct IDs rebuilds the table at
+     * the same size once the live records no longer need more room.
+     */
+    @Test
+    public void testChurnKeepsCapacity() {
+        hashTable.insert(-1, handle1);
+        for (int id = 0; id < 100000; id++) {
+            assertTrue(hashTable.insert(id, handle2) >= 0);
+            assertEquals(handle2, hashTable.remove(id));
+        }
+        assertEquals(1, hashTable.size());
+        // One live record fills a quarter of 4 slots, but not of 8
+        assertEquals(8, hashTable.getCapacity());
+        assertEquals(handle1, hashTable.find(-1));
+    }
+
+
+    /**
+     * Tests that messages go to the output sink, and that only a rebuild
+     * that grows the table reports an expansion.
+     */
+    @Test
+    public void testOutput() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(new PrintStream(bytes), 64,
+            false);
+        hashTable.setOutput(sink);
+        hashTable.insert(1, handle1);
+        hashTable.insert(1, handle2);
+        hashTable.insert(2, handle2);
+        hashTable.remove(1);
+        hashTable.remove(2);
+        hashTable.insert(3, handle1);
+        hashTable.insert(4, handle1);
+        hashTable.insert(5, handle1);
+        sink.flush();
+        String nl = System.lineSeparator();
+        assertEquals("Insert FAILED - There is already a record with ID 1"
+            + nl + "Hash table expanded to 8 records" + nl, bytes.toString());
+    }
+
+
+    /**
+     * Tests that a null handle is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullHandle() {
+        hashTable.insert(1, null);
+    }
+
+
+    /**
+     * Tests concurrent writers on disjoint IDs with concurrent readers, then
+     * concurrent duplicate inserts of the same IDs.
+     *
+     * @throws InterruptedException
+     */
+    @Test
+    public void testConcurrentWritersAndReaders()
+        throws InterruptedException {
+        final int writers = 4;
+        final int perWriter = 5000;
+        final AtomicInteger wrongReads = new AtomicInteger();
+        Thread[] threads = new Thread[writers * 2];
+
+        for (int w = 0; w < writers; w++) {
+            final int base = w * perWriter;
+            threads[w] = new Thread(() -> {
+                for (int id = base; id < base + perWriter; id++) {
+                    hashTable.insert(id, new Handle(id, 1));
+                    if (id % 3 == 0) {
+                        hashTable.remove(id);
+                    }
+                }
+            });
+            threads[writers + w] = new Thread(() -> {
+                for (int id = base; id < base + perWriter; id++) {
+                    Handle found = hashTable.find(id);
+                    if (found != null && found.getPosition() != id) {
+                        wrongReads.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, wrongReads.get());
+        int expected = 0;
+        for (int id = 0; id < writers * perWriter; id++) {
+            if (id % 3 == 0) {
+                assertNull(hashTable.find(id));
+            }
+            else {
+                assertEquals(new Handle(id, 1), hashTable.find(id));
+                expected++;
+            }
+        }
+        assertEquals(expected, hashTable.size());
+
+        final AtomicInteger successes = new AtomicInteger();
+        for (int w = 0; w < writers; w++) {
+            threads[w] = new Thread(() -> {
+                for (int id = 0; id < 300; id += 3) {
+                    if (hashTable.insert(id, new Handle(id, 2)) >= 0) {
+                        successes.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (int w = 0; w < writers; w++) {
+            threads[w].start();
+        }
+        for (int w = 0; w < writers; w++) {
+            threads[w].join();
+        }
+        assertEquals(100, successes.get());
+    }
+}
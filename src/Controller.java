@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * The Controller class for managing the hash table and memory pool.
  *
@@ -7,8 +9,21 @@
  */
 public class Controller {
 
+    /** The default byte budget of the decoded record cache. */
+    public static final long DEFAULT_CACHE_BYTES = 1 << 20;
+
     private Hash hashTable;
     private MemManager memManager;
+    private SkipList<Integer, Handle> idIndex;
+    private KeywordIndex keywordIndex;
+    private QuadTree locationIndex;
+    private RangeIndex costIndex;
+    private RangeIndex dateIndex;
+    private QueryPlanner planner;
+    private RecordCodec codec;
+    private long storedBytes;
+    private RecordCache cache;
+    private OutputSink sink;
 
     /**
      * Constructs a Controller with a hash table and memory manager.
@@ -19,8 +34,152 @@ public class Controller {
      *            The initial size of the memory pool in bytes.
      */
     public Controller(int initialHashSize, int memPoolSize) {
-        this.hashTable = new Hash(initialHashSize);
-        this.memManager = new MemManager(memPoolSize);
+        this(initialHashSize, memPoolSize, memPoolSize);
+    }
+
+
+    /**
+     * Constructs a Controller whose memory pool starts larger than the amount
+     * it grows by.
+     *
+     * @param initialHashSize
+     *            The initial size of the hash table.
+     * @param memPoolSize
+     *            The initial size of the memory pool in bytes.
+     * @param memGrowthSize
+     *            The number of bytes the memory pool grows by.
+     */
+    public Controller(int initialHashSize, int memPoolSize, int memGrowthSize) {
+        this(initialHashSize, memPoolSize, memGrowthSize,
+            new CanonicalCodec());
+    }
+
+
+    /**
+     * Constructs a Controller that stores records in a given format.
+     *
+     * @param initialHashSize
+     *            The initial size of the hash table.
+     * @param memPoolSize
+     *            The initial size of the memory pool in bytes.
+     * @param memGrowthSize
+     *            The number of bytes the memory pool grows by.
+     * @param codec
+     *            The format of the records in the memory pool.
+     */
+    public Controller(
+        int initialHashSize,
+        int memPoolSize,
+        int memGrowthSize,
+        RecordCodec codec) {
+        this(initialHashSize, memPoolSize, memGrowthSize, codec, false);
+    }
+
+
+    /**
+     * Constructs a Controller that stores records in a given format, with a
+     * choice of hash table layout.
+     *
+     * @param initialHashSize
+     *            The initial size of the hash table.
+     * @param memPoolSize
+     *            The initial size of the memory pool in bytes.
+     * @param memGrowthSize
+     *            The number of bytes the memory pool grows by.
+     * @param codec
+     *            The format of the records in the memory pool.
+     * @param powerOfTwoHash
+     *            True for a hash table with power-of-two capacities and the
+     *            mixed hash, false for the original modulo layout.
+     */
+    public Controller(
+        int initialHashSize,
+        int memPoolSize,
+        int memGrowthSize,
+        RecordCodec codec,
+        boolean powerOfTwoHash) {
+        this.codec = codec;
+        this.hashTable = new Hash(initialHashSize, powerOfTwoHash);
+        this.memManager = new MemManager(memPoolSize, memGrowthSize);
+        this.idIndex = new SkipList<>();
+        this.keywordIndex = new KeywordIndex();
+        this.locationIndex = new QuadTree();
+        this.costIndex = new RangeIndex();
+        this.dateIndex = new RangeIndex();
+        this.planner = new QueryPlanner(idIndex, keywordIndex, locationIndex,
+            costIndex, dateIndex);
+        this.cache = new RecordCache(DEFAULT_CACHE_BYTES);
+        this.sink = OutputSink.console();
+    }
+
+
+    /**
+     * Sends all further output, including the hash table's and memory
+     * manager's messages, to a sink.
+     *
+     * @param sink
+     *            The sink.
+     */
+    public void setOutput(OutputSink sink) {
+        this.sink = sink;
+        hashTable.setOutput(sink);
+        memManager.setOutput(sink);
+    }
+
+
+    /**
+     * @return the sink all output goes to
+     */
+    public OutputSink getOutput() {
+        return sink;
+    }
+
+
+    /**
+     * Selects whether the hash table doubles a few slots at a time instead
+     * of all at once.
+     *
+     * @param incremental
+     *            True to resize incrementally.
+     */
+    public void setIncrementalResize(boolean incremental) {
+        hashTable.setIncrementalResize(incremental);
+    }
+
+
+    /**
+     * Sets the load, in percent of the capacity, below which a delete halves
+     * the hash table.
+     *
+     * @param percent
+     *            The low-water mark, from 0 to 20; 0 never shrinks.
+     */
+    public void setShrinkLoadPercent(int percent) {
+        hashTable.setShrinkLoadPercent(percent);
+    }
+
+
+    /**
+     * Sets the occupancy, live records plus tombstones in percent of the
+     * capacity, past which an insert first rehashes the hash table in place.
+     *
+     * @param percent
+     *            The limit, from 51 to 100, or 0 to never rehash in place.
+     */
+    public void setTombstoneLimitPercent(int percent) {
+        hashTable.setTombstoneLimitPercent(percent);
+    }
+
+
+    /**
+     * Replaces the decoded record cache with an empty one.
+     *
+     * @param budget
+     *            The most bytes the cached seminars may take, 0 to cache
+     *            nothing.
+     */
+    public void setCacheBudget(long budget) {
+        this.cache = new RecordCache(budget);
     }
 
 
@@ -57,11 +216,19 @@ public class Controller {
         String[] keywords,
         String description) {
 
-        if (hashTable.find(id) != null) {
-            System.out.println(
+        // One probe sequence both rejects a duplicate and finds the slot
+        int slot = hashTable.reserve(id);
+        if (slot == Hash.DUPLICATE) {
+            sink.println(
                 "Insert FAILED - There is already a record with ID " + id);
             return;
         }
+        if (slot == Hash.NO_SLOT) {
+            sink.println(
+                "Insert FAILED - The hash table has no free slot for ID "
+                    + id);
+            return;
+        }
 
         String trimmedTitle = title.trim();
         String trimmedDescription = description.trim();
@@ -70,17 +237,28 @@ public class Controller {
             cost, keywords, trimmedDescription);
 
         try {
-            byte[] serializedSeminar = newSeminar.serialize();
-            int seminarSize = serializedSeminar.length;
-
-            Handle handle = memManager.insert(serializedSeminar);
+            // Size the record, then encode it straight into its block
+            int seminarSize = codec.encodedSize(newSeminar);
+            Handle handle = memManager.reserve(seminarSize);
+            codec.encode(newSeminar, memManager.getMemoryPool(), handle
+                .getPosition());
 
-            hashTable.insert(id, handle);
-            System.out.println("Successfully inserted record with ID " + id);
-            System.out.println(newSeminar.toString());
-            System.out.println("Size: " + seminarSize);
+            storedBytes += seminarSize;
+            hashTable.commit(slot, handle);
+            idIndex.insert(id, handle);
+            keywordIndex.add(keywords, id);
+            locationIndex.insert(x, y, id);
+            costIndex.add(cost, id);
+            int dateKey = RangeIndex.dateKey(date);
+            if (dateKey >= 0) {
+                dateIndex.add(dateKey, id);
+            }
+            sink.println("Successfully inserted record with ID " + id);
+            sink.println(newSeminar.toString());
+            sink.println("Size: " + seminarSize);
         }
         catch (Exception e) {
+            hashTable.abort(slot);
             e.printStackTrace();
         }
     }
@@ -97,22 +275,64 @@ public class Controller {
         Handle handle = hashTable.find(id);
 
         if (handle != null) {
-            byte[] serializedData = new byte[handle.getLength()];
-            memManager.get(serializedData, handle, handle.getLength());
-
-            Seminar seminar = Seminar.deserialize(serializedData);
-            System.out.println("Found record with ID " + id + ":");
-            System.out.println(seminar.toString());
+            Seminar seminar = read(id, handle);
+            sink.println("Found record with ID " + id + ":");
+            sink.println(seminar.toString());
             return seminar;
         }
         else {
-            System.out.println("Search FAILED -- There is no record with ID "
+            sink.println("Search FAILED -- There is no record with ID "
                 + id);
             return null;
         }
     }
 
 
+    /**
+     * Searches for many seminar records at once and prints them in request
+     * order with a single write. The hash table resolves all the IDs in one
+     * interleaved pass, and the records are then read from the memory pool
+     * in position order.
+     *
+     * @param ids
+     *            The IDs of the seminars to search for
+     * @return The Seminar for each ID in the same order, null where an ID is
+     *         not found
+     */
+    public Seminar[] searchAll(int[] ids) throws Exception {
+        Handle[] handles = hashTable.findAll(ids);
+        Seminar[] seminars = new Seminar[ids.length];
+
+        // Sort found requests by pool position, keeping the request index
+        long[] order = new long[ids.length];
+        int found = 0;
+        for (int k = 0; k < ids.length; k++) {
+            if (handles[k] != null) {
+                order[found++] = ((long)handles[k].getPosition() << 32) | k;
+            }
+        }
+        Arrays.sort(order, 0, found);
+        for (int n = 0; n < found; n++) {
+            int k = (int)order[n];
+            seminars[k] = read(ids[k], handles[k]);
+        }
+
+        StringBuilder output = new StringBuilder();
+        for (int k = 0; k < ids.length; k++) {
+            if (seminars[k] != null) {
+                output.append("Found record with ID " + ids[k] + ":\n");
+                output.append(seminars[k].toString()).append("\n");
+            }
+            else {
+                output.append("Search FAILED -- There is no record with ID "
+                    + ids[k] + "\n");
+            }
+        }
+        sink.print(output);
+        return seminars;
+    }
+
+
     /**
      * Deletes a seminar record by ID, removing it from the hash table and
      * memory.
@@ -124,23 +344,365 @@ public class Controller {
         Handle handle = hashTable.remove(id);
 
         if (handle != null) {
+            idIndex.remove(id);
+            unindex(id, handle);
+            cache.remove(id);
+            storedBytes -= handle.getLength();
             memManager.remove(handle);
-            System.out.println("Record with ID " + id
+            sink.println("Record with ID " + id
                 + " successfully deleted from the database");
         }
         else {
-            System.out.println("Delete FAILED -- There is no record with ID "
+            sink.println("Delete FAILED -- There is no record with ID "
                 + id);
         }
     }
 
 
+    /**
+     * Searches for every seminar record with an ID in a range and prints them
+     * in ID order.
+     *
+     * @param low
+     *            The smallest ID to include
+     * @param high
+     *            The largest ID to include
+     * @return The number of records found
+     */
+    public int searchRange(int low, int high) throws Exception {
+        DLList<KVPair<Integer, Handle>> found = idIndex.range(low, high);
+        sink.println("Found " + found.size()
+            + " records with ID in range " + low + " to " + high + ":");
+        for (KVPair<Integer, Handle> pair : found) {
+            sink.println(read(pair.getKey(), pair.getValue())
+                .toString());
+        }
+        return found.size();
+    }
+
+
+    /**
+     * Deletes every seminar record with an ID in a range. The records' space
+     * in the memory pool is freed as one batch.
+     *
+     * @param low
+     *            The smallest ID to delete
+     * @param high
+     *            The largest ID to delete
+     * @return The number of records deleted
+     */
+    public int deleteRange(int low, int high) {
+        DLList<KVPair<Integer, Handle>> found = idIndex.range(low, high);
+        Handle[] handles = new Handle[found.size()];
+        int count = 0;
+        for (KVPair<Integer, Handle> pair : found) {
+            int id = pair.getKey();
+            hashTable.remove(id);
+            idIndex.remove(id);
+            unindex(id, pair.getValue());
+            cache.remove(id);
+            storedBytes -= pair.getValue().getLength();
+            handles[count++] = pair.getValue();
+        }
+        memManager.removeAll(handles, count);
+        sink.println("Deleted " + count + " records with ID in range "
+            + low + " to " + high);
+        return count;
+    }
+
+
+    /**
+     * Searches for the seminar records with some or all of a set of keywords
+     * and prints them in ID order. The matching IDs come from merging the
+     * keywords' posting lists, so only matching records are read.
+     *
+     * @param keywords
+     *            The keywords to look for
+     * @param any
+     *            True to match records with any of the keywords, false to
+     *            match only records with all of them
+     * @return The IDs of the matching records in increasing order
+     */
+    public int[] searchKeyword(String[] keywords, boolean any)
+        throws Exception {
+        int[] ids = any
+            ? keywordIndex.findAny(keywords)
+            : keywordIndex.findAll(keywords);
+        StringBuilder output = new StringBuilder();
+        if (keywords.length == 1) {
+            output.append("Seminars matching keyword " + keywords[0]);
+        }
+        else {
+            output.append("Seminars matching " + (any ? "any" : "all")
+                + " of keywords " + String.join(", ", keywords));
+        }
+        output.append(":\n");
+        appendRecords(output, ids);
+        sink.print(output);
+        return ids;
+    }
+
+
+    /**
+     * Searches for the seminar records within a distance of a location and
+     * prints them in ID order, followed by the number of location index
+     * nodes the search visited.
+     *
+     * @param x
+     *            The x-coordinate of the location
+     * @param y
+     *            The y-coordinate of the location
+     * @param radius
+     *            The distance
+     * @return The IDs of the matching records in increasing order
+     */
+    public int[] searchRadius(int x, int y, int radius) throws Exception {
+        int[] ids = locationIndex.searchRadius(x, y, radius);
+        StringBuilder output = new StringBuilder();
+        output.append("Seminars within " + radius + " units of " + x + ", "
+            + y + ":\n");
+        appendRecords(output, ids);
+        output.append(locationIndex.getVisited()
+            + " nodes visited in this search\n");
+        sink.print(output);
+        return ids;
+    }
+
+
+    /**
+     * Searches for the seminar records in a rectangle and prints them in ID
+     * order, followed by the number of location index nodes the search
+     * visited.
+     *
+     * @param x
+     *            The left edge of the rectangle
+     * @param y
+     *            The top edge of the rectangle
+     * @param width
+     *            The width of the rectangle
+     * @param height
+     *            The height of the rectangle
+     * @return The IDs of the matching records in increasing order
+     */
+    public int[] searchRect(int x, int y, int width, int height)
+        throws Exception {
+        int[] ids = locationIndex.searchRect(x, y, width, height);
+        StringBuilder output = new StringBuilder();
+        output.append("Seminars in rectangle " + x + ", " + y + ", " + width
+            + ", " + height + ":\n");
+        appendRecords(output, ids);
+        output.append(locationIndex.getVisited()
+            + " nodes visited in this search\n");
+        sink.print(output);
+        return ids;
+    }
+
+
+    /**
+     * Finds the seminars whose cost lies in a range and prints their IDs,
+     * ordered by cost. No records are read from the memory pool.
+     *
+     * @param low
+     *            The smallest cost to include
+     * @param high
+     *            The largest cost to include
+     * @return The IDs of the matching records, ordered by cost
+     */
+    public int[] searchCost(int low, int high) {
+        int[] ids = costIndex.find(low, high);
+        printIds("Found " + ids.length + " records with cost in range " + low
+            + " to " + high + ":", ids);
+        return ids;
+    }
+
+
+    /**
+     * Finds the seminars whose date lies in a range and prints their IDs,
+     * ordered by date. No records are read from the memory pool.
+     *
+     * @param from
+     *            The earliest date to include, as yyMMddhhmm
+     * @param to
+     *            The latest date to include, as yyMMddhhmm
+     * @return The IDs of the matching records ordered by date, or null if a
+     *         date is malformed
+     */
+    public int[] searchDate(String from, String to) {
+        int low = RangeIndex.dateKey(from);
+        int high = RangeIndex.dateKey(to);
+        if (low < 0 || high < 0) {
+            sink.println("Search FAILED -- bad date " + (low < 0
+                ? from
+                : to));
+            return null;
+        }
+        int[] ids = dateIndex.find(low, high);
+        printIds("Found " + ids.length + " records with date in range " + from
+            + " to " + to + ":", ids);
+        return ids;
+    }
+
+
+    /**
+     * Runs a query over the indexes and prints the plan the planner chose,
+     * with the candidates left after each step, followed by the matching
+     * records in ID order. Only the matching records are read from the
+     * memory pool.
+     *
+     * @param query
+     *            The query
+     * @return The IDs of the matching records in increasing order, or null
+     *         if the query has no predicates
+     */
+    public int[] query(Query query) throws Exception {
+        if (query.size() == 0) {
+            sink.println("Query FAILED -- no predicates");
+            return null;
+        }
+        StringBuilder output = new StringBuilder("Query plan:\n");
+        int[] ids = planner.execute(query, output);
+        output.append("Found " + ids.length
+            + " records matching the query:\n");
+        appendRecords(output, ids);
+        sink.print(output);
+        return ids;
+    }
+
+
+    /**
+     * Prints a header line and then a list of IDs on one line.
+     *
+     * @param header
+     *            The first line
+     * @param ids
+     *            The IDs, printed only if there are any
+     */
+    private void printIds(String header, int[] ids) {
+        StringBuilder output = new StringBuilder(header).append("\n");
+        for (int k = 0; k < ids.length; k++) {
+            output.append(k == 0 ? "" : " ").append(ids[k]);
+        }
+        if (ids.length > 0) {
+            output.append("\n");
+        }
+        sink.print(output);
+    }
+
+
+    /**
+     * Reads records from the memory pool and appends them to an output
+     * buffer, one per ID.
+     *
+     * @param output
+     *            The buffer
+     * @param ids
+     *            The IDs of records that exist
+     */
+    private void appendRecords(StringBuilder output, int[] ids)
+        throws Exception {
+        for (int id : ids) {
+            output.append(read(id, hashTable.find(id)).toString()).append(
+                "\n");
+        }
+    }
+
+
+    /**
+     * Returns a record from the cache, or reads it from the memory pool,
+     * decodes it and caches it.
+     *
+     * @param id
+     *            The record's ID
+     * @param handle
+     *            The record's handle
+     * @return The seminar
+     */
+    private Seminar read(int id, Handle handle) {
+        Seminar seminar = cache.get(id);
+        if (seminar != null) {
+            return seminar;
+        }
+        byte[] serializedData = new byte[handle.getLength()];
+        memManager.get(serializedData, handle, handle.getLength());
+        seminar = codec.decode(serializedData, 0, serializedData.length);
+        cache.put(id, seminar);
+        return seminar;
+    }
+
+
+    /**
+     * Reads a record in place in the memory pool, without copying it or
+     * decoding any fields. The view reads the pool itself, so it must be used
+     * before the record is freed or the pool is expanded.
+     *
+     * @param handle
+     *            The record's handle
+     * @return A view of the record
+     */
+    private SeminarView view(Handle handle) {
+        return codec.view(memManager.getMemoryPool(), handle.getPosition(),
+            handle.getLength());
+    }
+
+
+    /**
+     * Removes a record that is being deleted from the secondary indexes. Its
+     * indexed fields are read back from the memory pool before the space is
+     * freed; the title and description are never decoded.
+     *
+     * @param id
+     *            The ID of the record
+     * @param handle
+     *            The record's handle in the memory pool
+     */
+    private void unindex(int id, Handle handle) {
+        SeminarView seminar = view(handle);
+        keywordIndex.remove(seminar.getKeywords(), id);
+        locationIndex.remove(seminar.getX(), seminar.getY(), id);
+        costIndex.remove(seminar.getCost(), id);
+        dateIndex.remove(RangeIndex.dateKey(seminar.getDate()), id);
+    }
+
+
     /**
      * Prints the contents of the hash table.
      */
     public void printHashTable() {
-        System.out.println("Hashtable:");
-        System.out.println(hashTable.printToString());
+        sink.println("Hashtable:");
+        sink.println(hashTable.printToString());
+    }
+
+
+    /**
+     * Prints the slot usage and operation counters of the hash table.
+     */
+    public void printHashStats() {
+        sink.println("Hash stats:");
+        sink.println(hashTable.statsToString());
+        sink.println(hashTable.getStats().toString());
+    }
+
+
+    /**
+     * Prints the number of records and the bytes they take in the memory
+     * pool, the compression counters if records are stored compressed, and
+     * the decoded record cache counters.
+     */
+    public void printStats() {
+        StringBuilder output = new StringBuilder("Record stats:\n");
+        output.append("records: " + idIndex.size() + ", stored bytes: "
+            + storedBytes + "\n");
+        if (codec instanceof CompressedCodec) {
+            CompressedCodec compressed = (CompressedCodec)codec;
+            output.append("compression threshold: " + compressed
+                .getThreshold() + " bytes\n");
+            output.append(compressed.getStats()).append("\n");
+        }
+        else {
+            output.append("compression: off\n");
+        }
+        output.append(cache).append("\n");
+        sink.print(output);
     }
 
 
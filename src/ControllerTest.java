@@ -2,6 +2,7 @@ import org.junit.Test;
 import student.TestCase;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
+import java.util.Arrays;
 
 /**
  * Test class for the Controller class using sample input.
@@ -115,4 +116,326 @@ public class ControllerTest extends TestCase {
         controller.search(99);
         assertOutput("Search FAILED -- There is no record with ID 99");
     }
+
+
+    /**
+     * Test printing the hash table slot usage after a delete.
+     */
+    @Test
+    public void testPrintHashStats() {
+        controller.insert(3, "Computing Systems Research at VT", "0701250830",
+            30, (short)30, (short)10, 17, new String[] { "VT" },
+            "Seminar about the Computing systems research at VT");
+        controller.delete(3);
+        outputStream.reset();
+        controller.printHashStats();
+        String output = outputStream.toString();
+        assertTrue(output.startsWith("Hash stats:\nlive records: 0\n"
+            + "tombstones: 1\nempty slots: 63\n"
+            + "inserts: 1, finds: 0, removes: 1\nhits: 1, misses: 0\n"));
+        assertTrue(output.contains("rebuilds: 0"));
+    }
+
+
+    /**
+     * Test that a batched search prints each result in request order.
+     */
+    @Test
+    public void testSearchAll() throws Exception {
+        controller.insert(3, "Computing Systems Research at VT", "0701250830",
+            30, (short)30, (short)10, 17, new String[] { "VT" },
+            "Seminar about the Computing systems research at VT");
+        controller.insert(1, "Overview", "0610051600", 90, (short)10,
+            (short)10, 45, new String[] { "HCI" }, "Short");
+        outputStream.reset();
+
+        Seminar[] found = controller.searchAll(new int[] { 1, 99, 3 });
+        assertNotNull(found[0]);
+        assertNull(found[1]);
+        assertNotNull(found[2]);
+        assertOutput("Found record with ID 1:\n"
+            + "ID: 1, Title: Overview\n"
+            + "Date: 0610051600, Length: 90, X: 10, Y: 10, Cost: 45\n"
+            + "Description: Short\n" + "Keywords: HCI\n"
+            + "Search FAILED -- There is no record with ID 99\n"
+            + "Found record with ID 3:\n"
+            + "ID: 3, Title: Computing Systems Research at VT\n"
+            + "Date: 0701250830, Length: 30, X: 30, Y: 10, Cost: 17\n"
+            + "Description: Seminar about the Computing systems "
+            + "research at VT\n" + "Keywords: VT");
+    }
+
+
+    /**
+     * Test searching and deleting ID ranges.
+     */
+    @Test
+    public void testSearchAndDeleteRange() throws Exception {
+        for (int id = 10; id > 0; id--) {
+            controller.insert(id * 3, "T" + id, "0610051600", 90, (short)10,
+                (short)10, 45, new String[] { "K" }, "D");
+        }
+        outputStream.reset();
+
+        assertEquals(3, controller.searchRange(5, 12));
+        String output = outputStream.toString();
+        assertTrue(output.startsWith(
+            "Found 3 records with ID in range 5 to 12:\nID: 6, Title: T2\n"));
+        assertTrue(output.indexOf("ID: 9,") < output.indexOf("ID: 12,"));
+        outputStream.reset();
+
+        assertEquals(4, controller.deleteRange(0, 12));
+        assertOutput("Deleted 4 records with ID in range 0 to 12");
+        assertNull(controller.search(6));
+        outputStream.reset();
+        assertEquals(0, controller.searchRange(0, 14));
+        assertOutput("Found 0 records with ID in range 0 to 14:");
+        assertEquals(6, controller.searchRange(0, 100));
+    }
+
+
+    /**
+     * Tests keyword searches and that deletes update the keyword index.
+     */
+    @Test
+    public void testSearchKeyword() throws Exception {
+        controller.insert(2, "B", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT", "HCI" }, "D");
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        controller.insert(3, "C", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "HCI" }, "D");
+        outputStream.reset();
+
+        assertTrue(Arrays.equals(new int[] { 1, 2 }, controller.searchKeyword(
+            new String[] { "VT" }, false)));
+        String output = outputStream.toString();
+        assertTrue(output.startsWith(
+            "Seminars matching keyword VT:\nID: 1, Title: A\n"));
+        assertTrue(output.contains("ID: 2, Title: B"));
+        outputStream.reset();
+
+        assertTrue(Arrays.equals(new int[] { 2 }, controller.searchKeyword(
+            new String[] { "VT", "HCI" }, false)));
+        assertTrue(outputStream.toString().startsWith(
+            "Seminars matching all of keywords VT, HCI:\n"));
+        outputStream.reset();
+        int[] ids = controller.searchKeyword(new String[] { "VT", "HCI" },
+            true);
+        assertTrue(Arrays.equals(new int[] { 1, 2, 3 }, ids));
+
+        controller.delete(2);
+        controller.deleteRange(3, 3);
+        outputStream.reset();
+        assertTrue(Arrays.equals(new int[] { 1 }, controller.searchKeyword(
+            new String[] { "VT", "HCI" }, true)));
+        outputStream.reset();
+        assertTrue(Arrays.equals(new int[0], controller.searchKeyword(
+            new String[] { "HCI" }, false)));
+        assertOutput("Seminars matching keyword HCI:");
+    }
+
+
+    /**
+     * Tests radius and rectangle searches and that deletes update the
+     * location index.
+     */
+    @Test
+    public void testSearchLocation() throws Exception {
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        controller.insert(2, "B", "0610051600", 90, (short)13, (short)14, 45,
+            new String[] { "VT" }, "D");
+        controller.insert(3, "C", "0610051600", 90, (short)-40, (short)10,
+            45, new String[] { "VT" }, "D");
+        outputStream.reset();
+
+        int[] ids = controller.searchRadius(10, 10, 5);
+        assertTrue(Arrays.equals(new int[] { 1, 2 }, ids));
+        String output = outputStream.toString();
+        assertTrue(output.startsWith(
+            "Seminars within 5 units of 10, 10:\nID: 1, Title: A\n"));
+        assertTrue(output.endsWith(" nodes visited in this search\n"));
+        outputStream.reset();
+
+        ids = controller.searchRect(-40, 0, 51, 11);
+        assertTrue(Arrays.equals(new int[] { 1, 3 }, ids));
+        assertTrue(outputStream.toString().startsWith(
+            "Seminars in rectangle -40, 0, 51, 11:\n"));
+
+        controller.delete(1);
+        outputStream.reset();
+        ids = controller.searchRadius(10, 10, 5);
+        assertTrue(Arrays.equals(new int[] { 2 }, ids));
+    }
+
+
+    /**
+     * Tests cost and date searches and that deletes update those indexes.
+     */
+    @Test
+    public void testSearchCostAndDate() {
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        controller.insert(2, "B", "0701250830", 90, (short)10, (short)10, 17,
+            new String[] { "VT" }, "D");
+        controller.insert(3, "C", "0610071600", 90, (short)10, (short)10, 25,
+            new String[] { "VT" }, "D");
+        outputStream.reset();
+
+        int[] ids = controller.searchCost(17, 30);
+        assertTrue(Arrays.equals(new int[] { 2, 3 }, ids));
+        assertOutput("Found 2 records with cost in range 17 to 30:\n2 3");
+        ids = controller.searchDate("0610051600", "0612312359");
+        assertTrue(Arrays.equals(new int[] { 1, 3 }, ids));
+        assertOutput("Found 2 records with date in range 0610051600 to "
+            + "0612312359:\n1 3");
+        assertNull(controller.searchDate("0610051600", "06123123"));
+        assertOutput("Search FAILED -- bad date 06123123");
+
+        controller.delete(3);
+        outputStream.reset();
+        controller.searchCost(0, 100);
+        assertOutput("Found 2 records with cost in range 0 to 100:\n2 1");
+        controller.searchDate("0610071600", "0610071600");
+        assertOutput("Found 0 records with date in range 0610071600 to "
+            + "0610071600:");
+    }
+
+
+    /**
+     * Tests a query combining several indexes.
+     */
+    @Test
+    public void testQuery() throws Exception {
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT", "HCI" }, "D");
+        controller.insert(2, "B", "0701250830", 90, (short)10, (short)12, 17,
+            new String[] { "VT" }, "D");
+        controller.insert(3, "C", "0610071600", 90, (short)90, (short)90, 25,
+            new String[] { "VT" }, "D");
+        outputStream.reset();
+
+        Query query = new Query();
+        query.addKeyword("VT");
+        query.addRadius(10, 10, 5);
+        query.addCostRange(0, 20);
+        int[] ids = controller.query(query);
+        assertTrue(Arrays.equals(new int[] { 2 }, ids));
+        assertOutput("Query plan:\n"
+            + "1. cost 0 to 20: estimate 1, 1 candidates\n"
+            + "2. radius 5 around 10, 10: estimate 2, 1 candidates\n"
+            + "3. keyword VT: estimate 3, 1 candidates\n"
+            + "Found 1 records matching the query:\n"
+            + "ID: 2, Title: B\n"
+            + "Date: 0701250830, Length: 90, X: 10, Y: 12, Cost: 17\n"
+            + "Description: D\n" + "Keywords: VT");
+
+        assertNull(controller.query(new Query()));
+        assertOutput("Query FAILED -- no predicates");
+    }
+
+
+    /**
+     * Tests a store that uses the compact format.
+     */
+    @Test
+    public void testCompactCodec() throws Exception {
+        controller = new Controller(4, 64, 64, new CompactCodec());
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        assertTrue(outputStream.toString().endsWith("Size: 25\n"));
+        outputStream.reset();
+        assertEquals("D", controller.search(1).getDescription());
+        controller.delete(1);
+        assertNull(controller.search(1));
+    }
+
+
+    /**
+     * Tests the record stats with and without compression.
+     */
+    @Test
+    public void testPrintStats() throws Exception {
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        outputStream.reset();
+        controller.printStats();
+        assertOutput("Record stats:\nrecords: 1, stored bytes: 48\n"
+            + "compression: off\n"
+            + "cache: 0 records, 0 of 1048576 bytes\n"
+            + "cache hits: 0, misses: 0, hit rate: 0.0%, evictions: 0");
+
+        controller = new Controller(4, 1024, 1024, new CompressedCodec(
+            new CanonicalCodec(), 100));
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 20; i++) {
+            description.append("Research at VT. ");
+        }
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        controller.insert(2, "B", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, description.toString());
+        controller.delete(1);
+        assertEquals(description.toString().trim(), controller.search(2)
+            .getDescription());
+        outputStream.reset();
+        controller.printStats();
+        String output = outputStream.toString();
+        assertTrue(output.startsWith("Record stats:\nrecords: 1, "
+            + "stored bytes: "));
+        assertTrue(output.contains("compression threshold: 100 bytes\n"
+            + "compressed: 1 of 2 records\n"));
+        assertTrue(output.contains(" us per insert\n"));
+        assertTrue(output.contains("1 of 2 reads decompressed\n"));
+    }
+
+
+    /**
+     * Tests that repeated searches hit the record cache and that a deleted
+     * record leaves it.
+     */
+    @Test
+    public void testRecordCache() throws Exception {
+        controller.insert(1, "A", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "D");
+        Seminar first = controller.search(1);
+        assertSame(first, controller.search(1));
+        assertSame(first, controller.searchAll(new int[] { 1 })[0]);
+        controller.delete(1);
+        controller.insert(1, "B", "0610051600", 90, (short)10, (short)10, 45,
+            new String[] { "VT" }, "E");
+        assertEquals("B", controller.search(1).getTitle());
+        outputStream.reset();
+        controller.printStats();
+        assertTrue(outputStream.toString().contains(
+            "cache hits: 2, misses: 2, hit rate: 50.0%, evictions: 0\n"));
+
+        controller.setCacheBudget(0);
+        assertNotSame(controller.search(1), controller.search(1));
+    }
+
+
+    /**
+     * Test that deletes halve the hash table once it falls below the
+     * low-water mark, but never below its initial size.
+     */
+    @Test
+    public void testShrinkLoadPercent() {
+        controller = new Controller(4, 512);
+        controller.setShrinkLoadPercent(20);
+        for (int id = 1; id <= 5; id++) {
+            controller.insert(id, "Seminar " + id, "0610051600", 30,
+                (short)1, (short)1, 10, new String[] { "VT" }, "Short");
+        }
+        outputStream.reset();
+        for (int id = 1; id <= 4; id++) {
+            controller.delete(id);
+        }
+        String output = outputStream.toString();
+        assertTrue(output.contains("Hash table shrunk to 8 records"));
+        assertTrue(output.contains("Hash table shrunk to 4 records"));
+        controller.printHashTable();
+        assertTrue(outputStream.toString().endsWith("total records: 1\n"));
+    }
 }
@@ -14,14 +14,16 @@ public class DLList<E> implements Iterable<E> {
     /**
      * This represents a node in a doubly linked list. This node stores data, a
      * pointer to the node before it in the list, and a pointer to the node
-     * after it in the list
+     * after it in the list. Nodes returned by addFirst can be kept by the
+     * caller and handed back to moveToFront and unlink, which take constant
+     * time.
      *
      * @param <E>
      *            This is the type of object that this class will store
      * @author Mark Wiggans (mmw125)
      * @version 4/14/2015
      */
-    private static class Node<E> {
+    static class Node<E> {
         private Node<E> next;
         private Node<E> previous;
         private E data;
@@ -232,6 +234,90 @@ public class DLList<E> implements Iterable<E> {
     }
 
 
+    /**
+     * Adds an element to the front of the list and returns its node, which
+     * can later be moved or removed without searching for it.
+     *
+     * @param obj
+     *            the element to add
+     * @return the node holding the element
+     * @throws IllegalArgumentException
+     *             if obj is null
+     */
+    public Node<E> addFirst(E obj) {
+        if (obj == null) {
+            throw new IllegalArgumentException("Cannot add null "
+                + "objects to a list");
+        }
+        Node<E> addition = new Node<E>(obj);
+        link(addition, head.next());
+        size++;
+        return addition;
+    }
+
+
+    /**
+     * Moves a node of this list to the front in constant time.
+     *
+     * @param node
+     *            a node returned by addFirst and not yet unlinked
+     */
+    public void moveToFront(Node<E> node) {
+        if (head.next() == node) {
+            return;
+        }
+        node.previous().setNext(node.next());
+        node.next().setPrevious(node.previous());
+        link(node, head.next());
+    }
+
+
+    /**
+     * Removes a node of this list in constant time.
+     *
+     * @param node
+     *            a node returned by addFirst and not yet unlinked
+     * @return the element the node held
+     */
+    public E unlink(Node<E> node) {
+        node.previous().setNext(node.next());
+        node.next().setPrevious(node.previous());
+        node.setNext(null);
+        node.setPrevious(null);
+        size--;
+        return node.getData();
+    }
+
+
+    /**
+     * Removes the last element of the list.
+     *
+     * @return the element, or null if the list is empty
+     */
+    public E removeLast() {
+        if (size == 0) {
+            return null;
+        }
+        return unlink(tail.previous());
+    }
+
+
+    /**
+     * Links a node in just before another one.
+     *
+     * @param node
+     *            the node to link in
+     * @param nodeAfter
+     *            the node that will follow it
+     */
+    private void link(Node<E> node, Node<E> nodeAfter) {
+        node.setPrevious(nodeAfter.previous());
+        node.setNext(nodeAfter);
+        nodeAfter.previous().setNext(node);
+        nodeAfter.setPrevious(node);
+    }
+
+
     /**
      * gets the node at that index
      *
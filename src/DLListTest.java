@@ -387,4 +387,25 @@ public class DLListTest extends TestCase {
 
     }
 
+
+    /**
+     * Tests adding to the front and moving and unlinking nodes directly
+     */
+    public void testNodeMoves() {
+        list.add("C");
+        DLList.Node<String> a = list.addFirst("A");
+        DLList.Node<String> b = list.addFirst("B");
+        assertEquals("{B, A, C}", list.toString());
+        list.moveToFront(a);
+        assertEquals("{A, B, C}", list.toString());
+        list.moveToFront(a);
+        assertEquals("{A, B, C}", list.toString());
+        assertEquals("B", list.unlink(b));
+        assertEquals("{A, C}", list.toString());
+        assertEquals(2, list.size());
+        assertEquals("C", list.removeLast());
+        assertEquals("A", list.removeLast());
+        assertNull(list.removeLast());
+        assertTrue(list.isEmpty());
+    }
 }
@@ -0,0 +1,144 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the DictionaryCodec class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.02
+ */
+public class DictionaryCodecTest {
+    private DictionaryCodec codec;
+    private Seminar seminar;
+
+    /**
+     * Setup method creates the codec and a sample seminar.
+     */
+    @Before
+    public void setUp() {
+        codec = new DictionaryCodec();
+        seminar = new Seminar(1, "Overview of HCI Research at VT",
+            "0610051600", 90, (short)10, (short)10, 45, new String[] { "HCI",
+                "Computer_Science", "VT", "Virginia_Tech" },
+            "This seminar will present an overview of HCI research at VT");
+    }
+
+
+    /**
+     * Tests a round trip, the size against the compact format and that the
+     * date and keywords went into the dictionary.
+     */
+    @Test
+    public void testRoundTrip() {
+        int size = codec.encodedSize(seminar);
+        byte[] buffer = new byte[size + 10];
+        assertEquals(size, codec.encode(seminar, buffer, 5));
+        assertEquals(seminar.toString(), codec.decode(buffer, 5, size)
+            .toString());
+        assertEquals(seminar.toString(), codec.view(buffer, 5, size)
+            .toSeminar().toString());
+        assertEquals(147, new CompactCodec().encodedSize(seminar));
+        assertEquals(103, size);
+        StringDictionary dictionary = codec.getDictionary();
+        assertEquals(5, dictionary.size());
+        assertEquals(0, dictionary.find("0610051600"));
+        assertEquals(3, dictionary.find("VT"));
+    }
+
+
+    /**
+     * Tests that a second record reuses the first one's codes.
+     */
+    @Test
+    public void testSharedCodes() {
+        codec.encodedSize(seminar);
+        Seminar other = new Seminar(2, "T", "0610051600", 1, (short)0,
+            (short)0, 0, new String[] { "VT", "New" }, "D");
+        int size = codec.encodedSize(other);
+        byte[] buffer = new byte[size];
+        codec.encode(other, buffer, 0);
+        assertEquals(6, codec.getDictionary().size());
+        assertEquals(13, size);
+        SeminarView view = codec.view(buffer, 0, size);
+        assertEquals("0610051600", view.getDate());
+        assertArrayEquals(new String[] { "VT", "New" }, view.getKeywords());
+        assertEquals("D", view.getDescription());
+    }
+
+
+    /**
+     * Tests that a record is unreadable without its dictionary.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongDictionary() {
+        int size = codec.encodedSize(seminar);
+        byte[] buffer = new byte[size];
+        codec.encode(seminar, buffer, 0);
+        new DictionaryCodec().decode(buffer, 0, size);
+    }
+
+
+    /**
+     * Tests saving a memory pool of dictionary-coded records with its
+     * dictionary, then loading both and decoding every record from the
+     * loaded pool with the loaded dictionary.
+     *
+     * @throws IOException
+     *             if saving or loading fails
+     */
+    @Test
+    public void testSavedPool() throws IOException {
+        MemManager memory = new MemManager(64);
+        memory.setOutput(OutputSink.buffered(new PrintStream(OutputStream
+            .nullOutputStream()), OutputSink.DEFAULT_BUFFER_SIZE, false));
+        String[][] keywords = { { "HCI", "VT" }, { "VT", "Graphics" }, {},
+            { "Graphics", "HCI", "Parallel_Computing" } };
+        Seminar[] seminars = new Seminar[12];
+        Handle[] handles = new Handle[seminars.length];
+        for (int id = 0; id < seminars.length; id++) {
+            seminars[id] = new Seminar(id, "Seminar " + id, "06100516"
+                + (id % 3), 30 + id, (short)id, (short)(2 * id), id * 5,
+                keywords[id % keywords.length], "Description of " + id);
+            int size = codec.encodedSize(seminars[id]);
+            handles[id] = memory.reserve(size);
+            codec.encode(seminars[id], memory.getMemoryPool(), handles[id]
+                .getPosition());
+        }
+
+        ByteArrayOutputStream saved = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(saved);
+        codec.getDictionary().writeTo(out);
+        byte[] pool = memory.getMemoryPool();
+        out.writeInt(pool.length);
+        out.write(pool);
+        out.flush();
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+            saved.toByteArray()));
+        DictionaryCodec loaded = new DictionaryCodec(StringDictionary
+            .readFrom(in));
+        byte[] loadedPool = new byte[in.readInt()];
+        in.readFully(loadedPool);
+        assertEquals(-1, in.read());
+
+        assertEquals(codec.getDictionary().size(), loaded.getDictionary()
+            .size());
+        for (int id = 0; id < seminars.length; id++) {
+            Handle handle = handles[id];
+            assertEquals(seminars[id].toString(), loaded.decode(loadedPool,
+                handle.getPosition(), handle.getLength()).toString());
+            assertEquals(seminars[id].toString(), loaded.view(loadedPool,
+                handle.getPosition(), handle.getLength()).toSeminar()
+                .toString());
+        }
+    }
+}
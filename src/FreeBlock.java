@@ -202,6 +202,63 @@ public class FreeBlock {
     }
 
 
+    /**
+     * Adds many free blocks at once. The new blocks are merged into the list
+     * in a single pass, coalescing every run of adjacent blocks, instead of
+     * searching the list once per block.
+     *
+     * @param head
+     *            The current head of the free block list.
+     * @param positions
+     *            The starting positions of the new blocks, in increasing order
+     *            and not overlapping each other or the list.
+     * @param sizes
+     *            The sizes of the new blocks.
+     * @param count
+     *            The number of new blocks.
+     * @return The head of the updated free block list.
+     */
+    public static FreeBlock addFreeBlocks(
+        FreeBlock head,
+        int[] positions,
+        int[] sizes,
+        int count) {
+        FreeBlock newHead = null;
+        FreeBlock tail = null;
+        FreeBlock current = head;
+        int next = 0;
+
+        while (current != null || next < count) {
+            FreeBlock block;
+            if (current != null && (next == count
+                || current.position < positions[next])) {
+                block = current;
+                current = current.next;
+            }
+            else {
+                block = new FreeBlock(positions[next], sizes[next]);
+                next++;
+            }
+
+            if (tail != null && tail.position + tail.size == block.position) {
+                tail.size += block.size;
+            }
+            else {
+                block.previous = tail;
+                block.next = null;
+                if (tail == null) {
+                    newHead = block;
+                }
+                else {
+                    tail.next = block;
+                }
+                tail = block;
+            }
+        }
+        return newHead;
+    }
+
+
     /**
      * Removes the specified block from the list.
      *
@@ -238,19 +295,32 @@ public class FreeBlock {
      *            The head of the free block list.
      */
     public static void printFreeBlocks(FreeBlock head) {
+        printFreeBlocks(head, OutputSink.console());
+    }
+
+
+    /**
+     * Print the free block list to a sink.
+     *
+     * @param head
+     *            The head of the free block list.
+     * @param output
+     *            The sink.
+     */
+    public static void printFreeBlocks(FreeBlock head, OutputSink output) {
         if (head == null) {
-            System.out.println("There are no freeblocks in the memory pool");
+            output.println("There are no freeblocks in the memory pool");
             return;
         }
         FreeBlock current = head;
         while (current != null) {
-            System.out.print("(" + current.getPosition() + "," + current
+            output.print("(" + current.getPosition() + "," + current
                 .getSize() + ")");
             if (current.getNext() != null) {
-                System.out.print(" -> ");
+                output.print(" -> ");
             }
             current = current.getNext();
         }
-        System.out.println();
+        output.println();
     }
 }
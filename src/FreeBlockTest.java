@@ -70,4 +70,27 @@ public class FreeBlockTest extends TestCase {
             "There are no freeblocks in the memory pool\n");
         systemOut().clearHistory();
     }
+
+
+    /**
+     * Test adding a batch of free blocks in one pass, merging with the list
+     * and with each other.
+     */
+    @Test
+    public void addFreeBlocksTest() {
+        FreeBlock head = FreeBlock.addFreeBlock(null, 10, 5);
+        head = FreeBlock.addFreeBlock(head, 30, 5);
+        head = FreeBlock.addFreeBlocks(head, new int[] { 0, 15, 20, 40 },
+            new int[] { 5, 5, 10, 2 }, 4);
+        FreeBlock.printFreeBlocks(head);
+        assertEquals("(0,5) -> (10,25) -> (40,2)\n", systemOut()
+            .getHistory());
+        systemOut().clearHistory();
+
+        FreeBlock.printFreeBlocks(FreeBlock.addFreeBlocks(null, new int[] {
+            8 }, new int[] { 8 }, 1));
+        assertEquals("(8,8)\n", systemOut().getHistory());
+        systemOut().clearHistory();
+        assertNull(FreeBlock.addFreeBlocks(null, new int[0], new int[0], 0));
+    }
 }
@@ -4,6 +4,26 @@
  * that indicates the record's location in the memory pool.
  * The hash table uses quadratic probing for collision resolution and resizes
  * when the load factor exceeds 50%.
+ * <p>
+ * By default the home slot is {@code id % capacity}, which keeps the
+ * {@code print hashtable} layout of the original project. A table built in
+ * power-of-two mode instead rounds its capacity up to a power of two, mixes
+ * the ID with the murmur3 finalizer, and reduces to a slot with a bit mask.
+ * Triangular probing visits every slot of a power-of-two table, so no probe
+ * sequence ever needs an integer division.
+ * <p>
+ * Deleted slots hold a tombstone until an insert reuses them. An optional
+ * limit on live records plus tombstones rehashes the table in place once an
+ * insert would pass it. The limit is off by default, because the rehash
+ * moves records and so changes the {@code print hashtable} layout under
+ * delete churn. An optional low-water mark halves the table again after
+ * large purges.
+ * <p>
+ * An insert can be split in two with {@link #reserve(int)}, which checks
+ * for the ID and finds its free slot in a single probe sequence, and
+ * {@link #commit(int, Handle)} or {@link #abort(int)}, so a caller can
+ * reject a duplicate before doing any other work and store the handle once
+ * that work has succeeded.
  *
  * @author Zhengyang Lu
  * @author Xingyi Wang
@@ -13,18 +33,73 @@ public class Hash {
     private Record[] allRecords;
     private int numberOfRecords;
     private int capacity;
+    private int numberOfTombstones;
+    private int tombstoneLimitPercent = DEFAULT_TOMBSTONE_LIMIT_PERCENT;
+    private final boolean powerOfTwo;
+    private boolean incrementalResize;
+    private Record[] oldRecords;
+    private int migrationIndex;
+    private final int initialCapacity;
+    private int shrinkLoadPercent;
+    private int probeCount;
+    private final HashStats stats = new HashStats();
+    private OutputSink output = OutputSink.console();
     private static final Record TOMBSTONE = new Record(-1, null);
+    private static final int AFTER_RESIZE = Integer.MAX_VALUE;
+    private static final int AFTER_REBUILD = Integer.MAX_VALUE - 1;
+    private boolean reserved;
+    private int reservedId;
+    private int reservedSlot;
+
+    /** Returned by reserve when the ID is already in the table. */
+    public static final int DUPLICATE = -1;
+
+    /** Returned by reserve when the probe sequence reaches no free slot. */
+    public static final int NO_SLOT = -2;
 
     /**
-     * Constructs a new Hash object with the specified initial capacity.
+     * The number of old-table slots moved to the new table by each operation
+     * while an incremental resize is in progress.
+     */
+    public static final int MIGRATION_STEP = 8;
+
+    /**
+     * The default occupancy (live records plus tombstones), in percent of the
+     * capacity, at which the table is rehashed in place to clear tombstones:
+     * 0, which never rehashes in place.
+     */
+    public static final int DEFAULT_TOMBSTONE_LIMIT_PERCENT = 0;
+
+    /**
+     * Constructs a new Hash object with the specified initial capacity, using
+     * the original modulo layout.
      *
      * @param initialCapacity
      *            The initial capacity of the hash table.
      */
     public Hash(int initialCapacity) {
-        this.capacity = initialCapacity;
+        this(initialCapacity, false);
+    }
+
+
+    /**
+     * Constructs a new Hash object with the specified initial capacity.
+     *
+     * @param initialCapacity
+     *            The initial capacity of the hash table.
+     * @param powerOfTwo
+     *            True to round the capacity up to a power of two and use the
+     *            mixed, mask-based hash; false for the modulo layout.
+     */
+    public Hash(int initialCapacity, boolean powerOfTwo) {
+        this.powerOfTwo = powerOfTwo;
+        this.capacity = powerOfTwo
+            ? roundUpToPowerOfTwo(initialCapacity)
+            : initialCapacity;
+        this.initialCapacity = capacity;
         this.allRecords = new Record[capacity];
         this.numberOfRecords = 0;
+        this.numberOfTombstones = 0;
     }
 
 
@@ -33,10 +108,151 @@ public class Hash {
      *
      * @param id
      *            The ID to be hashed.
-     * @return The hash value of the ID.
+     * @return The hash value of the ID, always in [0, capacity).
      */
     public int hash(int id) {
-        return id % capacity;
+        return homeSlot(id, capacity);
+    }
+
+
+    /**
+     * Computes the home slot of an ID in a table of the given capacity.
+     *
+     * @param id
+     *            The ID to be hashed.
+     * @param tableCapacity
+     *            The capacity of the table being probed.
+     * @return The home slot, in [0, tableCapacity).
+     */
+    private int homeSlot(int id, int tableCapacity) {
+        if (powerOfTwo) {
+            return mix(id) & (tableCapacity - 1);
+        }
+        return Math.floorMod(id, tableCapacity);
+    }
+
+
+    /**
+     * Scrambles the bits of an ID with the murmur3 32-bit finalizer, so that
+     * sequential and strided IDs spread across the whole table.
+     *
+     * @param id
+     *            The ID to mix.
+     * @return The mixed value.
+     */
+    public static int mix(int id) {
+        int h = id;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+
+    /**
+     * Returns the smallest power of two that is at least the given value.
+     *
+     * @param value
+     *            The requested capacity.
+     * @return The rounded capacity, at least 1.
+     */
+    static int roundUpToPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+
+
+    /**
+     * Advances a probe sequence by one step. Probe i lies (i * i + i) / 2
+     * slots past home, so it lies i slots past probe i - 1. Since both
+     * operands are below capacity a single subtraction wraps the position,
+     * and the visited slots are exactly those of {@link #probe(int, int)}.
+     *
+     * @param pos
+     *            The position of probe i - 1.
+     * @param i
+     *            The current probe attempt number.
+     * @param tableCapacity
+     *            The capacity of the table being probed.
+     * @return The position of probe i.
+     */
+    private static int nextProbe(int pos, int i, int tableCapacity) {
+        int next = pos + i;
+        return next >= tableCapacity ? next - tableCapacity : next;
+    }
+
+
+    /**
+     * Returns whether this table uses power-of-two capacities and the mixed
+     * hash.
+     *
+     * @return True in power-of-two mode.
+     */
+    public boolean isPowerOfTwo() {
+        return powerOfTwo;
+    }
+
+
+    /**
+     * Selects whether the table doubles incrementally. When enabled, a resize
+     * allocates the larger table and then moves a bounded number of old slots
+     * per insert, find or remove, so no single operation pays for the whole
+     * rehash. Lookups consult both tables until the move completes.
+     *
+     * @param incremental
+     *            True to resize incrementally.
+     */
+    public void setIncrementalResize(boolean incremental) {
+        if (!incremental) {
+            finishMigration();
+        }
+        incrementalResize = incremental;
+    }
+
+
+    /**
+     * Sets the low-water mark below which a remove halves the table. The
+     * table never shrinks below its initial capacity. The mark is capped at
+     * 20%, so a halved table is at most 40% full and a freshly doubled one is
+     * 25% full: neither sits next to the other threshold, and alternating
+     * inserts and removes cannot thrash between growing and shrinking.
+     *
+     * @param percent
+     *            The low-water mark in percent of the capacity, between 0
+     *            and 20. 0, the default, never shrinks.
+     */
+    public void setShrinkLoadPercent(int percent) {
+        if (percent < 0 || percent > 20) {
+            throw new IllegalArgumentException(
+                "Shrink load must be between 0 and 20 percent");
+        }
+        shrinkLoadPercent = percent;
+    }
+
+
+    /**
+     * Sends the table's messages to a sink instead of the console.
+     *
+     * @param sink
+     *            The sink.
+     */
+    public void setOutput(OutputSink sink) {
+        output = sink;
+    }
+
+
+    /**
+     * Returns whether an incremental resize is still moving records out of
+     * the old table.
+     *
+     * @return True while both tables are in use.
+     */
+    public boolean isMigrating() {
+        return oldRecords != null;
     }
 
 
@@ -50,80 +266,394 @@ public class Hash {
      * @return The index where the ID was inserted, or -1 if insertion fails.
      */
     public int insert(int id, Handle handle) {
-        if (numberOfRecords >= capacity / 2) {
-            System.out.println("Hash table expanded to " + (capacity * 2)
-                + " records");
-            resize();
+        int slot = reserve(id);
+        if (slot == DUPLICATE) {
+            output.println(
+                "Insert FAILED - There is already a record with ID " + id);
         }
+        if (slot < 0) {
+            return -1;
+        }
+        return commit(slot, handle);
+    }
 
-        int home = hash(id);
-        int i = 0;
-        int pos;
 
+    /**
+     * Reserves the slot for a new ID. One probe sequence both looks for the
+     * ID and finds the first free slot along it, tombstone or empty; the
+     * sequence only stops early at an empty slot, so an ID stored past a
+     * tombstone is still seen. If the table is due to grow, or to be
+     * rehashed in place past the tombstone limit, the slot is found after
+     * the resize or rehash, when the reservation is committed, so that
+     * nothing is printed before the caller's own work and a duplicate or an
+     * aborted insert leaves the table as it was.
+     * <p>
+     * The table must not be changed until the reservation is committed or
+     * aborted.
+     *
+     * @param id
+     *            The ID to insert.
+     * @return A slot token for commit or abort, or {@link #DUPLICATE} or
+     *         {@link #NO_SLOT} if there is nothing to commit.
+     * @throws IllegalStateException
+     *             if a slot is already reserved
+     */
+    public int reserve(int id) {
+        if (reserved) {
+            throw new IllegalStateException("A slot is already reserved for "
+                + reservedId);
+        }
+        migrate();
+        probeCount = 0;
+        if (oldRecords != null && indexOf(oldRecords, id) != -1) {
+            stats.recordInsert(probeCount);
+            return DUPLICATE;
+        }
+
+        int pos = hash(id);
+        int free = -1;
+        int i = 0;
+        int skipped = 0;
         do {
-            pos = probe(home, i);
-            if (allRecords[pos] == null || allRecords[pos] == TOMBSTONE) {
-                allRecords[pos] = new Record(id, handle);
-                numberOfRecords++;
-                return pos;
+            Record record = allRecords[pos];
+            if (record == null) {
+                if (free == -1) {
+                    free = pos;
+                }
+                break;
             }
-            else if (allRecords[pos].getId() == id) {
-                System.out.println(
-                    "Insert FAILED - There is already a record with ID " + id);
-                return -1; // failure due to duplicate ID
+            if (record == TOMBSTONE) {
+                skipped++;
+                if (free == -1) {
+                    free = pos;
+                }
+            }
+            else if (record.getId() == id) {
+                stats.recordTombstonesSkipped(skipped);
+                stats.recordInsert(probeCount + i + 1);
+                return DUPLICATE;
             }
-
             i++;
+            pos = nextProbe(pos, i, capacity);
         }
         while (i < capacity);
-        return -1;
+        stats.recordTombstonesSkipped(skipped);
+        stats.recordInsert(probeCount + Math.min(i + 1, capacity));
+
+        if (numberOfRecords >= capacity / 2) {
+            free = AFTER_RESIZE;
+        }
+        else if (tombstoneLimitPercent != 0 && (long)(numberOfRecords
+            + numberOfTombstones + 1) * 100 > (long)capacity
+                * tombstoneLimitPercent) {
+            free = AFTER_REBUILD;
+        }
+        else if (free == -1) {
+            return NO_SLOT;
+        }
+        reserved = true;
+        reservedId = id;
+        reservedSlot = free;
+        return free;
+    }
+
+
+    /**
+     * Stores the handle of the reserved ID, growing the table or rehashing
+     * it in place first if reserve found it due to.
+     *
+     * @param slot
+     *            The token reserve returned.
+     * @param handle
+     *            The associated memory handle in the memory pool.
+     * @return The index where the ID was stored.
+     * @throws IllegalStateException
+     *             if the token is not the current reservation
+     */
+    public int commit(int slot, Handle handle) {
+        if (!reserved || slot != reservedSlot) {
+            throw new IllegalStateException("Slot " + slot
+                + " is not reserved");
+        }
+        reserved = false;
+        Record record = new Record(reservedId, handle);
+        numberOfRecords++;
+        if (slot == AFTER_RESIZE) {
+            finishMigration();
+            output.println("Hash table expanded to " + (capacity * 2)
+                + " records");
+            resize();
+            return place(record);
+        }
+        if (slot == AFTER_REBUILD) {
+            finishMigration();
+            rebuild(capacity);
+            return place(record);
+        }
+        if (allRecords[slot] == TOMBSTONE) {
+            numberOfTombstones--;
+        }
+        allRecords[slot] = record;
+        return slot;
+    }
+
+
+    /**
+     * Releases a reservation without storing anything. The table is left as
+     * reserve found it, so this only clears the reservation; it does nothing
+     * if the slot was already committed.
+     *
+     * @param slot
+     *            The token reserve returned.
+     */
+    public void abort(int slot) {
+        if (reserved && slot == reservedSlot) {
+            reserved = false;
+        }
     }
 
 
     /**
-     * Resizes the hash table by doubling its capacity and reinserting all valid
-     * records.
+     * Resizes the hash table by doubling its capacity. Normally every valid
+     * record is reinserted at once. In incremental mode the old table is kept
+     * and drained a few slots per operation instead.
      */
     private void resize() {
-        int oldCapacity = capacity;
-        capacity *= 2;
+        if (incrementalResize) {
+            stats.recordRebuild(0);
+            oldRecords = allRecords;
+            migrationIndex = 0;
+            capacity *= 2;
+            allRecords = new Record[capacity];
+            numberOfTombstones = 0;
+        }
+        else {
+            rebuild(capacity * 2);
+        }
+    }
+
+
+    /**
+     * Moves every live record into a fresh table of the given capacity,
+     * dropping all tombstones. Called with the current capacity, this is an
+     * in-place cleanup that shortens probe chains without growing the table.
+     *
+     * @param newCapacity
+     *            The capacity of the rebuilt table.
+     */
+    private void rebuild(int newCapacity) {
+        long start = System.nanoTime();
         Record[] oldTable = allRecords;
+        capacity = newCapacity;
         allRecords = new Record[capacity];
-        numberOfRecords = 0;
+        numberOfTombstones = 0;
 
         for (Record record : oldTable) {
             if (record != null && record != TOMBSTONE) {
-                insert(record.getId(), record.getHandle());
+                place(record);
             }
         }
+        stats.recordRebuild(System.nanoTime() - start);
     }
 
 
     /**
-     * Finds the handle associated with the given ID.
+     * Stores a record known not to be in the table at the first free slot of
+     * its probe sequence.
+     *
+     * @param record
+     *            The record to store.
+     * @return The slot it was stored in, or -1 if none was free.
+     */
+    private int place(Record record) {
+        int pos = hash(record.getId());
+        int i = 0;
+        while (allRecords[pos] != null && allRecords[pos] != TOMBSTONE
+            && i < capacity) {
+            i++;
+            pos = nextProbe(pos, i, capacity);
+        }
+        if (allRecords[pos] == TOMBSTONE) {
+            numberOfTombstones--;
+            allRecords[pos] = record;
+        }
+        else if (allRecords[pos] == null) {
+            allRecords[pos] = record;
+        }
+        else {
+            return -1;
+        }
+        return pos;
+    }
+
+
+    /**
+     * Moves up to {@link #MIGRATION_STEP} slots of the old table into the
+     * current one, if an incremental resize is in progress. Moved slots are
+     * left as tombstones so probe chains through the old table stay intact.
+     */
+    private void migrate() {
+        if (oldRecords == null) {
+            return;
+        }
+        long start = System.nanoTime();
+        int end = Math.min(migrationIndex + MIGRATION_STEP, oldRecords.length);
+        for (; migrationIndex < end; migrationIndex++) {
+            Record record = oldRecords[migrationIndex];
+            if (record != null && record != TOMBSTONE) {
+                place(record);
+                oldRecords[migrationIndex] = TOMBSTONE;
+            }
+        }
+        if (migrationIndex == oldRecords.length) {
+            oldRecords = null;
+        }
+        stats.addRebuildTime(System.nanoTime() - start);
+    }
+
+
+    /**
+     * Completes any incremental resize in progress.
+     */
+    private void finishMigration() {
+        while (oldRecords != null) {
+            migrate();
+        }
+    }
+
+
+    /**
+     * Returns the slot of a table that holds the given ID. The slots examined
+     * are added to the probe count of the current operation.
      *
+     * @param table
+     *            The table to probe.
      * @param id
-     *            The ID to find in the table.
-     * @return The handle associated with the ID, or null if not found.
+     *            The ID to find.
+     * @return The slot holding the ID, or -1 if it is not in the table.
      */
-    public Handle find(int id) {
-        int home = hash(id);
+    private int indexOf(Record[] table, int id) {
+        int tableCapacity = table.length;
+        int pos = homeSlot(id, tableCapacity);
         int i = 0;
-        int pos;
+        int skipped = 0;
+        int result = -1;
 
         do {
-            pos = probe(home, i);
-            if (allRecords[pos] == null) {
-                return null;
+            if (table[pos] == null) {
+                break;
             }
-            if (allRecords[pos] != TOMBSTONE && allRecords[pos].getId() == id) {
-                return allRecords[pos].getHandle();
+            if (table[pos] == TOMBSTONE) {
+                skipped++;
+            }
+            else if (table[pos].getId() == id) {
+                result = pos;
+                break;
             }
             i++;
+            pos = nextProbe(pos, i, tableCapacity);
         }
-        while (i < capacity);
+        while (i < tableCapacity);
 
-        return null;
+        probeCount += Math.min(i + 1, tableCapacity);
+        if (skipped != 0) {
+            stats.recordTombstonesSkipped(skipped);
+        }
+        return result;
+    }
+
+
+    /**
+     * Finds the handle associated with the given ID.
+     *
+     * @param id
+     *            The ID to find in the table.
+     * @return The handle associated with the ID, or null if not found.
+     */
+    public Handle find(int id) {
+        migrate();
+        probeCount = 0;
+        Handle handle = null;
+        int pos = indexOf(allRecords, id);
+        if (pos != -1) {
+            handle = allRecords[pos].getHandle();
+        }
+        else if (oldRecords != null) {
+            pos = indexOf(oldRecords, id);
+            if (pos != -1) {
+                handle = oldRecords[pos].getHandle();
+            }
+        }
+        stats.recordFind(probeCount, handle != null);
+        return handle;
+    }
+
+
+    /**
+     * Finds the handles of many IDs at once. All home slots are computed
+     * first, then the lookups advance together, one probe step each per
+     * round, so the slot loads of different IDs are independent of each other
+     * and can be in flight at the same time instead of one chain after
+     * another.
+     *
+     * @param ids
+     *            The IDs to find.
+     * @return The handle of each ID in the same order, null where an ID is
+     *         not in the table.
+     */
+    public Handle[] findAll(int[] ids) {
+        migrate();
+        int count = ids.length;
+        Handle[] found = new Handle[count];
+        int[] pos = new int[count];
+        int[] pending = new int[count];
+
+        for (int k = 0; k < count; k++) {
+            pos[k] = hash(ids[k]);
+            pending[k] = k;
+        }
+
+        int remaining = count;
+        int skipped = 0;
+        for (int i = 1; remaining > 0 && i <= capacity; i++) {
+            int kept = 0;
+            for (int p = 0; p < remaining; p++) {
+                int k = pending[p];
+                Record record = allRecords[pos[k]];
+                if (record == null) {
+                    pos[k] = i;
+                    continue;
+                }
+                if (record != TOMBSTONE && record.getId() == ids[k]) {
+                    found[k] = record.getHandle();
+                    pos[k] = i;
+                    continue;
+                }
+                if (record == TOMBSTONE) {
+                    skipped++;
+                }
+                pos[k] = nextProbe(pos[k], i, capacity);
+                pending[kept++] = k;
+            }
+            remaining = kept;
+        }
+        stats.recordTombstonesSkipped(skipped);
+
+        // Once resolved, pos holds the number of slots each lookup examined
+        for (int p = 0; p < remaining; p++) {
+            pos[pending[p]] = capacity;
+        }
+        for (int k = 0; k < count; k++) {
+            probeCount = pos[k];
+            if (found[k] == null && oldRecords != null) {
+                int slot = indexOf(oldRecords, ids[k]);
+                if (slot != -1) {
+                    found[k] = oldRecords[slot].getHandle();
+                }
+            }
+            stats.recordFind(probeCount, found[k] != null);
+        }
+        return found;
     }
 
 
@@ -136,26 +666,34 @@ public class Hash {
      *         not found.
      */
     public Handle remove(int id) {
-        int home = hash(id);
-        int i = 0;
-        int pos;
-
-        do {
-            pos = probe(home, i);
-            if (allRecords[pos] == null) {
-                return null;
-            }
-            if (allRecords[pos] != TOMBSTONE && allRecords[pos].getId() == id) {
-                Handle handle = allRecords[pos].getHandle();
-                allRecords[pos] = TOMBSTONE; // Mark as tombstone
+        migrate();
+        probeCount = 0;
+        Handle handle = null;
+        int pos = indexOf(allRecords, id);
+        if (pos != -1) {
+            handle = allRecords[pos].getHandle();
+            allRecords[pos] = TOMBSTONE; // Mark as tombstone
+            numberOfRecords--;
+            numberOfTombstones++;
+        }
+        else if (oldRecords != null) {
+            pos = indexOf(oldRecords, id);
+            if (pos != -1) {
+                handle = oldRecords[pos].getHandle();
+                oldRecords[pos] = TOMBSTONE;
                 numberOfRecords--;
-                return handle;
             }
-            i++;
         }
-        while (i < capacity);
+        stats.recordRemove(probeCount, handle != null);
 
-        return null;
+        if (handle != null && (long)numberOfRecords * 100 < (long)capacity
+            * shrinkLoadPercent && capacity / 2 >= initialCapacity) {
+            finishMigration();
+            output.println("Hash table shrunk to " + (capacity / 2)
+                + " records");
+            rebuild(capacity / 2);
+        }
+        return handle;
     }
 
 
@@ -169,7 +707,11 @@ public class Hash {
      * @return The new probe position after applying quadratic probing.
      */
     public int probe(int home, int i) {
-        return (home + (i * i + i) / 2) % capacity;
+        long offset = ((long)i * i + i) / 2;
+        if (powerOfTwo) {
+            return (int)((home + offset) & (capacity - 1));
+        }
+        return (int)((home + offset) % capacity);
     }
 
 
@@ -183,12 +725,63 @@ public class Hash {
     }
 
 
+    /**
+     * Returns the operation counters of this table.
+     *
+     * @return The counters, updated by every insert, find and remove.
+     */
+    public HashStats getStats() {
+        return stats;
+    }
+
+
+    /**
+     * Returns the number of tombstones currently in the table.
+     *
+     * @return The tombstone count.
+     */
+    public int getTombstoneCount() {
+        return numberOfTombstones;
+    }
+
+
+    /**
+     * Sets the occupancy, live records plus tombstones in percent of the
+     * capacity, past which an insert first rehashes the table in place.
+     *
+     * @param percent
+     *            The new limit, between 51 and 100, or 0, the default, to
+     *            never rehash in place.
+     */
+    public void setTombstoneLimitPercent(int percent) {
+        if (percent != 0 && (percent <= 50 || percent > 100)) {
+            throw new IllegalArgumentException(
+                "Tombstone limit must be 0 or between 51 and 100 percent");
+        }
+        tombstoneLimitPercent = percent;
+    }
+
+
+    /**
+     * Summarizes how the slots of the table are used.
+     *
+     * @return The live, tombstone and empty slot counts, one per line.
+     */
+    public String statsToString() {
+        finishMigration();
+        return "live records: " + numberOfRecords + "\n" + "tombstones: "
+            + numberOfTombstones + "\n" + "empty slots: " + (capacity
+                - numberOfRecords - numberOfTombstones);
+    }
+
+
     /**
      * Prints the contents of the hash table.
      *
      * @return A string representation of the hash table contents.
      */
     public String printToString() {
+        finishMigration();
         StringBuilder result = new StringBuilder();
 
         for (int i = 0; i < capacity; i++) {
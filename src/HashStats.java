@@ -0,0 +1,302 @@
+/**
+ * Operation counters for a hash table: probe lengths, hits and misses,
+ * tombstones skipped, and time spent rebuilding the table. Every update is a
+ * few plain field increments, so the counters can stay on in production. A
+ * table is only ever used by one thread at a time, so the counters need no
+ * synchronization.
+ * <p>
+ * Probe lengths are counted in slots examined and kept in a histogram with
+ * power-of-two buckets: 1, 2, 3-4, 5-8, and so on.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.24
+ */
+public class HashStats {
+    private long inserts;
+    private long finds;
+    private long removes;
+    private long hits;
+    private long misses;
+    private long totalProbes;
+    private int maxProbes;
+    private long tombstonesSkipped;
+    private long rebuilds;
+    private long rebuildNanos;
+    private final long[] histogram = new long[32];
+
+    /**
+     * Records an insert.
+     *
+     * @param probes
+     *            The number of slots examined.
+     */
+    public void recordInsert(int probes) {
+        inserts++;
+        recordProbes(probes);
+    }
+
+
+    /**
+     * Records a lookup made by a find.
+     *
+     * @param probes
+     *            The number of slots examined.
+     * @param hit
+     *            True if the ID was found.
+     */
+    public void recordFind(int probes, boolean hit) {
+        finds++;
+        recordLookup(probes, hit);
+    }
+
+
+    /**
+     * Records a lookup made by a remove.
+     *
+     * @param probes
+     *            The number of slots examined.
+     * @param hit
+     *            True if the ID was found and removed.
+     */
+    public void recordRemove(int probes, boolean hit) {
+        removes++;
+        recordLookup(probes, hit);
+    }
+
+
+    /**
+     * Counts a hit or a miss and its probe length.
+     *
+     * @param probes
+     *            The number of slots examined.
+     * @param hit
+     *            True if the ID was found.
+     */
+    private void recordLookup(int probes, boolean hit) {
+        if (hit) {
+            hits++;
+        }
+        else {
+            misses++;
+        }
+        recordProbes(probes);
+    }
+
+
+    /**
+     * Adds one probe length to the totals and the histogram.
+     *
+     * @param probes
+     *            The number of slots examined.
+     */
+    private void recordProbes(int probes) {
+        totalProbes += probes;
+        if (probes > maxProbes) {
+            maxProbes = probes;
+        }
+        histogram[bucket(probes)]++;
+    }
+
+
+    /**
+     * Returns the histogram bucket of a probe length.
+     *
+     * @param probes
+     *            The number of slots examined.
+     * @return The bucket: 0 for at most 1 probe, then b for 2^(b-1) + 1 to
+     *         2^b probes.
+     */
+    static int bucket(int probes) {
+        if (probes <= 1) {
+            return 0;
+        }
+        return 32 - Integer.numberOfLeadingZeros(probes - 1);
+    }
+
+
+    /**
+     * Counts tombstones passed over by a probe sequence.
+     *
+     * @param count
+     *            The number of tombstones skipped.
+     */
+    public void recordTombstonesSkipped(int count) {
+        tombstonesSkipped += count;
+    }
+
+
+    /**
+     * Records a rebuild of the table: a resize, a tombstone cleanup or a
+     * shrink.
+     *
+     * @param nanos
+     *            The time it took.
+     */
+    public void recordRebuild(long nanos) {
+        rebuilds++;
+        rebuildNanos += nanos;
+    }
+
+
+    /**
+     * Adds time spent moving records for a rebuild that is already counted,
+     * such as one step of an incremental resize.
+     *
+     * @param nanos
+     *            The time it took.
+     */
+    public void addRebuildTime(long nanos) {
+        rebuildNanos += nanos;
+    }
+
+
+    /**
+     * Returns the number of inserts.
+     *
+     * @return The insert count.
+     */
+    public long getInserts() {
+        return inserts;
+    }
+
+
+    /**
+     * Returns the number of finds.
+     *
+     * @return The find count.
+     */
+    public long getFinds() {
+        return finds;
+    }
+
+
+    /**
+     * Returns the number of removes.
+     *
+     * @return The remove count.
+     */
+    public long getRemoves() {
+        return removes;
+    }
+
+
+    /**
+     * Returns the number of lookups that found their ID.
+     *
+     * @return The hit count.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * Returns the number of lookups that did not find their ID.
+     *
+     * @return The miss count.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+
+    /**
+     * Returns the total number of slots examined.
+     *
+     * @return The probe count.
+     */
+    public long getTotalProbes() {
+        return totalProbes;
+    }
+
+
+    /**
+     * Returns the longest probe sequence seen.
+     *
+     * @return The maximum probe length.
+     */
+    public int getMaxProbes() {
+        return maxProbes;
+    }
+
+
+    /**
+     * Returns the number of tombstones passed over.
+     *
+     * @return The tombstone count.
+     */
+    public long getTombstonesSkipped() {
+        return tombstonesSkipped;
+    }
+
+
+    /**
+     * Returns the number of rebuilds.
+     *
+     * @return The rebuild count.
+     */
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+
+    /**
+     * Returns the total time spent rebuilding.
+     *
+     * @return The rebuild time in nanoseconds.
+     */
+    public long getRebuildNanos() {
+        return rebuildNanos;
+    }
+
+
+    /**
+     * Returns the number of operations in one histogram bucket.
+     *
+     * @param index
+     *            The bucket, as returned by {@link #bucket(int)}.
+     * @return The count in that bucket.
+     */
+    public long getHistogramCount(int index) {
+        return histogram[index];
+    }
+
+
+    /**
+     * Summarizes the counters.
+     *
+     * @return The counters and the non-empty histogram buckets, one item per
+     *         line.
+     */
+    @Override
+    public String toString() {
+        long operations = inserts + finds + removes;
+        StringBuilder result = new StringBuilder();
+        result.append("inserts: " + inserts + ", finds: " + finds
+            + ", removes: " + removes + "\n");
+        result.append("hits: " + hits + ", misses: " + misses + "\n");
+        result.append("probes: " + totalProbes + ", average: ");
+        result.append(operations == 0
+            ? "0.00"
+            : String.format("%.2f", (double)totalProbes / operations));
+        result.append(", max: " + maxProbes + "\n");
+        result.append("tombstones skipped: " + tombstonesSkipped + "\n");
+        result.append("probe lengths:");
+        for (int b = 0; b < histogram.length; b++) {
+            if (histogram[b] != 0) {
+                int low = b <= 1 ? b + 1 : (1 << (b - 1)) + 1;
+                int high = b == 0 ? 1 : 1 << b;
+                result.append(" ").append(low);
+                if (high != low) {
+                    result.append("-").append(high);
+                }
+                result.append(": ").append(histogram[b]);
+            }
+        }
+        result.append("\n");
+        result.append("rebuilds: " + rebuilds + ", time: " + (rebuildNanos
+            / 1000) + " us");
+        return result.toString();
+    }
+}
@@ -1,3 +1,6 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -193,4 +196,496 @@ public class HashTest {
         assertTrue(hash.hash(17) == 1);
     }
 
+
+    /**
+     * Test that negative IDs hash into the table in modulo mode.
+     */
+    @Test
+    public void testHashNegativeId() {
+        Hash hash = new Hash(10);
+        assertEquals(7, hash.hash(-3));
+        assertEquals(1, hash.insert(-9, handle1));
+        assertEquals(handle1, hash.find(-9));
+        assertEquals(handle1, hash.remove(-9));
+    }
+
+
+    /**
+     * Test that power-of-two mode rounds the capacity up and masks the mixed
+     * hash into range.
+     */
+    @Test
+    public void testPowerOfTwoCapacity() {
+        Hash hash = new Hash(10, true);
+        assertTrue(hash.isPowerOfTwo());
+        assertFalse(hashTable.isPowerOfTwo());
+        assertEquals(16, hash.getCapacity());
+        assertEquals(1, new Hash(1, true).getCapacity());
+        assertEquals(4, new Hash(4, true).getCapacity());
+        for (int id = -1000; id < 1000; id += 7) {
+            int home = hash.hash(id);
+            assertTrue(home >= 0 && home < 16);
+            assertEquals(Hash.mix(id) & 15, home);
+        }
+        assertEquals(3, hash.probe(3, 0));
+        assertEquals(4, hash.probe(3, 1));
+        assertEquals(5, hash.probe(15, 3));
+    }
+
+
+    /**
+     * Test insert, find, remove and resize in power-of-two mode with strided
+     * IDs that would collide on the modulo layout.
+     */
+    @Test
+    public void testPowerOfTwoInsertFindRemove() {
+        Hash hash = new Hash(4, true);
+        for (int id = 0; id < 64 * 100; id += 64) {
+            assertTrue(hash.insert(id, new Handle(id, 1)) >= 0);
+        }
+        assertEquals(256, hash.getCapacity());
+        for (int id = 0; id < 64 * 100; id += 64) {
+            assertEquals(new Handle(id, 1), hash.find(id));
+        }
+        assertEquals(-1, hash.insert(640, handle1));
+        assertEquals(new Handle(640, 1), hash.remove(640));
+        assertNull(hash.find(640));
+        assertNull(hash.find(1));
+        assertTrue(hash.printToString().endsWith("total records: 99"));
+    }
+
+
+    /**
+     * Tests that tombstones are counted and cleared by an in-place rehash
+     * once live records plus tombstones pass the limit.
+     */
+    @Test
+    public void testTombstoneCleanup() {
+        Hash hash = new Hash(16);
+        for (int id = 0; id < 7; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        for (int id = 0; id < 5; id++) {
+            hash.remove(id);
+        }
+        assertEquals(5, hash.getTombstoneCount());
+        assertEquals("live records: 2\ntombstones: 5\nempty slots: 9", hash
+            .statsToString());
+
+        // Tombstones are reused by inserts that land on them
+        hash.insert(16, handle1);
+        assertEquals(4, hash.getTombstoneCount());
+
+        // 3 live + 4 tombstones + 2 new fill 9 of 16 slots; a tenth passes
+        // the 60% limit and rehashes without growing
+        hash.setTombstoneLimitPercent(60);
+        hash.insert(7, handle2);
+        hash.insert(8, handle3);
+        assertEquals(4, hash.getTombstoneCount());
+        hash.insert(9, handle4);
+        assertEquals(16, hash.getCapacity());
+        assertEquals(0, hash.getTombstoneCount());
+        assertEquals("live records: 6\ntombstones: 0\nempty slots: 10", hash
+            .statsToString());
+        assertEquals(new Handle(5, 1), hash.find(5));
+        assertEquals(handle1, hash.find(16));
+        assertEquals(handle4, hash.find(9));
+        assertNull(hash.find(0));
+    }
+
+
+    /**
+     * Tests that by default tombstones stay where they are, so the layout
+     * under delete churn is that of the original table, until a limit is
+     * set.
+     */
+    @Test
+    public void testTombstoneLimitOffByDefault() {
+        Hash hash = new Hash(16);
+        for (int id = 0; id < 7; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        for (int id = 0; id < 7; id++) {
+            hash.remove(id);
+        }
+        // 7 live records and 7 tombstones fill 14 of 16 slots
+        for (int id = 7; id < 14; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        assertEquals(7, hash.getTombstoneCount());
+        assertEquals(0, hash.getStats().getRebuilds());
+        assertTrue(hash.printToString().startsWith("0: TOMBSTONE\n"));
+
+        hash.setTombstoneLimitPercent(75);
+        hash.insert(14, handle1);
+        assertEquals(0, hash.getTombstoneCount());
+        assertEquals(1, hash.getStats().getRebuilds());
+        assertEquals(16, hash.getCapacity());
+        assertTrue(hash.printToString().startsWith("7: 7\n"));
+        hash.setTombstoneLimitPercent(0);
+    }
+
+
+    /**
+     * Tests that a duplicate or an aborted insert past the tombstone limit
+     * leaves the table as it was, and that the rehash happens when an insert
+     * is committed.
+     */
+    @Test
+    public void testRehashOnlyOnCommit() {
+        Hash hash = new Hash(16);
+        hash.setTombstoneLimitPercent(60);
+        for (int id = 0; id < 7; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        for (int id = 0; id < 5; id++) {
+            hash.remove(id);
+        }
+        hash.insert(7, handle1);
+        hash.insert(8, handle2);
+        // 4 live records and 5 tombstones; a tenth slot passes 60%
+        String layout = hash.printToString();
+
+        assertEquals(Hash.DUPLICATE, hash.reserve(5));
+        hash.abort(hash.reserve(20));
+        assertEquals(layout, hash.printToString());
+        assertEquals(5, hash.getTombstoneCount());
+        assertEquals(0, hash.getStats().getRebuilds());
+
+        assertTrue(hash.insert(20, handle3) >= 0);
+        assertEquals(0, hash.getTombstoneCount());
+        assertEquals(1, hash.getStats().getRebuilds());
+        assertEquals(handle3, hash.find(20));
+        assertEquals(new Handle(5, 1), hash.find(5));
+    }
+
+
+    /**
+     * Tests that inserts count the tombstones they probe past, both when
+     * they find a duplicate and when they store the ID.
+     */
+    @Test
+    public void testInsertCountsTombstones() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(5, handle2); // collides with 1
+        hashTable.remove(1);
+        assertEquals(-1, hashTable.insert(5, handle3));
+        assertEquals(1, hashTable.getStats().getTombstonesSkipped());
+        assertEquals(1, hashTable.insert(9, handle3));
+        assertEquals(2, hashTable.getStats().getTombstonesSkipped());
+    }
+
+
+    /**
+     * Tests the bounds of the tombstone limit.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadTombstoneLimit() {
+        hashTable.setTombstoneLimitPercent(101);
+    }
+
+
+    /**
+     * Tests that an incremental resize keeps every record reachable while
+     * both tables are in use, and drains the old table a step at a time.
+     */
+    @Test
+    public void testIncrementalResize() {
+        Hash hash = new Hash(64);
+        hash.setIncrementalResize(true);
+        for (int id = 0; id < 32; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        assertFalse(hash.isMigrating());
+        hash.insert(32, handle1);
+        assertTrue(hash.isMigrating());
+        assertEquals(128, hash.getCapacity());
+
+        assertEquals(-1, hash.insert(31, handle2));
+        assertEquals(new Handle(0, 1), hash.find(0));
+        assertEquals(new Handle(63 - 32, 1), hash.remove(31));
+        assertNull(hash.find(31));
+        assertEquals(handle1, hash.find(32));
+        assertTrue(hash.isMigrating());
+
+        // 64 old slots at 8 per operation
+        for (int op = 0; op < 8; op++) {
+            hash.find(1000);
+        }
+        assertFalse(hash.isMigrating());
+        for (int id = 0; id < 31; id++) {
+            assertEquals(new Handle(id, 1), hash.find(id));
+        }
+        assertTrue(hash.printToString().endsWith("total records: 32"));
+    }
+
+
+    /**
+     * Tests that printing finishes a pending migration and that turning the
+     * mode off does too.
+     */
+    @Test
+    public void testIncrementalResizeFinish() {
+        Hash hash = new Hash(4);
+        hash.setIncrementalResize(true);
+        hash.insert(1, handle1);
+        hash.insert(2, handle2);
+        hash.insert(3, handle3);
+        assertTrue(hash.isMigrating());
+        assertEquals("1: 1\n2: 2\n3: 3\ntotal records: 3", hash
+            .printToString());
+        assertFalse(hash.isMigrating());
+
+        hash.insert(4, handle4);
+        hash.insert(5, handle4);
+        assertTrue(hash.isMigrating());
+        hash.setIncrementalResize(false);
+        assertFalse(hash.isMigrating());
+        assertEquals(handle4, hash.find(5));
+    }
+
+
+    /**
+     * Tests that removes halve the table below the low-water mark, down to
+     * the initial capacity and no further.
+     */
+    @Test
+    public void testShrink() {
+        Hash hash = new Hash(10);
+        hash.setShrinkLoadPercent(20);
+        for (int id = 0; id < 21; id++) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        assertEquals(80, hash.getCapacity());
+
+        for (int id = 0; id < 5; id++) {
+            hash.remove(id);
+        }
+        assertEquals(80, hash.getCapacity());
+        hash.remove(5); // 15 records < 20% of 80
+        assertEquals(40, hash.getCapacity());
+        assertEquals(0, hash.getTombstoneCount());
+        for (int id = 6; id < 21; id++) {
+            assertEquals(new Handle(id, 1), hash.find(id));
+        }
+
+        for (int id = 6; id < 20; id++) {
+            hash.remove(id);
+        }
+        assertEquals(10, hash.getCapacity());
+        assertNull(hash.remove(20 + 10));
+        hash.remove(20);
+        assertEquals(10, hash.getCapacity());
+        assertTrue(hash.printToString().endsWith("total records: 0"));
+    }
+
+
+    /**
+     * Tests that the default never shrinks and that the mark is bounded.
+     */
+    @Test
+    public void testShrinkDisabledAndBounds() {
+        for (int id = 0; id < 3; id++) {
+            hashTable.insert(id, handle1);
+        }
+        for (int id = 0; id < 3; id++) {
+            hashTable.remove(id);
+        }
+        assertEquals(8, hashTable.getCapacity());
+        try {
+            hashTable.setShrinkLoadPercent(21);
+            fail();
+        }
+        catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+
+
+    /**
+     * Tests batched lookups, including colliding, missing and repeated IDs
+     * and IDs still in the old table of an incremental resize.
+     */
+    @Test
+    public void testFindAll() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(5, handle2);
+        hashTable.insert(9, handle3);
+        hashTable.remove(5);
+        Handle[] found = hashTable.findAll(new int[] { 9, 5, 1, 13, 9 });
+        assertArrayEquals(new Handle[] { handle3, null, handle1, null,
+            handle3 }, found);
+        assertEquals(0, hashTable.findAll(new int[0]).length);
+
+        Hash hash = new Hash(64);
+        hash.setIncrementalResize(true);
+        int[] ids = new int[40];
+        for (int id = 0; id < 40; id++) {
+            hash.insert(id * 64, new Handle(id, 1));
+            ids[id] = id * 64;
+        }
+        assertTrue(hash.isMigrating());
+        found = hash.findAll(ids);
+        for (int id = 0; id < 40; id++) {
+            assertEquals(new Handle(id, 1), found[id]);
+        }
+    }
+
+
+    /**
+     * Tests the operation counters kept by the table.
+     */
+    @Test
+    public void testStats() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(5, handle2); // collides with 1
+        hashTable.remove(1);
+        assertEquals(handle2, hashTable.find(5)); // passes the tombstone
+        assertNull(hashTable.find(9));
+        hashTable.findAll(new int[] { 5, 2 });
+        hashTable.insert(2, handle3);
+        // Doubles the table, after probing the old one for a duplicate
+        hashTable.insert(3, handle4);
+
+        HashStats stats = hashTable.getStats();
+        assertEquals(4, stats.getInserts());
+        assertEquals(4, stats.getFinds());
+        assertEquals(1, stats.getRemoves());
+        assertEquals(3, stats.getHits());
+        assertEquals(2, stats.getMisses());
+        assertEquals(3, stats.getTombstonesSkipped());
+        assertEquals(3, stats.getMaxProbes());
+        assertEquals(1, stats.getRebuilds());
+        assertEquals(2, stats.getHistogramCount(0));
+        assertEquals(6, stats.getHistogramCount(1));
+        assertEquals(1, stats.getHistogramCount(2));
+        assertTrue(stats.toString().contains("probes: 17, average: 1.89, "
+            + "max: 3\n"));
+        assertTrue(stats.toString().contains("probe lengths: 1: 2 2: 6 "
+            + "3-4: 1\n"));
+        assertEquals(0, HashStats.bucket(0));
+        assertEquals(3, HashStats.bucket(8));
+        assertEquals(4, HashStats.bucket(9));
+    }
+
+
+    /**
+     * Tests reserving, committing and aborting a slot.
+     */
+    @Test
+    public void testReserveCommitAbort() {
+        int slot = hashTable.reserve(5);
+        assertEquals(1, slot);
+        hashTable.abort(slot);
+        assertNull(hashTable.find(5));
+
+        slot = hashTable.reserve(5);
+        Exception thrown = null;
+        try {
+            hashTable.reserve(6);
+        }
+        catch (IllegalStateException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+        assertEquals(1, hashTable.commit(slot, handle1));
+        hashTable.abort(slot);
+        assertEquals(handle1, hashTable.find(5));
+        assertEquals(Hash.DUPLICATE, hashTable.reserve(5));
+
+        thrown = null;
+        try {
+            hashTable.commit(slot, handle2);
+        }
+        catch (IllegalStateException e) {
+            thrown = e;
+        }
+        assertNotNull(thrown);
+    }
+
+
+    /**
+     * Tests that a reservation made when the table is due to grow is placed
+     * after the resize, which happens only on commit.
+     */
+    @Test
+    public void testReserveBeforeResize() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(2, handle2);
+        int slot = hashTable.reserve(6);
+        assertEquals(4, hashTable.getCapacity());
+        hashTable.abort(slot);
+        slot = hashTable.reserve(6);
+        assertEquals(6, hashTable.commit(slot, handle3));
+        assertEquals(8, hashTable.getCapacity());
+        assertEquals(handle3, hashTable.find(6));
+    }
+
+
+    /**
+     * Tests that an ID stored past a tombstone is still seen as a duplicate.
+     */
+    @Test
+    public void testDuplicatePastTombstone() {
+        hashTable.insert(1, handle1);
+        hashTable.insert(5, handle2); // collides with 1
+        hashTable.remove(1);
+        assertEquals(-1, hashTable.insert(5, handle3));
+        assertEquals(handle2, hashTable.find(5));
+        assertEquals(1, hashTable.insert(9, handle3)); // reuses the tombstone
+    }
+
+
+    /**
+     * Tests the probe lengths of both layouts on sequential, strided and
+     * random IDs. The modulo layout is perfect on sequential IDs but piles
+     * IDs that share a power-of-two stride onto a few home slots; the mixed
+     * hash spreads all three patterns evenly.
+     */
+    @Test
+    public void testProbeLengthByIdPattern() {
+        int count = 4096;
+        int[] sequential = new int[count];
+        int[] strided = new int[count];
+        int[] random = new int[count];
+        Random generator = new Random(26);
+        for (int i = 0; i < count; i++) {
+            sequential[i] = i;
+            strided[i] = i * 64;
+            random[i] = generator.nextInt(Integer.MAX_VALUE);
+        }
+
+        assertEquals(1.0, averageFindProbes(new Hash(4), sequential), 0);
+        double modulo = averageFindProbes(new Hash(4), strided);
+        assertTrue(modulo > 10);
+        assertTrue(averageFindProbes(new Hash(4), random) < 2);
+
+        assertTrue(averageFindProbes(new Hash(4, true), sequential) < 2);
+        assertTrue(averageFindProbes(new Hash(4, true), strided) < 2);
+        assertTrue(averageFindProbes(new Hash(4, true), random) < 2);
+    }
+
+
+    /**
+     * Inserts IDs into a table, then finds each of them.
+     *
+     * @param hash
+     *            The table.
+     * @param ids
+     *            The IDs.
+     * @return The average number of slots a find examined.
+     */
+    private static double averageFindProbes(Hash hash, int[] ids) {
+        hash.setOutput(OutputSink.buffered(new PrintStream(OutputStream
+            .nullOutputStream()), OutputSink.DEFAULT_BUFFER_SIZE, false));
+        for (int id : ids) {
+            hash.insert(id, new Handle(id, 1));
+        }
+        long before = hash.getStats().getTotalProbes();
+        for (int id : ids) {
+            assertNotNull(hash.find(id));
+        }
+        return (double)(hash.getStats().getTotalProbes() - before)
+            / ids.length;
+    }
 }
@@ -0,0 +1,59 @@
+/**
+ * A key-value pair, as returned by range queries on an ordered index.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.26
+ * @param <K>
+ *            The key type.
+ * @param <V>
+ *            The value type.
+ */
+public class KVPair<K, V> {
+    private final K key;
+    private final V value;
+
+    /**
+     * Constructs a pair.
+     *
+     * @param key
+     *            The key.
+     * @param value
+     *            The value.
+     */
+    public KVPair(K key, V value) {
+        this.key = key;
+        this.value = value;
+    }
+
+
+    /**
+     * Returns the key.
+     *
+     * @return The key.
+     */
+    public K getKey() {
+        return key;
+    }
+
+
+    /**
+     * Returns the value.
+     *
+     * @return The value.
+     */
+    public V getValue() {
+        return value;
+    }
+
+
+    /**
+     * Returns the pair as "(key, value)".
+     *
+     * @return A string representation of the pair.
+     */
+    @Override
+    public String toString() {
+        return "(" + key + ", " + value + ")";
+    }
+}
@@ -0,0 +1,23 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the KVPair class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.26
+ */
+public class KVPairTest {
+
+    /**
+     * Tests the accessors and toString.
+     */
+    @Test
+    public void testPair() {
+        KVPair<Integer, String> pair = new KVPair<>(7, "seven");
+        assertEquals(Integer.valueOf(7), pair.getKey());
+        assertEquals("seven", pair.getValue());
+        assertEquals("(7, seven)", pair.toString());
+    }
+}
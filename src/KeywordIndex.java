@@ -0,0 +1,142 @@
+/**
+ * An inverted index from seminar keyword to the IDs of the seminars that
+ * list it. Each keyword maps to a compressed {@link PostingList}, and the
+ * keywords themselves are kept in a {@link SkipList}. Queries over several
+ * keywords merge the sorted posting lists, so no record in the memory pool is
+ * read to answer them.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class KeywordIndex {
+    private final SkipList<String, PostingList> postings;
+
+    /**
+     * Constructs an empty index.
+     */
+    public KeywordIndex() {
+        postings = new SkipList<>();
+    }
+
+
+    /**
+     * Indexes a seminar under each of its keywords.
+     *
+     * @param keywords
+     *            The seminar's keywords.
+     * @param id
+     *            The seminar's ID.
+     */
+    public void add(String[] keywords, int id) {
+        for (String keyword : keywords) {
+            PostingList list = postings.find(keyword);
+            if (list == null) {
+                list = new PostingList();
+                postings.insert(keyword, list);
+            }
+            list.add(id);
+        }
+    }
+
+
+    /**
+     * Removes a seminar from the lists of each of its keywords. Keywords left
+     * with no seminars are dropped.
+     *
+     * @param keywords
+     *            The seminar's keywords.
+     * @param id
+     *            The seminar's ID.
+     */
+    public void remove(String[] keywords, int id) {
+        for (String keyword : keywords) {
+            PostingList list = postings.find(keyword);
+            if (list != null && list.remove(id) && list.size() == 0) {
+                postings.remove(keyword);
+            }
+        }
+    }
+
+
+    /**
+     * Returns the IDs of the seminars with a keyword.
+     *
+     * @param keyword
+     *            The keyword.
+     * @return The IDs in increasing order.
+     */
+    public int[] find(String keyword) {
+        PostingList list = postings.find(keyword);
+        return list == null ? new int[0] : list.toArray();
+    }
+
+
+    /**
+     * Returns the number of seminars with a keyword.
+     *
+     * @param keyword
+     *            The keyword.
+     * @return The length of its posting list.
+     */
+    public int count(String keyword) {
+        PostingList list = postings.find(keyword);
+        return list == null ? 0 : list.size();
+    }
+
+
+    /**
+     * Returns the IDs of the seminars that have every one of the keywords.
+     * The lists are intersected shortest first, so the intermediate results
+     * stay as small as possible.
+     *
+     * @param keywords
+     *            The keywords, at least one.
+     * @return The IDs in increasing order.
+     */
+    public int[] findAll(String[] keywords) {
+        String[] order = keywords.clone();
+        for (int i = 1; i < order.length; i++) {
+            String key = order[i];
+            int size = count(key);
+            int j = i - 1;
+            while (j >= 0 && count(order[j]) > size) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = key;
+        }
+
+        int[] result = find(order[0]);
+        for (int i = 1; i < order.length && result.length > 0; i++) {
+            result = PostingList.intersect(result, find(order[i]));
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the IDs of the seminars that have at least one of the keywords.
+     *
+     * @param keywords
+     *            The keywords.
+     * @return The IDs in increasing order.
+     */
+    public int[] findAny(String[] keywords) {
+        int[] result = new int[0];
+        for (String keyword : keywords) {
+            result = PostingList.union(result, find(keyword));
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns the number of distinct keywords indexed.
+     *
+     * @return The keyword count.
+     */
+    public int size() {
+        return postings.size();
+    }
+}
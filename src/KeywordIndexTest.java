@@ -0,0 +1,69 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the KeywordIndex class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class KeywordIndexTest {
+    private KeywordIndex index;
+
+    /**
+     * Setup method indexes a few seminars.
+     */
+    @Before
+    public void setUp() {
+        index = new KeywordIndex();
+        index.add(new String[] { "HCI", "VT" }, 1);
+        index.add(new String[] { "VT", "Graphics" }, 2);
+        index.add(new String[] { "HCI", "VT", "Graphics" }, 3);
+        index.add(new String[] { "Theory" }, 4);
+    }
+
+
+    /**
+     * Tests single keyword lookups.
+     */
+    @Test
+    public void testFind() {
+        assertArrayEquals(new int[] { 1, 2, 3 }, index.find("VT"));
+        assertArrayEquals(new int[0], index.find("vt"));
+        assertEquals(2, index.count("HCI"));
+        assertEquals(4, index.size());
+    }
+
+
+    /**
+     * Tests AND and OR of several keywords.
+     */
+    @Test
+    public void testFindAllAny() {
+        assertArrayEquals(new int[] { 1, 3 }, index.findAll(new String[] {
+            "VT", "HCI" }));
+        assertArrayEquals(new int[] { 3 }, index.findAll(new String[] { "VT",
+            "Graphics", "HCI" }));
+        assertArrayEquals(new int[0], index.findAll(new String[] { "Theory",
+            "VT" }));
+        assertArrayEquals(new int[] { 1, 3, 4 }, index.findAny(new String[] {
+            "Theory", "HCI" }));
+    }
+
+
+    /**
+     * Tests that removed seminars leave the lists and empty keywords go.
+     */
+    @Test
+    public void testRemove() {
+        index.remove(new String[] { "Theory" }, 4);
+        index.remove(new String[] { "HCI", "VT" }, 1);
+        index.remove(new String[] { "HCI" }, 9);
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[0], index.find("Theory"));
+        assertArrayEquals(new int[] { 3 }, index.find("HCI"));
+        assertArrayEquals(new int[] { 2, 3 }, index.find("VT"));
+    }
+}
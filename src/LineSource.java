@@ -0,0 +1,28 @@
+import java.io.IOException;
+
+/**
+ * Where the command parser reads its lines from. A BufferedReader is one,
+ * through {@code reader::readLine}; a {@link MappedLineReader} is another
+ * that hands out lines straight from the bytes of a mapped file.
+ * <p>
+ * A line may be a view that the source reuses, so it is only valid until
+ * the next call. Callers that keep any part of it must copy that part to a
+ * String first.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.07
+ */
+public interface LineSource {
+
+    /**
+     * Reads the next line, without its line terminator. As with
+     * BufferedReader, a line ends at "\n", "\r" or "\r\n", or at the end of
+     * the input.
+     *
+     * @return The line, or null at the end of the input.
+     * @throws IOException
+     *             if the input cannot be read
+     */
+    CharSequence readLine() throws IOException;
+}
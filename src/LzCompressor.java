@@ -0,0 +1,278 @@
+/**
+ * A small LZ77 compressor in the style of LZ4, fast enough to run on every
+ * insert. The output is a series of sequences, each a token byte, a run of
+ * literal bytes copied as is, and a match: a 2-byte offset back into the
+ * output already produced and a length to copy from there. The token holds
+ * the literal count in its high four bits and the match length minus 4 in
+ * its low four bits; a nibble of 15 is followed by more length bytes, each
+ * added to it, ending with the first byte below 255. The last sequence has
+ * literals only and no match.
+ * <p>
+ * Matches are found through a table of the last position each 4-byte
+ * sequence hashed to, so the compressor makes a single pass and never
+ * searches; it finds fewer matches than a full search would, but repeated
+ * words and phrases in plain text are caught.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.03
+ */
+public class LzCompressor {
+    private static final int MIN_MATCH = 4;
+    private static final int MAX_OFFSET = 0xFFFF;
+    private static final int HASH_BITS = 12;
+    private static final int RUN_MASK = 15;
+
+    /**
+     * The compressor has only static methods.
+     */
+    private LzCompressor() {
+    }
+
+
+    /**
+     * Returns the largest output compress can produce for an input length:
+     * the input as literals plus their length bytes and one token.
+     *
+     * @param length
+     *            The input length.
+     * @return The bound.
+     */
+    public static int maxCompressedSize(int length) {
+        return length + length / 255 + 16;
+    }
+
+
+    /**
+     * Compresses bytes.
+     *
+     * @param src
+     *            The input buffer.
+     * @param srcOffset
+     *            The first input byte.
+     * @param srcLength
+     *            The number of input bytes.
+     * @param dst
+     *            The output buffer, with at least maxCompressedSize bytes
+     *            free at dstOffset.
+     * @param dstOffset
+     *            Where to write the first output byte.
+     * @return The number of bytes written.
+     */
+    public static int compress(
+        byte[] src,
+        int srcOffset,
+        int srcLength,
+        byte[] dst,
+        int dstOffset) {
+        // Positions are stored plus one, so 0 means no earlier position
+        int[] table = new int[1 << HASH_BITS];
+        int end = srcOffset + srcLength;
+        int anchor = srcOffset;
+        int p = srcOffset;
+        int out = dstOffset;
+        while (p + MIN_MATCH <= end) {
+            int sequence = readInt(src, p);
+            int hash = (sequence * 0x9E3779B1) >>> (32 - HASH_BITS);
+            int candidate = table[hash] - 1;
+            table[hash] = p + 1;
+            if (candidate < 0 || p - candidate > MAX_OFFSET || readInt(src,
+                candidate) != sequence) {
+                p++;
+                continue;
+            }
+            int length = MIN_MATCH;
+            while (p + length < end && src[candidate + length] == src[p
+                + length]) {
+                length++;
+            }
+            out = writeSequence(src, anchor, p - anchor, p - candidate,
+                length, dst, out);
+            p += length;
+            anchor = p;
+        }
+        out = writeSequence(src, anchor, end - anchor, 0, 0, dst, out);
+        return out - dstOffset;
+    }
+
+
+    /**
+     * Writes one sequence.
+     *
+     * @param src
+     *            The input buffer.
+     * @param literalStart
+     *            The first literal byte.
+     * @param literals
+     *            The number of literal bytes.
+     * @param offset
+     *            How far back the match starts, 0 for the last sequence.
+     * @param matchLength
+     *            The length of the match, 0 for the last sequence.
+     * @param dst
+     *            The output buffer.
+     * @param out
+     *            Where to write.
+     * @return The index after the last byte written.
+     */
+    private static int writeSequence(
+        byte[] src,
+        int literalStart,
+        int literals,
+        int offset,
+        int matchLength,
+        byte[] dst,
+        int out) {
+        int match = offset == 0 ? 0 : matchLength - MIN_MATCH;
+        int token = out++;
+        dst[token] = (byte)((Math.min(literals, RUN_MASK) << 4) | Math.min(
+            match, RUN_MASK));
+        if (literals >= RUN_MASK) {
+            out = writeLength(literals - RUN_MASK, dst, out);
+        }
+        System.arraycopy(src, literalStart, dst, out, literals);
+        out += literals;
+        if (offset != 0) {
+            dst[out++] = (byte)offset;
+            dst[out++] = (byte)(offset >>> 8);
+            if (match >= RUN_MASK) {
+                out = writeLength(match - RUN_MASK, dst, out);
+            }
+        }
+        return out;
+    }
+
+
+    /**
+     * Writes the extra bytes of a length that did not fit in its nibble.
+     *
+     * @param length
+     *            The rest of the length.
+     * @param dst
+     *            The output buffer.
+     * @param out
+     *            Where to write.
+     * @return The index after the last byte written.
+     */
+    private static int writeLength(int length, byte[] dst, int out) {
+        while (length >= 255) {
+            dst[out++] = (byte)255;
+            length -= 255;
+        }
+        dst[out++] = (byte)length;
+        return out;
+    }
+
+
+    /**
+     * Decompresses bytes written by compress.
+     *
+     * @param src
+     *            The input buffer.
+     * @param srcOffset
+     *            The first input byte.
+     * @param srcLength
+     *            The number of input bytes.
+     * @param dst
+     *            The output buffer.
+     * @param dstOffset
+     *            Where to write the first output byte.
+     * @param dstLength
+     *            The exact number of bytes the input decompresses to.
+     * @throws IllegalArgumentException
+     *             if the input is corrupt or does not decompress to
+     *             exactly dstLength bytes
+     */
+    public static void decompress(
+        byte[] src,
+        int srcOffset,
+        int srcLength,
+        byte[] dst,
+        int dstOffset,
+        int dstLength) {
+        int in = srcOffset;
+        int end = srcOffset + srcLength;
+        int out = dstOffset;
+        int outEnd = dstOffset + dstLength;
+        while (true) {
+            if (in >= end) {
+                throw corrupt();
+            }
+            int token = src[in++] & 0xFF;
+            int literals = token >>> 4;
+            if (literals == RUN_MASK) {
+                int b;
+                do {
+                    if (in >= end) {
+                        throw corrupt();
+                    }
+                    b = src[in++] & 0xFF;
+                    literals += b;
+                }
+                while (b == 255);
+            }
+            if (literals > end - in || literals > outEnd - out) {
+                throw corrupt();
+            }
+            System.arraycopy(src, in, dst, out, literals);
+            in += literals;
+            out += literals;
+            if (in == end) {
+                break;
+            }
+            if (in + 2 > end) {
+                throw corrupt();
+            }
+            int offset = (src[in] & 0xFF) | ((src[in + 1] & 0xFF) << 8);
+            in += 2;
+            int length = token & RUN_MASK;
+            if (length == RUN_MASK) {
+                int b;
+                do {
+                    if (in >= end) {
+                        throw corrupt();
+                    }
+                    b = src[in++] & 0xFF;
+                    length += b;
+                }
+                while (b == 255);
+            }
+            length += MIN_MATCH;
+            if (offset == 0 || offset > out - dstOffset || length > outEnd
+                - out) {
+                throw corrupt();
+            }
+            // Byte by byte, since a match may overlap the bytes it produces
+            for (int k = 0; k < length; k++) {
+                dst[out] = dst[out - offset];
+                out++;
+            }
+        }
+        if (out != outEnd) {
+            throw corrupt();
+        }
+    }
+
+
+    /**
+     * Reads four bytes as an int.
+     *
+     * @param src
+     *            The buffer.
+     * @param p
+     *            The first byte.
+     * @return The bytes, big-endian.
+     */
+    private static int readInt(byte[] src, int p) {
+        return (src[p] << 24) | ((src[p + 1] & 0xFF) << 16) | ((src[p + 2]
+            & 0xFF) << 8) | (src[p + 3] & 0xFF);
+    }
+
+
+    /**
+     * @return the exception for input that is not compressed data
+     */
+    private static IllegalArgumentException corrupt() {
+        return new IllegalArgumentException("corrupt compressed data");
+    }
+}
@@ -0,0 +1,91 @@
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the LzCompressor class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.03
+ */
+public class LzCompressorTest {
+
+    /**
+     * Compresses bytes into the middle of a buffer and checks that they
+     * decompress back.
+     *
+     * @param input
+     *            The bytes.
+     * @return The compressed size.
+     */
+    private int roundTrip(byte[] input) {
+        byte[] packed = new byte[LzCompressor.maxCompressedSize(input.length)
+            + 3];
+        int size = LzCompressor.compress(input, 0, input.length, packed, 3);
+        assertTrue(size <= LzCompressor.maxCompressedSize(input.length));
+        byte[] output = new byte[input.length + 2];
+        LzCompressor.decompress(packed, 3, size, output, 2, input.length);
+        assertTrue(Arrays.equals(input, Arrays.copyOfRange(output, 2,
+            output.length)));
+        return size;
+    }
+
+
+    /**
+     * Tests that repetitive text shrinks, including long literal and match
+     * runs that need extra length bytes.
+     */
+    @Test
+    public void testRepetitive() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("This seminar will present an overview of research ");
+        }
+        byte[] input = text.toString().getBytes();
+        assertTrue(roundTrip(input) < input.length / 10);
+
+        byte[] zeros = new byte[5000];
+        assertTrue(roundTrip(zeros) < 40);
+    }
+
+
+    /**
+     * Tests short and random inputs, which cannot shrink.
+     */
+    @Test
+    public void testIncompressible() {
+        assertEquals(1, roundTrip(new byte[0]));
+        assertEquals(4, roundTrip(new byte[] { 1, 2, 3 }));
+        Random random = new Random(7);
+        for (int n = 1; n < 2000; n = n * 3 + 1) {
+            byte[] input = new byte[n];
+            random.nextBytes(input);
+            roundTrip(input);
+        }
+    }
+
+
+    /**
+     * Tests that data decompressing to the wrong length is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testWrongLength() {
+        byte[] input = "abcdabcdabcdabcd".getBytes();
+        byte[] packed = new byte[LzCompressor.maxCompressedSize(
+            input.length)];
+        int size = LzCompressor.compress(input, 0, input.length, packed, 0);
+        LzCompressor.decompress(packed, 0, size, new byte[32], 0, 15);
+    }
+
+
+    /**
+     * Tests that a match reaching before the output is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadOffset() {
+        byte[] packed = { 0x10, 'a', 5, 0, 0x00 };
+        LzCompressor.decompress(packed, 0, packed.length, new byte[16], 0, 5);
+    }
+}
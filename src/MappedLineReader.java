@@ -0,0 +1,287 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the lines of a command file from memory-mapped windows of the
+ * file, without decoding it. A BufferedReader over a FileReader decodes
+ * every byte to a char and makes a String of every line; this reader copies
+ * the mapped bytes a block at a time into a byte array, finds the line
+ * breaks there and returns each line as a view over its bytes. The parser
+ * reads the characters of an ASCII line straight from the array, and only
+ * the parts it copies with subSequence or toString become Strings.
+ * <p>
+ * The file is mapped a window at a time, so files larger than one mapping
+ * can hold are read in pieces, and a line that runs past the end of the
+ * block is moved to the front before the block is refilled. A line with
+ * bytes outside ASCII is decoded with the default charset, as FileReader
+ * would, and returned as a String, so the lines read are the same as a
+ * BufferedReader's for any ASCII-compatible charset.
+ * <p>
+ * Each line returned is the same view object, which is only valid until
+ * the next call to {@link #readLine()}.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.07
+ */
+public class MappedLineReader implements LineSource, Closeable {
+
+    /** The default size of the mapped window, in bytes. */
+    public static final int DEFAULT_WINDOW = 1 << 26;
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int MAX_BLOCK = Integer.MAX_VALUE - 8;
+
+    /**
+     * A line as a view over the ASCII bytes of the block. ASCII bytes are
+     * the same chars in ISO-8859-1, the cheapest charset to copy out.
+     */
+    private static class Line implements CharSequence {
+        private byte[] bytes;
+        private int start;
+        private int length;
+
+        /**
+         * @return the number of characters in the line
+         */
+        @Override
+        public int length() {
+            return length;
+        }
+
+
+        /**
+         * Returns a character of the line.
+         *
+         * @param index
+         *            The index of the character.
+         * @return The character.
+         */
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index
+                    + ", length " + length);
+            }
+            return (char)bytes[start + index];
+        }
+
+
+        /**
+         * Copies part of the line to a String.
+         *
+         * @param from
+         *            The index of the first character.
+         * @param to
+         *            The index after the last character.
+         * @return The characters as a String.
+         */
+        @Override
+        public CharSequence subSequence(int from, int to) {
+            if (from < 0 || to > length || from > to) {
+                throw new IndexOutOfBoundsException("range " + from + " to "
+                    + to + ", length " + length);
+            }
+            return new String(bytes, start + from, to - from,
+                StandardCharsets.ISO_8859_1);
+        }
+
+
+        /**
+         * @return the line as a String
+         */
+        @Override
+        public String toString() {
+            return new String(bytes, start, length,
+                StandardCharsets.ISO_8859_1);
+        }
+    }
+
+    private final FileChannel channel;
+    private final long size;
+    private final int window;
+    private final Charset charset;
+    private final Line line;
+    private MappedByteBuffer mapped;
+    private long mappedEnd;
+    private byte[] block;
+    private int pos;
+    private int limit;
+
+    /**
+     * Opens a file with the default window size.
+     *
+     * @param path
+     *            The path of the file.
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    public MappedLineReader(String path) throws IOException {
+        this(path, DEFAULT_WINDOW);
+    }
+
+
+    /**
+     * Opens a file.
+     *
+     * @param path
+     *            The path of the file.
+     * @param window
+     *            The number of bytes to map at a time, at least 1.
+     * @throws IOException
+     *             if the file cannot be opened
+     * @throws IllegalArgumentException
+     *             if the window is not positive
+     */
+    public MappedLineReader(String path, int window) throws IOException {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be positive");
+        }
+        this.window = window;
+        this.charset = Charset.defaultCharset();
+        this.line = new Line();
+        this.block = new byte[Math.min(window, BLOCK_SIZE)];
+        this.channel = FileChannel.open(Paths.get(path),
+            StandardOpenOption.READ);
+        try {
+            this.size = channel.size();
+        }
+        catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+
+    /**
+     * Moves the unread bytes to the front of the block and copies more of
+     * the file after them, mapping the next window when the current one is
+     * used up. The block grows when a line fills all of it.
+     *
+     * @return False if the file has no more bytes.
+     * @throws IOException
+     *             if the file cannot be mapped or a line is too long to
+     *             hold
+     */
+    private boolean fill() throws IOException {
+        int unread = limit - pos;
+        if (unread == block.length) {
+            if (block.length == MAX_BLOCK) {
+                throw new IOException("Line is too long to read");
+            }
+            byte[] larger = new byte[(int)Math.min(2L * block.length,
+                MAX_BLOCK)];
+            System.arraycopy(block, pos, larger, 0, unread);
+            block = larger;
+        }
+        else {
+            System.arraycopy(block, pos, block, 0, unread);
+        }
+        pos = 0;
+        limit = unread;
+        if (mapped == null || !mapped.hasRemaining()) {
+            if (mappedEnd == size) {
+                return false;
+            }
+            int length = (int)Math.min(window, size - mappedEnd);
+            mapped = channel.map(FileChannel.MapMode.READ_ONLY, mappedEnd,
+                length);
+            mappedEnd += length;
+        }
+        int count = Math.min(block.length - limit, mapped.remaining());
+        mapped.get(block, limit, count);
+        limit += count;
+        return true;
+    }
+
+
+    /**
+     * Reads the next line.
+     *
+     * @return The line, valid until the next call, or null at the end of
+     *         the file.
+     * @throws IOException
+     *             if the file cannot be mapped
+     */
+    @Override
+    public CharSequence readLine() throws IOException {
+        if (pos == limit && !fill()) {
+            return null;
+        }
+        int i = pos;
+        int bits = 0;
+        while (true) {
+            // Stop a byte early to keep the "\n" of a "\r\n" in view
+            int stop = limit - 1;
+            while (i < stop) {
+                byte b = block[i];
+                if (b <= '\r' && (b == '\n' || b == '\r')) {
+                    return finish(i, b == '\r' && block[i + 1] == '\n'
+                        ? i + 2
+                        : i + 1, bits >= 0);
+                }
+                bits |= b;
+                i++;
+            }
+            int scanned = i - pos;
+            boolean more = fill();
+            i = scanned;
+            if (!more) {
+                break;
+            }
+        }
+        // The last line of the file, with at most one byte left to check
+        if (i == limit) {
+            return finish(i, i, bits >= 0);
+        }
+        byte b = block[i];
+        if (b == '\n' || b == '\r') {
+            return finish(i, i + 1, bits >= 0);
+        }
+        return finish(i + 1, i + 1, (bits | b) >= 0);
+    }
+
+
+    /**
+     * Returns the line that starts at the current position and moves past
+     * it.
+     *
+     * @param end
+     *            The index after its last byte.
+     * @param next
+     *            The index of the next line.
+     * @param ascii
+     *            True if every byte of the line is ASCII.
+     * @return The view for an ASCII line, or the line decoded as a String.
+     */
+    private CharSequence finish(int end, int next, boolean ascii) {
+        int start = pos;
+        pos = next;
+        if (!ascii) {
+            return new String(block, start, end - start, charset);
+        }
+        line.bytes = block;
+        line.start = start;
+        line.length = end - start;
+        return line;
+    }
+
+
+    /**
+     * Closes the file. The mapped window is released once it is no longer
+     * referenced.
+     *
+     * @throws IOException
+     *             if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,206 @@
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the MappedLineReader class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.07
+ */
+public class MappedLineReaderTest {
+    private File file;
+
+    /**
+     * Creates the file the tests write to.
+     *
+     * @throws IOException
+     *             if it cannot be created
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("commands", ".txt");
+    }
+
+
+    /**
+     * Deletes the file.
+     */
+    @After
+    public void tearDown() {
+        file.delete();
+    }
+
+
+    /**
+     * Writes text to the file in the default charset.
+     *
+     * @param text
+     *            The text.
+     * @throws IOException
+     *             if it cannot be written
+     */
+    private void write(String text) throws IOException {
+        Files.write(file.toPath(), text.getBytes(Charset.defaultCharset()));
+    }
+
+
+    /**
+     * Checks that the reader returns the same lines as a BufferedReader.
+     *
+     * @param window
+     *            The window size to map.
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    private void assertSameLines(int window) throws IOException {
+        try (BufferedReader expected = new BufferedReader(new FileReader(
+            file)); MappedLineReader actual = new MappedLineReader(file
+                .getPath(), window)) {
+            String line;
+            while ((line = expected.readLine()) != null) {
+                CharSequence read = actual.readLine();
+                assertNotNull(read);
+                assertEquals(line, read.toString());
+                assertEquals(line.length(), read.length());
+            }
+            assertNull(actual.readLine());
+            assertNull(actual.readLine());
+        }
+    }
+
+
+    /**
+     * Tests reading lines that end each way, with a window small enough
+     * that lines and "\r\n" pairs are split across windows.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Test
+    public void testLineEnds() throws IOException {
+        write("insert 1\nTitle\r\n\r\n 0610051600 90 10 10 45\rlast");
+        for (int window = 1; window < 12; window++) {
+            assertSameLines(window);
+        }
+        assertSameLines(MappedLineReader.DEFAULT_WINDOW);
+    }
+
+
+    /**
+     * Tests empty files and files that end with a line break.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Test
+    public void testEdges() throws IOException {
+        write("");
+        assertSameLines(2);
+        write("\n");
+        assertSameLines(2);
+        write("\r\n\r");
+        assertSameLines(2);
+        write("print blocks\n");
+        assertSameLines(4);
+    }
+
+
+    /**
+     * Tests that a line with bytes outside ASCII, here UTF-8 and Latin-1
+     * ones, is decoded as FileReader decodes it.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Test
+    public void testNonAscii() throws IOException {
+        byte[] bytes = { 'c', 'a', 'f', (byte)0xC3, (byte)0xA9, ' ', (byte)0xE9,
+            '\n', 'p', 'l', 'a', 'i', 'n', '\n' };
+        Files.write(file.toPath(), bytes);
+        assertSameLines(3);
+        try (MappedLineReader reader = new MappedLineReader(file.getPath())) {
+            CharSequence first = reader.readLine();
+            assertTrue(first instanceof String);
+            assertEquals("plain", reader.readLine().toString());
+        }
+    }
+
+
+    /**
+     * Tests reading the characters of a line in place.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Test
+    public void testView() throws IOException {
+        write("  searchrange 10 20\n");
+        try (MappedLineReader reader = new MappedLineReader(file.getPath())) {
+            CharSequence line = reader.readLine();
+            assertEquals('s', line.charAt(2));
+            assertEquals("range", line.subSequence(8, 13).toString());
+            CommandTokenizer words = new CommandTokenizer(line);
+            assertTrue(words.startsWith("searchrange"));
+            words.skip();
+            assertEquals(10, words.nextInt());
+            assertEquals(20, words.nextInt());
+            try {
+                line.charAt(line.length());
+                fail("read past the line");
+            }
+            catch (IndexOutOfBoundsException e) {
+                assertNotNull(e.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * Tests random files of short lines against a BufferedReader.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    @Test
+    public void testRandom() throws IOException {
+        char[] alphabet = { 'a', ' ', '\t', '\n', '\r', '1' };
+        Random random = new Random(50);
+        for (int n = 0; n < 50; n++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(60);
+            for (int i = 0; i < length; i++) {
+                text.append(alphabet[random.nextInt(alphabet.length)]);
+            }
+            write(text.toString());
+            assertSameLines(1 + random.nextInt(8));
+        }
+    }
+
+
+    /**
+     * Tests that a tiny window is rejected.
+     *
+     * @throws IOException
+     *             if the file cannot be opened
+     */
+    @Test
+    public void testBadWindow() throws IOException {
+        try {
+            new MappedLineReader(file.getPath(), 0).close();
+            fail("accepted an empty window");
+        }
+        catch (IllegalArgumentException e) {
+            assertNotNull(e.getMessage());
+        }
+    }
+}
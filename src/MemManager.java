@@ -1,3 +1,5 @@
+import java.util.Arrays;
+
 /**
  * The MemManager class is responsible for managing memory by allocating and
  * deallocating memory blocks from a pool. It uses a doubly linked list to track
@@ -11,6 +13,7 @@ public class MemManager {
     private byte[] memoryPool;
     private FreeBlock freeBlockList;
     private int initialPoolSize;
+    private OutputSink output = OutputSink.console();
 
     /**
      * Constructs a MemManager with an initial memory pool size.
@@ -19,9 +22,23 @@ public class MemManager {
      *            The initial size of the memory pool in bytes.
      */
     public MemManager(int poolSize) {
+        this(poolSize, poolSize);
+    }
+
+
+    /**
+     * Constructs a MemManager whose first pool is larger than the amount it
+     * grows by, for callers that know their final size in advance.
+     *
+     * @param poolSize
+     *            The initial size of the memory pool in bytes.
+     * @param growthSize
+     *            The number of bytes added each time the pool expands.
+     */
+    public MemManager(int poolSize, int growthSize) {
         memoryPool = new byte[poolSize];
         freeBlockList = new FreeBlock(0, poolSize);
-        this.initialPoolSize = poolSize;
+        this.initialPoolSize = growthSize;
     }
 
 
@@ -33,18 +50,32 @@ public class MemManager {
      * @return The Handle for the data we just inserted.
      */
     public Handle insert(byte[] data) {
-        int dataSize = data.length;
+        Handle handle = reserve(data.length);
+        System.arraycopy(data, 0, memoryPool, handle.getPosition(),
+            data.length);
+        return handle;
+    }
 
-        FreeBlock block = freeBlockList.findFirstFit(dataSize);
+
+    /**
+     * Allocates a block in the memory pool without writing to it, expanding
+     * the pool if needed. The caller fills the block through
+     * {@link #getMemoryPool()}.
+     *
+     * @param dataSize
+     *            The number of bytes to allocate.
+     * @return The Handle for the block.
+     */
+    public Handle reserve(int dataSize) {
+        FreeBlock block = findFirstFit(dataSize);
 
         while (block == null) {
             expandMemoryPool();
-            System.out.println("Memory pool expanded to " + memoryPool.length
+            output.println("Memory pool expanded to " + memoryPool.length
                 + " bytes");
-            block = freeBlockList.findFirstFit(dataSize);
+            block = findFirstFit(dataSize);
         }
 
-        System.arraycopy(data, 0, memoryPool, block.getPosition(), dataSize);
         Handle handle = new Handle(block.getPosition(), dataSize);
 
         if (block.getSize() == dataSize) {
@@ -59,6 +90,35 @@ public class MemManager {
     }
 
 
+    /**
+     * Returns the memory pool itself, for writing a block allocated by
+     * {@link #reserve(int)} in place, or reading a record without copying
+     * it. The array is replaced when the pool expands, so it must be fetched
+     * again after each reserve.
+     *
+     * @return The memory pool.
+     */
+    byte[] getMemoryPool() {
+        return memoryPool;
+    }
+
+
+    /**
+     * Finds the first free block that can hold the requested size.
+     *
+     * @param dataSize
+     *            The size of the data to insert.
+     * @return The first free block that fits, or null if none does or the
+     *         pool is completely full.
+     */
+    private FreeBlock findFirstFit(int dataSize) {
+        if (freeBlockList == null) {
+            return null;
+        }
+        return freeBlockList.findFirstFit(dataSize);
+    }
+
+
     /**
      * Grows the memory pool when there is not enough space to store a new
      * record.
@@ -91,6 +151,44 @@ public class MemManager {
     }
 
 
+    /**
+     * Removes many blocks from the memory pool at once. The handles are
+     * sorted by position and adjacent ones joined, then the free list is
+     * updated in one pass.
+     *
+     * @param handles
+     *            The handles of the blocks to remove.
+     * @param count
+     *            The number of handles to use from the array.
+     */
+    public void removeAll(Handle[] handles, int count) {
+        long[] order = new long[count];
+        for (int k = 0; k < count; k++) {
+            order[k] = ((long)handles[k].getPosition() << 32) | handles[k]
+                .getSize();
+        }
+        Arrays.sort(order);
+
+        int[] positions = new int[count];
+        int[] sizes = new int[count];
+        int runs = 0;
+        for (int k = 0; k < count; k++) {
+            int position = (int)(order[k] >>> 32);
+            int size = (int)order[k];
+            if (runs > 0 && positions[runs - 1] + sizes[runs - 1] == position) {
+                sizes[runs - 1] += size;
+            }
+            else {
+                positions[runs] = position;
+                sizes[runs] = size;
+                runs++;
+            }
+        }
+        freeBlockList = FreeBlock.addFreeBlocks(freeBlockList, positions,
+            sizes, runs);
+    }
+
+
     /**
      * Retrieves data from the memory pool using the specified handle and copies
      * it into the provided space.
@@ -145,8 +243,19 @@ public class MemManager {
      * in memory.
      */
     public void printFreeBlockList() {
-        System.out.print("Freeblock List:\n");
-        FreeBlock.printFreeBlocks(freeBlockList);
+        output.print("Freeblock List:\n");
+        FreeBlock.printFreeBlocks(freeBlockList, output);
+    }
+
+
+    /**
+     * Sends the memory manager's messages to a sink instead of the console.
+     *
+     * @param sink
+     *            The sink.
+     */
+    public void setOutput(OutputSink sink) {
+        output = sink;
     }
 
 
@@ -0,0 +1,74 @@
+import org.junit.Test;
+import student.TestCase;
+
+/**
+ * MemManager test.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.26
+ */
+public class MemManagerTest extends TestCase {
+
+    /**
+     * Test inserting, reading and expanding the pool.
+     */
+    @Test
+    public void testInsertAndRead() {
+        MemManager memManager = new MemManager(8);
+        Handle first = memManager.insert(new byte[] { 1, 2, 3 });
+        Handle second = memManager.insert(new byte[] { 4, 5, 6, 7, 8, 9 });
+        assertEquals(new Handle(0, 3), first);
+        assertEquals(new Handle(3, 6), second);
+        assertEquals(16, memManager.getMemoryPoolSize());
+        assertEquals(9, memManager.read(second)[5]);
+    }
+
+
+    /**
+     * Test a pool that starts larger than it grows.
+     */
+    @Test
+    public void testGrowthSize() {
+        MemManager memManager = new MemManager(10, 4);
+        memManager.insert(new byte[10]);
+        memManager.insert(new byte[3]);
+        assertEquals(14, memManager.getMemoryPoolSize());
+    }
+
+
+    /**
+     * Test removing a batch of blocks at once.
+     */
+    @Test
+    public void testRemoveAll() {
+        MemManager memManager = new MemManager(32);
+        Handle[] handles = new Handle[4];
+        for (int i = 0; i < 4; i++) {
+            handles[i] = memManager.insert(new byte[4]);
+        }
+        memManager.removeAll(new Handle[] { handles[2], handles[0],
+            handles[1], null }, 3);
+        memManager.printFreeBlockList();
+        assertEquals("Freeblock List:\n(0,12) -> (16,16)\n", systemOut()
+            .getHistory());
+    }
+
+
+    /**
+     * Test reserving a block and filling it in place.
+     */
+    @Test
+    public void testReserve() {
+        MemManager memManager = new MemManager(4);
+        memManager.insert(new byte[] { 1, 2 });
+        Handle handle = memManager.reserve(5);
+        assertEquals(new Handle(2, 5), handle);
+        assertEquals(8, memManager.getMemoryPoolSize());
+        assertTrue(systemOut().getHistory().contains(
+            "Memory pool expanded to 8 bytes"));
+        memManager.getMemoryPool()[handle.getPosition() + 4] = 42;
+        assertEquals(42, memManager.read(handle)[4]);
+        assertEquals(1, memManager.read(new Handle(0, 2))[0]);
+    }
+}
@@ -0,0 +1,273 @@
+import java.io.PrintStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Where command results are printed. The console sink passes every call
+ * straight to whatever System.out is at the time, exactly as the code did
+ * before sinks existed, so tests that swap System.out see each line at once.
+ * <p>
+ * A buffered sink collects text in a large buffer and writes it to its
+ * stream a buffer at a time, instead of paying for a synchronized,
+ * flushing write on every line. With a background writer, full buffers are
+ * handed to a writer thread through a short queue, so the commands keep
+ * running while earlier output is written; the queue is bounded, so a slow
+ * stream holds the commands back rather than letting buffers pile up.
+ * Either way the bytes written are the same as the console sink's, in the
+ * same order. Buffered output appears only when a buffer fills or on
+ * {@link #flush()} and {@link #close()}, which wait until everything handed
+ * to the writer has been written.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.05
+ */
+public class OutputSink {
+
+    /** The default buffer size, in characters. */
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    private static final int QUEUE_SIZE = 4;
+    private static final Object STOP = new Object();
+    private static final String NEWLINE = System.lineSeparator();
+
+    private final PrintStream stream;
+    private final int bufferSize;
+    private StringBuilder buffer;
+    private final BlockingQueue<Object> queue;
+    private final Thread writer;
+
+    /**
+     * Creates a sink.
+     *
+     * @param stream
+     *            The stream to write to, or null for System.out at the time
+     *            of each write.
+     * @param bufferSize
+     *            The buffer size in characters, 0 for none.
+     * @param background
+     *            True to write full buffers on a writer thread.
+     */
+    private OutputSink(PrintStream stream, int bufferSize, boolean background) {
+        this.stream = stream;
+        this.bufferSize = bufferSize;
+        this.buffer = new StringBuilder(bufferSize);
+        if (background) {
+            queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+            writer = new Thread(this::writeQueued, "output-writer");
+            writer.setDaemon(true);
+            writer.start();
+        }
+        else {
+            queue = null;
+            writer = null;
+        }
+    }
+
+
+    /**
+     * Returns a sink that prints every call straight to System.out.
+     *
+     * @return The sink.
+     */
+    public static OutputSink console() {
+        return new OutputSink(null, 0, false);
+    }
+
+
+    /**
+     * Returns a sink that buffers its output.
+     *
+     * @param stream
+     *            The stream to write to.
+     * @param bufferSize
+     *            The buffer size in characters, at least 1.
+     * @param background
+     *            True to write full buffers on a writer thread.
+     * @return The sink.
+     * @throws IllegalArgumentException
+     *             if the buffer size is not positive
+     */
+    public static OutputSink buffered(
+        PrintStream stream,
+        int bufferSize,
+        boolean background) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        return new OutputSink(stream, bufferSize, background);
+    }
+
+
+    /**
+     * @return the stream written to
+     */
+    private PrintStream stream() {
+        return stream == null ? System.out : stream;
+    }
+
+
+    /**
+     * Prints text.
+     *
+     * @param text
+     *            The text.
+     */
+    public void print(CharSequence text) {
+        if (bufferSize == 0) {
+            stream().print(text.toString());
+            return;
+        }
+        buffer.append(text);
+        if (buffer.length() >= bufferSize) {
+            drain();
+        }
+    }
+
+
+    /**
+     * Prints text and a line separator.
+     *
+     * @param text
+     *            The text.
+     */
+    public void println(CharSequence text) {
+        if (bufferSize == 0) {
+            stream().println(text.toString());
+            return;
+        }
+        buffer.append(text).append(NEWLINE);
+        if (buffer.length() >= bufferSize) {
+            drain();
+        }
+    }
+
+
+    /**
+     * Prints a line separator.
+     */
+    public void println() {
+        println("");
+    }
+
+
+    /**
+     * Writes everything printed so far and flushes the stream.
+     */
+    public void flush() {
+        drain();
+        if (writer != null) {
+            CountDownLatch written = new CountDownLatch(1);
+            enqueue(written);
+            boolean interrupted = false;
+            while (written.getCount() > 0) {
+                try {
+                    written.await();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        else {
+            stream().flush();
+        }
+    }
+
+
+    /**
+     * Flushes the sink and stops its writer thread, if it has one. A closed
+     * sink must not be printed to again.
+     */
+    public void close() {
+        flush();
+        if (writer != null) {
+            enqueue(STOP);
+            boolean interrupted = false;
+            while (writer.isAlive()) {
+                try {
+                    writer.join();
+                }
+                catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+
+    /**
+     * Writes the buffer, or hands it to the writer thread.
+     */
+    private void drain() {
+        if (buffer.length() == 0) {
+            return;
+        }
+        if (writer == null) {
+            stream().print(buffer);
+            buffer.setLength(0);
+        }
+        else {
+            enqueue(buffer.toString());
+            buffer.setLength(0);
+        }
+    }
+
+
+    /**
+     * Puts an item on the writer's queue, waiting for room.
+     *
+     * @param item
+     *            A string to write, a latch to count down once everything
+     *            before it is written, or STOP.
+     */
+    private void enqueue(Object item) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                queue.put(item);
+                break;
+            }
+            catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * The writer thread: writes queued strings in order until stopped.
+     */
+    private void writeQueued() {
+        PrintStream out = stream();
+        while (true) {
+            Object item;
+            try {
+                item = queue.take();
+            }
+            catch (InterruptedException e) {
+                continue;
+            }
+            if (item == STOP) {
+                return;
+            }
+            if (item instanceof CountDownLatch) {
+                out.flush();
+                ((CountDownLatch)item).countDown();
+            }
+            else {
+                out.print((String)item);
+            }
+        }
+    }
+}
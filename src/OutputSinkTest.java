@@ -0,0 +1,97 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the OutputSink class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.05
+ */
+public class OutputSinkTest {
+
+    /**
+     * Prints the same lines to a sink.
+     *
+     * @param sink
+     *            The sink.
+     */
+    private void printLines(OutputSink sink) {
+        for (int i = 0; i < 2000; i++) {
+            sink.println("Record " + i);
+            sink.print(new StringBuilder("(").append(i).append(")"));
+            sink.print(" -> caf\u00e9");
+            sink.println();
+        }
+    }
+
+
+    /**
+     * Returns what the console sink writes for printLines.
+     *
+     * @return The bytes.
+     */
+    private byte[] expected() {
+        PrintStream original = System.out;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(bytes));
+        try {
+            printLines(OutputSink.console());
+        }
+        finally {
+            System.setOut(original);
+        }
+        return bytes.toByteArray();
+    }
+
+
+    /**
+     * Tests that a buffered sink writes only when full or flushed, and
+     * writes the same bytes as the console.
+     */
+    @Test
+    public void testBuffered() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(new PrintStream(bytes), 1024,
+            false);
+        sink.println("first");
+        assertEquals(0, bytes.size());
+        sink.flush();
+        assertEquals("first" + System.lineSeparator(), bytes.toString());
+
+        bytes.reset();
+        printLines(sink);
+        assertTrue(bytes.size() > 0);
+        sink.close();
+        assertArrayEquals(expected(), bytes.toByteArray());
+    }
+
+
+    /**
+     * Tests that the background writer writes the same bytes, in order.
+     */
+    @Test
+    public void testBackground() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(new PrintStream(bytes), 100,
+            true);
+        printLines(sink);
+        sink.flush();
+        assertArrayEquals(expected(), bytes.toByteArray());
+        sink.println("last");
+        sink.close();
+        assertTrue(bytes.toString().endsWith("last"
+            + System.lineSeparator()));
+    }
+
+
+    /**
+     * Tests that a buffer size below 1 is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadBufferSize() {
+        OutputSink.buffered(System.out, 0, false);
+    }
+}
@@ -0,0 +1,185 @@
+import java.io.BufferedReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.Random;
+
+/**
+ * Measures how many commands per second the command parser handles. A
+ * command file of inserts followed by searches is generated in memory, then
+ * timed two ways: tokenizing every command line as CommandParser does,
+ * without running the commands, and running the whole file through a
+ * CommandParser and Controller with the output thrown away. Each is run a
+ * few times and the best round is reported, so the JIT has warmed up.
+ * <p>
+ * Usage: {@code java ParserBenchmark [inserts] [searches] [rounds]}
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.08
+ */
+public class ParserBenchmark {
+    private static final String[] KEYWORDS = { "HCI", "Computer_Science",
+        "VT", "Virginia_Tech", "Graphics", "Parallel_Computing" };
+
+    /** Parsed values are summed here so the JIT cannot drop the work. */
+    private static long checksum;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            The number of inserts, searches and rounds, defaulting to
+     *            20000, 100000 and 5.
+     */
+    public static void main(String[] args) {
+        int inserts = args.length > 0 ? Integer.parseInt(args[0]) : 20000;
+        int searches = args.length > 1 ? Integer.parseInt(args[1]) : 100000;
+        int rounds = args.length > 2 ? Integer.parseInt(args[2]) : 5;
+        String commands = generate(inserts, searches, 2024);
+        int count = inserts + searches;
+        System.out.println("commands: " + count + " (" + inserts
+            + " inserts, " + searches + " searches)");
+        System.out.println(String.format("tokenize only: %.0f commands/s",
+            tokenizeRate(commands, count, rounds)));
+        System.out.println(String.format("parse and run: %.0f commands/s",
+            parseRate(commands, count, rounds)));
+    }
+
+
+    /**
+     * Generates a command file.
+     *
+     * @param inserts
+     *            The number of inserts, with IDs from 0.
+     * @param searches
+     *            The number of searches for random inserted IDs.
+     * @param seed
+     *            The random seed.
+     * @return The commands.
+     */
+    public static String generate(int inserts, int searches, long seed) {
+        Random random = new Random(seed);
+        StringBuilder text = new StringBuilder();
+        for (int id = 0; id < inserts; id++) {
+            text.append("insert ").append(id).append('\n');
+            text.append("  Seminar number ").append(id).append('\n');
+            text.append("0610051600 ").append(30 + random.nextInt(90))
+                .append(' ').append(random.nextInt(128)).append(' ').append(
+                    random.nextInt(128)).append(' ').append(random.nextInt(
+                        100)).append('\n');
+            for (int k = 0; k < 1 + random.nextInt(4); k++) {
+                text.append(KEYWORDS[random.nextInt(KEYWORDS.length)])
+                    .append(' ');
+            }
+            text.append('\n');
+            text.append("This seminar   covers topic ").append(id).append(
+                "\tin some\t depth for everyone  interested\n");
+        }
+        for (int i = 0; i < searches; i++) {
+            text.append("search ").append(random.nextInt(Math.max(1,
+                inserts))).append('\n');
+        }
+        return text.toString();
+    }
+
+
+    /**
+     * Times tokenizing the commands as CommandParser does, without running
+     * them.
+     *
+     * @param commands
+     *            The command file.
+     * @param count
+     *            The number of commands in it.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best rate in commands per second.
+     */
+    public static double tokenizeRate(String commands, int count, int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            checksum += tokenize(commands);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return count / (best / 1e9);
+    }
+
+
+    /**
+     * Tokenizes every command line the way CommandParser does.
+     *
+     * @param commands
+     *            The command file.
+     * @return The sum of the parsed values and lengths.
+     */
+    private static long tokenize(String commands) {
+        CommandTokenizer words = new CommandTokenizer("");
+        long sum = 0;
+        int start = 0;
+        String[] lines = new String[5];
+        int pending = 0;
+        while (start < commands.length()) {
+            int end = commands.indexOf('\n', start);
+            String line = commands.substring(start, end);
+            start = end + 1;
+            if (pending > 0) {
+                lines[5 - pending--] = line;
+                if (pending > 0) {
+                    continue;
+                }
+                sum += CommandTokenizer.trim(lines[1]).length();
+                words.reset(lines[2]);
+                sum += words.next().length() + words.nextInt()
+                    + words.nextShort() + words.nextShort() + words
+                        .nextInt();
+                sum += CommandTokenizer.split(lines[3]).length;
+                sum += CommandTokenizer.collapse(lines[4]).length();
+                continue;
+            }
+            words.reset(line);
+            if (words.startsWith("insert")) {
+                words.skip();
+                sum += words.nextInt();
+                pending = 4;
+            }
+            else if (words.startsWith("search")) {
+                words.skip();
+                sum += words.nextInt();
+            }
+        }
+        return sum;
+    }
+
+
+    /**
+     * Times running the commands through a CommandParser and a fresh
+     * Controller, with the output discarded.
+     *
+     * @param commands
+     *            The command file.
+     * @param count
+     *            The number of commands in it.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best rate in commands per second.
+     */
+    public static double parseRate(String commands, int count, int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            Controller controller = new Controller(1024, 1 << 16);
+            OutputSink sink = OutputSink.buffered(new PrintStream(
+                OutputStream.nullOutputStream()),
+                OutputSink.DEFAULT_BUFFER_SIZE, false);
+            controller.setOutput(sink);
+            CommandParser parser = new CommandParser(controller);
+            long start = System.nanoTime();
+            parser.parseCommands(new BufferedReader(new StringReader(
+                commands)));
+            sink.flush();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return count / (best / 1e9);
+    }
+}
@@ -0,0 +1,26 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the ParserBenchmark class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.08
+ */
+public class ParserBenchmarkTest {
+
+    /**
+     * Tests that the generated commands run cleanly and both rates are
+     * measured.
+     */
+    @Test
+    public void testSmallRun() {
+        String commands = ParserBenchmark.generate(50, 100, 1);
+        assertTrue(commands.startsWith("insert 0\n"));
+        assertTrue(commands.endsWith("\n"));
+        assertEquals(150, commands.split("\n", -1).length - 1 - 4 * 50);
+        assertTrue(ParserBenchmark.tokenizeRate(commands, 150, 1) > 0);
+        assertTrue(ParserBenchmark.parseRate(commands, 150, 1) > 0);
+    }
+}
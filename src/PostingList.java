@@ -0,0 +1,285 @@
+/**
+ * A sorted set of seminar IDs stored compactly: the gaps between consecutive
+ * IDs are written as variable-length integers, 7 bits per byte, into a
+ * growable byte array. Dense ID ranges cost about one byte per ID.
+ * <p>
+ * Adding an ID larger than every ID present appends to the end without
+ * decoding anything, which is the common case for increasing IDs. Any other
+ * change decodes the list, edits it and encodes it again.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class PostingList {
+    private byte[] data;
+    private int length;
+    private int count;
+    private int last;
+
+    /**
+     * Constructs an empty posting list.
+     */
+    public PostingList() {
+        data = new byte[8];
+        length = 0;
+        count = 0;
+    }
+
+
+    /**
+     * Adds an ID.
+     *
+     * @param id
+     *            The ID to add.
+     * @return True if added, false if it was already present.
+     */
+    public boolean add(int id) {
+        if (count == 0 || id > last) {
+            append(count == 0 ? id : id - last);
+            last = id;
+            count++;
+            return true;
+        }
+        int[] ids = toArray();
+        int pos = search(ids, id);
+        if (pos >= 0) {
+            return false;
+        }
+        pos = -pos - 1;
+        int[] grown = new int[ids.length + 1];
+        System.arraycopy(ids, 0, grown, 0, pos);
+        grown[pos] = id;
+        System.arraycopy(ids, pos, grown, pos + 1, ids.length - pos);
+        encode(grown, grown.length);
+        return true;
+    }
+
+
+    /**
+     * Removes an ID.
+     *
+     * @param id
+     *            The ID to remove.
+     * @return True if removed, false if it was not present.
+     */
+    public boolean remove(int id) {
+        if (count == 0 || id > last) {
+            return false;
+        }
+        int[] ids = toArray();
+        int pos = search(ids, id);
+        if (pos < 0) {
+            return false;
+        }
+        System.arraycopy(ids, pos + 1, ids, pos, ids.length - pos - 1);
+        encode(ids, ids.length - 1);
+        return true;
+    }
+
+
+    /**
+     * Returns whether an ID is present.
+     *
+     * @param id
+     *            The ID to look for.
+     * @return True if present.
+     */
+    public boolean contains(int id) {
+        return count != 0 && id <= last && search(toArray(), id) >= 0;
+    }
+
+
+    /**
+     * Returns the number of IDs in the list.
+     *
+     * @return The ID count.
+     */
+    public int size() {
+        return count;
+    }
+
+
+    /**
+     * Returns the number of bytes used to store the IDs.
+     *
+     * @return The encoded size.
+     */
+    public int encodedSize() {
+        return length;
+    }
+
+
+    /**
+     * Decodes the IDs.
+     *
+     * @return The IDs in increasing order.
+     */
+    public int[] toArray() {
+        int[] ids = new int[count];
+        int pos = 0;
+        int value = 0;
+        for (int k = 0; k < count; k++) {
+            int gap = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = data[pos++];
+                gap |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+            value += gap;
+            ids[k] = value;
+        }
+        return ids;
+    }
+
+
+    /**
+     * Appends one gap as a variable-length integer.
+     *
+     * @param gap
+     *            The gap, or the first ID, as an unsigned value.
+     */
+    private void append(int gap) {
+        if (length + 5 > data.length) {
+            byte[] grown = new byte[Math.max(data.length * 2, length + 5)];
+            System.arraycopy(data, 0, grown, 0, length);
+            data = grown;
+        }
+        while ((gap & ~0x7F) != 0) {
+            data[length++] = (byte)((gap & 0x7F) | 0x80);
+            gap >>>= 7;
+        }
+        data[length++] = (byte)gap;
+    }
+
+
+    /**
+     * Replaces the contents with the first n IDs of a sorted array.
+     *
+     * @param ids
+     *            The IDs in increasing order.
+     * @param n
+     *            The number of IDs to keep.
+     */
+    private void encode(int[] ids, int n) {
+        length = 0;
+        count = 0;
+        for (int k = 0; k < n; k++) {
+            append(k == 0 ? ids[0] : ids[k] - ids[k - 1]);
+            count++;
+        }
+        last = n == 0 ? 0 : ids[n - 1];
+    }
+
+
+    /**
+     * Binary search of a sorted array.
+     *
+     * @param ids
+     *            The IDs in increasing order.
+     * @param id
+     *            The ID to look for.
+     * @return Its index, or -(insertion point) - 1 if it is absent.
+     */
+    private static int search(int[] ids, int id) {
+        int low = 0;
+        int high = ids.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (ids[mid] < id) {
+                low = mid + 1;
+            }
+            else if (ids[mid] > id) {
+                high = mid - 1;
+            }
+            else {
+                return mid;
+            }
+        }
+        return -low - 1;
+    }
+
+
+    /**
+     * Intersects two sorted ID arrays by merging them.
+     *
+     * @param a
+     *            IDs in increasing order.
+     * @param b
+     *            IDs in increasing order.
+     * @return The IDs in both, in increasing order.
+     */
+    public static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                i++;
+            }
+            else if (a[i] > b[j]) {
+                j++;
+            }
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return trim(result, n);
+    }
+
+
+    /**
+     * Unites two sorted ID arrays by merging them.
+     *
+     * @param a
+     *            IDs in increasing order.
+     * @param b
+     *            IDs in increasing order.
+     * @return The IDs in either, in increasing order.
+     */
+    public static int[] union(int[] a, int[] b) {
+        int[] result = new int[a.length + b.length];
+        int n = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length || j < b.length) {
+            if (j == b.length || (i < a.length && a[i] < b[j])) {
+                result[n++] = a[i++];
+            }
+            else if (i == a.length || a[i] > b[j]) {
+                result[n++] = b[j++];
+            }
+            else {
+                result[n++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return trim(result, n);
+    }
+
+
+    /**
+     * Returns the first n entries of an array.
+     *
+     * @param ids
+     *            The array.
+     * @param n
+     *            The number of entries to keep.
+     * @return The array itself if it is exactly n long, else a copy.
+     */
+    private static int[] trim(int[] ids, int n) {
+        if (n == ids.length) {
+            return ids;
+        }
+        int[] result = new int[n];
+        System.arraycopy(ids, 0, result, 0, n);
+        return result;
+    }
+}
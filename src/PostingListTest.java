@@ -0,0 +1,84 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the PostingList class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class PostingListTest {
+    private PostingList list;
+
+    /**
+     * Setup method creates an empty list.
+     */
+    @Before
+    public void setUp() {
+        list = new PostingList();
+    }
+
+
+    /**
+     * Tests appending increasing IDs and the size of the encoding.
+     */
+    @Test
+    public void testAppend() {
+        for (int id = 1; id <= 100; id++) {
+            assertTrue(list.add(id));
+        }
+        assertFalse(list.add(100));
+        assertEquals(100, list.size());
+        assertEquals(100, list.encodedSize());
+        assertTrue(list.add(100 + 200));
+        assertEquals(102, list.encodedSize());
+        int[] ids = list.toArray();
+        assertEquals(101, ids.length);
+        assertEquals(1, ids[0]);
+        assertEquals(300, ids[100]);
+    }
+
+
+    /**
+     * Tests adding out of order, removing, and negative IDs.
+     */
+    @Test
+    public void testAddRemoveOutOfOrder() {
+        list.add(50);
+        list.add(-7);
+        list.add(10);
+        list.add(Integer.MAX_VALUE);
+        list.add(Integer.MIN_VALUE);
+        assertFalse(list.add(10));
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, -7, 10, 50,
+            Integer.MAX_VALUE }, list.toArray());
+        assertTrue(list.contains(-7));
+        assertFalse(list.contains(11));
+
+        assertTrue(list.remove(10));
+        assertFalse(list.remove(10));
+        assertFalse(list.remove(51));
+        assertTrue(list.remove(Integer.MAX_VALUE));
+        assertArrayEquals(new int[] { Integer.MIN_VALUE, -7, 50 }, list
+            .toArray());
+        assertTrue(list.add(60));
+        assertEquals(4, list.size());
+    }
+
+
+    /**
+     * Tests merging sorted arrays.
+     */
+    @Test
+    public void testIntersectUnion() {
+        int[] a = { 1, 3, 5, 7, 9 };
+        int[] b = { 2, 3, 4, 9, 10 };
+        assertArrayEquals(new int[] { 3, 9 }, PostingList.intersect(a, b));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 7, 9, 10 }, PostingList
+            .union(a, b));
+        assertArrayEquals(new int[0], PostingList.intersect(a, new int[0]));
+        assertArrayEquals(a, PostingList.union(new int[0], a));
+    }
+}
@@ -0,0 +1,542 @@
+import java.util.Arrays;
+
+/**
+ * A PR quadtree over the 16-bit coordinate space of seminar locations, from
+ * -32768 to 32767 on each axis, mapping points to seminar IDs. Each node
+ * covers a square; an internal node splits it into four equal quadrants. A
+ * leaf holds up to {@link #LEAF_CAPACITY} points, or any number of points at
+ * one location, and splits when it overflows. An empty quadrant is a null
+ * child, and a node whose children hold few enough points merges back into
+ * a leaf.
+ * <p>
+ * Queries descend only into quadrants that overlap the search region and
+ * count the nodes they visit, which {@link #getVisited()} reports.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class QuadTree {
+
+    /**
+     * A node of the tree: a leaf with parallel point arrays, or an internal
+     * node with four children in the order NW, NE, SW, SE.
+     */
+    private static class Node {
+        private int[] xs;
+        private int[] ys;
+        private int[] ids;
+        private int count;
+        private Node[] children;
+
+        /**
+         * Creates an empty leaf.
+         */
+        Node() {
+            xs = new int[LEAF_CAPACITY];
+            ys = new int[LEAF_CAPACITY];
+            ids = new int[LEAF_CAPACITY];
+        }
+
+
+        /**
+         * Creates an internal node with four empty quadrants.
+         *
+         * @param children
+         *            The array for the children.
+         */
+        Node(Node[] children) {
+            this.children = children;
+        }
+
+
+        /**
+         * Returns whether this node is a leaf.
+         *
+         * @return True for a leaf.
+         */
+        boolean isLeaf() {
+            return children == null;
+        }
+    }
+
+    /** The most points a leaf holds unless they share one location. */
+    static final int LEAF_CAPACITY = 3;
+
+    private static final int WORLD_MIN = Short.MIN_VALUE;
+    private static final int WORLD_SIZE = 1 << 16;
+
+    private Node root;
+    private int size;
+    private int visited;
+    private int[] found;
+    private int foundCount;
+
+    /**
+     * Inserts a point.
+     *
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @param id
+     *            The ID of the seminar at the point.
+     */
+    public void insert(int x, int y, int id) {
+        root = insert(root, WORLD_MIN, WORLD_MIN, WORLD_SIZE, x, y, id);
+        size++;
+    }
+
+
+    /**
+     * Inserts a point below a node.
+     *
+     * @param node
+     *            The node, or null for an empty quadrant.
+     * @param left
+     *            The smallest x of the node's square.
+     * @param top
+     *            The smallest y of the node's square.
+     * @param width
+     *            The side of the node's square.
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @param id
+     *            The ID.
+     * @return The node, replaced if it had to be created or split.
+     */
+    private Node insert(
+        Node node,
+        int left,
+        int top,
+        int width,
+        int x,
+        int y,
+        int id) {
+        if (node == null) {
+            node = new Node();
+        }
+        if (node.isLeaf()) {
+            if (node.count < LEAF_CAPACITY || sameLocation(node, x, y)
+                || width == 1) {
+                add(node, x, y, id);
+                return node;
+            }
+            node = split(node, left, top, width);
+        }
+        int half = width / 2;
+        int q = quadrant(left, top, half, x, y);
+        node.children[q] = insert(node.children[q], left + (q & 1) * half,
+            top + (q >> 1) * half, half, x, y, id);
+        return node;
+    }
+
+
+    /**
+     * Tests whether every point of a leaf is at a location.
+     *
+     * @param leaf
+     *            The leaf.
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @return True if all points are at (x, y).
+     */
+    private static boolean sameLocation(Node leaf, int x, int y) {
+        for (int i = 0; i < leaf.count; i++) {
+            if (leaf.xs[i] != x || leaf.ys[i] != y) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+
+    /**
+     * Appends a point to a leaf, growing its arrays if needed.
+     *
+     * @param leaf
+     *            The leaf.
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @param id
+     *            The ID.
+     */
+    private static void add(Node leaf, int x, int y, int id) {
+        if (leaf.count == leaf.ids.length) {
+            leaf.xs = Arrays.copyOf(leaf.xs, leaf.count * 2);
+            leaf.ys = Arrays.copyOf(leaf.ys, leaf.count * 2);
+            leaf.ids = Arrays.copyOf(leaf.ids, leaf.count * 2);
+        }
+        leaf.xs[leaf.count] = x;
+        leaf.ys[leaf.count] = y;
+        leaf.ids[leaf.count] = id;
+        leaf.count++;
+    }
+
+
+    /**
+     * Turns a full leaf into an internal node holding its points.
+     *
+     * @param leaf
+     *            The leaf.
+     * @param left
+     *            The smallest x of its square.
+     * @param top
+     *            The smallest y of its square.
+     * @param width
+     *            The side of its square.
+     * @return The internal node.
+     */
+    private Node split(Node leaf, int left, int top, int width) {
+        Node node = new Node(new Node[4]);
+        for (int i = 0; i < leaf.count; i++) {
+            insert(node, left, top, width, leaf.xs[i], leaf.ys[i],
+                leaf.ids[i]);
+        }
+        return node;
+    }
+
+
+    /**
+     * Returns the quadrant of a square that contains a point.
+     *
+     * @param left
+     *            The smallest x of the square.
+     * @param top
+     *            The smallest y of the square.
+     * @param half
+     *            Half the side of the square.
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @return 0 to 3 for NW, NE, SW, SE: bit 0 set for the east half, bit 1
+     *         for the south half.
+     */
+    private static int quadrant(int left, int top, int half, int x, int y) {
+        return (x >= left + half ? 1 : 0) | (y >= top + half ? 2 : 0);
+    }
+
+
+    /**
+     * Removes a point.
+     *
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @param id
+     *            The ID of the seminar at the point.
+     * @return True if removed, false if there was no such point.
+     */
+    public boolean remove(int x, int y, int id) {
+        int before = size;
+        root = remove(root, WORLD_MIN, WORLD_MIN, WORLD_SIZE, x, y, id);
+        return size < before;
+    }
+
+
+    /**
+     * Removes a point below a node, merging quadrants that get small enough.
+     *
+     * @param node
+     *            The node, or null for an empty quadrant.
+     * @param left
+     *            The smallest x of the node's square.
+     * @param top
+     *            The smallest y of the node's square.
+     * @param width
+     *            The side of the node's square.
+     * @param x
+     *            The x-coordinate.
+     * @param y
+     *            The y-coordinate.
+     * @param id
+     *            The ID.
+     * @return The node, null if it became empty, or a leaf if it merged.
+     */
+    private Node remove(
+        Node node,
+        int left,
+        int top,
+        int width,
+        int x,
+        int y,
+        int id) {
+        if (node == null) {
+            return null;
+        }
+        if (node.isLeaf()) {
+            for (int i = 0; i < node.count; i++) {
+                if (node.ids[i] == id && node.xs[i] == x && node.ys[i] == y) {
+                    node.count--;
+                    node.xs[i] = node.xs[node.count];
+                    node.ys[i] = node.ys[node.count];
+                    node.ids[i] = node.ids[node.count];
+                    size--;
+                    break;
+                }
+            }
+            return node.count == 0 ? null : node;
+        }
+        int half = width / 2;
+        int q = quadrant(left, top, half, x, y);
+        node.children[q] = remove(node.children[q], left + (q & 1) * half,
+            top + (q >> 1) * half, half, x, y, id);
+        return merge(node);
+    }
+
+
+    /**
+     * Collapses an internal node whose children are all leaves, if their
+     * points would fit in one leaf or all lie in one quadrant.
+     *
+     * @param node
+     *            An internal node.
+     * @return The node, a leaf with its points, or null if it is empty.
+     */
+    private static Node merge(Node node) {
+        int total = 0;
+        Node only = null;
+        int nonEmpty = 0;
+        for (Node child : node.children) {
+            if (child != null) {
+                if (!child.isLeaf()) {
+                    return node;
+                }
+                total += child.count;
+                only = child;
+                nonEmpty++;
+            }
+        }
+        if (nonEmpty <= 1) {
+            // A leaf's points do not depend on its square, so it moves up
+            return only;
+        }
+        if (total > LEAF_CAPACITY) {
+            return node;
+        }
+        Node leaf = new Node();
+        for (Node child : node.children) {
+            if (child != null) {
+                for (int i = 0; i < child.count; i++) {
+                    add(leaf, child.xs[i], child.ys[i], child.ids[i]);
+                }
+            }
+        }
+        return leaf;
+    }
+
+
+    /**
+     * Finds the points in a rectangle, including its top and left edges but
+     * not its bottom and right edges.
+     *
+     * @param x
+     *            The left edge.
+     * @param y
+     *            The top edge.
+     * @param w
+     *            The width.
+     * @param h
+     *            The height.
+     * @return The IDs of the points in the rectangle, in increasing order.
+     */
+    public int[] searchRect(int x, int y, int w, int h) {
+        startSearch();
+        searchRect(root, WORLD_MIN, WORLD_MIN, WORLD_SIZE, x, y, (long)x + w,
+            (long)y + h);
+        return finishSearch();
+    }
+
+
+    /**
+     * Collects the points of a node that lie in a rectangle.
+     *
+     * @param node
+     *            The node, or null.
+     * @param left
+     *            The smallest x of the node's square.
+     * @param top
+     *            The smallest y of the node's square.
+     * @param width
+     *            The side of the node's square.
+     * @param x
+     *            The left edge of the rectangle.
+     * @param y
+     *            The top edge of the rectangle.
+     * @param right
+     *            The first x past the rectangle.
+     * @param bottom
+     *            The first y past the rectangle.
+     */
+    private void searchRect(
+        Node node,
+        int left,
+        int top,
+        int width,
+        int x,
+        int y,
+        long right,
+        long bottom) {
+        if (node == null || left >= right || top >= bottom
+            || left + width <= x || top + width <= y) {
+            return;
+        }
+        visited++;
+        if (node.isLeaf()) {
+            for (int i = 0; i < node.count; i++) {
+                if (node.xs[i] >= x && node.xs[i] < right && node.ys[i] >= y
+                    && node.ys[i] < bottom) {
+                    collect(node.ids[i]);
+                }
+            }
+            return;
+        }
+        int half = width / 2;
+        for (int q = 0; q < 4; q++) {
+            searchRect(node.children[q], left + (q & 1) * half, top + (q >> 1)
+                * half, half, x, y, right, bottom);
+        }
+    }
+
+
+    /**
+     * Finds the points within a distance of a location, including those
+     * exactly at that distance.
+     *
+     * @param x
+     *            The x-coordinate of the center.
+     * @param y
+     *            The y-coordinate of the center.
+     * @param radius
+     *            The distance.
+     * @return The IDs of the points in the circle, in increasing order. A
+     *         negative radius finds nothing.
+     */
+    public int[] searchRadius(int x, int y, int radius) {
+        startSearch();
+        if (radius >= 0) {
+            searchRadius(root, WORLD_MIN, WORLD_MIN, WORLD_SIZE, x, y,
+                (long)radius * radius);
+        }
+        return finishSearch();
+    }
+
+
+    /**
+     * Collects the points of a node that lie in a circle.
+     *
+     * @param node
+     *            The node, or null.
+     * @param left
+     *            The smallest x of the node's square.
+     * @param top
+     *            The smallest y of the node's square.
+     * @param width
+     *            The side of the node's square.
+     * @param x
+     *            The x-coordinate of the center.
+     * @param y
+     *            The y-coordinate of the center.
+     * @param radiusSquared
+     *            The square of the radius.
+     */
+    private void searchRadius(
+        Node node,
+        int left,
+        int top,
+        int width,
+        int x,
+        int y,
+        long radiusSquared) {
+        if (node == null) {
+            return;
+        }
+        // Distance from the center to the nearest point of the square
+        long dx = Math.max(0, Math.max(left - x, x - (left + width - 1)));
+        long dy = Math.max(0, Math.max(top - y, y - (top + width - 1)));
+        if (dx * dx + dy * dy > radiusSquared) {
+            return;
+        }
+        visited++;
+        if (node.isLeaf()) {
+            for (int i = 0; i < node.count; i++) {
+                long px = node.xs[i] - x;
+                long py = node.ys[i] - y;
+                if (px * px + py * py <= radiusSquared) {
+                    collect(node.ids[i]);
+                }
+            }
+            return;
+        }
+        int half = width / 2;
+        for (int q = 0; q < 4; q++) {
+            searchRadius(node.children[q], left + (q & 1) * half, top + (q
+                >> 1) * half, half, x, y, radiusSquared);
+        }
+    }
+
+
+    /**
+     * Resets the result buffer and node count for a new query.
+     */
+    private void startSearch() {
+        visited = 0;
+        found = new int[8];
+        foundCount = 0;
+    }
+
+
+    /**
+     * Adds an ID to the result of the current query.
+     *
+     * @param id
+     *            The ID.
+     */
+    private void collect(int id) {
+        if (foundCount == found.length) {
+            found = Arrays.copyOf(found, foundCount * 2);
+        }
+        found[foundCount++] = id;
+    }
+
+
+    /**
+     * Returns the result of the current query.
+     *
+     * @return The IDs found, in increasing order.
+     */
+    private int[] finishSearch() {
+        int[] result = Arrays.copyOf(found, foundCount);
+        Arrays.sort(result);
+        found = null;
+        return result;
+    }
+
+
+    /**
+     * Returns the number of nodes the last query visited.
+     *
+     * @return The visited node count.
+     */
+    public int getVisited() {
+        return visited;
+    }
+
+
+    /**
+     * Returns the number of points in the tree.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,128 @@
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the QuadTree class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.27
+ */
+public class QuadTreeTest {
+    private QuadTree tree;
+
+    /**
+     * Setup method creates an empty tree.
+     */
+    @Before
+    public void setUp() {
+        tree = new QuadTree();
+    }
+
+
+    /**
+     * Tests rectangle and radius queries on a few points, including the
+     * edges of the coordinate space.
+     */
+    @Test
+    public void testSearch() {
+        tree.insert(10, 10, 1);
+        tree.insert(20, 10, 2);
+        tree.insert(10, 30, 3);
+        tree.insert(-32768, 32767, 4);
+        tree.insert(32767, -32768, 5);
+        assertEquals(5, tree.size());
+
+        assertArrayEquals(new int[] { 1, 2 }, tree.searchRect(10, 10, 11,
+            10));
+        assertArrayEquals(new int[] { 1 }, tree.searchRect(10, 10, 10, 10));
+        assertArrayEquals(new int[] { 4 }, tree.searchRect(-32768, 32767, 1,
+            1));
+        assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, tree.searchRect(-32768,
+            -32768, 65536, 65536));
+
+        assertArrayEquals(new int[] { 1, 2 }, tree.searchRadius(15, 10, 5));
+        assertArrayEquals(new int[] { 1, 2, 3 }, tree.searchRadius(10, 20,
+            15));
+        assertArrayEquals(new int[0], tree.searchRadius(10, 10, -1));
+        assertEquals(0, tree.getVisited());
+        assertArrayEquals(new int[] { 1, 2, 3 }, tree.searchRadius(0, 0,
+            46340));
+        assertEquals(5, tree.searchRadius(0, 0, 46341).length);
+    }
+
+
+    /**
+     * Tests that many seminars at one location share a leaf and that removes
+     * merge quadrants back together.
+     */
+    @Test
+    public void testSameLocationAndRemove() {
+        for (int id = 0; id < 10; id++) {
+            tree.insert(5, 5, id);
+        }
+        assertEquals(10, tree.searchRadius(5, 5, 0).length);
+        assertEquals(1, tree.getVisited());
+
+        tree.insert(6, 6, 10);
+        assertEquals(11, tree.searchRect(0, 0, 10, 10).length);
+        assertTrue(tree.getVisited() > 1);
+
+        assertTrue(tree.remove(6, 6, 10));
+        assertFalse(tree.remove(6, 6, 10));
+        assertFalse(tree.remove(5, 6, 3));
+        tree.searchRadius(5, 5, 0);
+        assertEquals(1, tree.getVisited());
+        for (int id = 0; id < 10; id++) {
+            assertTrue(tree.remove(5, 5, id));
+        }
+        assertEquals(0, tree.size());
+        tree.searchRect(-32768, -32768, 65536, 65536);
+        assertEquals(0, tree.getVisited());
+    }
+
+
+    /**
+     * Tests queries against a brute force scan over random points, and that
+     * a small query visits few nodes.
+     */
+    @Test
+    public void testRandomPoints() {
+        Random random = new Random(3114);
+        int n = 2000;
+        int[] xs = new int[n];
+        int[] ys = new int[n];
+        for (int id = 0; id < n; id++) {
+            xs[id] = random.nextInt(2000) - 1000;
+            ys[id] = random.nextInt(2000) - 1000;
+            tree.insert(xs[id], ys[id], id);
+        }
+        for (int id = 0; id < n; id += 3) {
+            tree.remove(xs[id], ys[id], id);
+        }
+
+        int[] found = tree.searchRadius(100, -200, 150);
+        int expected = 0;
+        for (int id = 0; id < n; id++) {
+            long dx = xs[id] - 100;
+            long dy = ys[id] + 200;
+            if (id % 3 != 0 && dx * dx + dy * dy <= 150 * 150) {
+                assertEquals(id, found[expected++]);
+            }
+        }
+        assertEquals(expected, found.length);
+        assertTrue(tree.getVisited() < n / 10);
+
+        found = tree.searchRect(-500, 0, 300, 200);
+        expected = 0;
+        for (int id = 0; id < n; id++) {
+            if (id % 3 != 0 && xs[id] >= -500 && xs[id] < -200 && ys[id] >= 0
+                && ys[id] < 200) {
+                assertEquals(id, found[expected++]);
+            }
+        }
+        assertEquals(expected, found.length);
+    }
+}
@@ -0,0 +1,358 @@
+/**
+ * A conjunction of predicates over the seminar indexes, as given to the
+ * "query" command. Each predicate is one of:
+ * <ul>
+ * <li>keyword K: the seminar lists keyword K</li>
+ * <li>id LOW HIGH: the ID lies in the range</li>
+ * <li>cost LOW HIGH: the cost lies in the range</li>
+ * <li>date FROM TO: the yyMMddhhmm date lies in the range</li>
+ * <li>radius X Y R: the location is within R of (X, Y)</li>
+ * </ul>
+ * A record matches the query if it satisfies every predicate.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class Query {
+
+    /**
+     * One predicate of a query. Ranges use low and high; a radius uses x, y
+     * and radius.
+     */
+    public static class Predicate {
+        private final int kind;
+        private final String keyword;
+        private final int low;
+        private final int high;
+        private final int x;
+        private final int y;
+        private final int radius;
+        private final String text;
+
+        /**
+         * Creates a predicate.
+         *
+         * @param kind
+         *            One of the kind constants of {@link Query}.
+         * @param keyword
+         *            The keyword, for a keyword predicate.
+         * @param low
+         *            The smallest value, for a range.
+         * @param high
+         *            The largest value, for a range.
+         * @param x
+         *            The x-coordinate, for a radius.
+         * @param y
+         *            The y-coordinate, for a radius.
+         * @param radius
+         *            The distance, for a radius.
+         * @param text
+         *            The predicate as written in the command.
+         */
+        Predicate(
+            int kind,
+            String keyword,
+            int low,
+            int high,
+            int x,
+            int y,
+            int radius,
+            String text) {
+            this.kind = kind;
+            this.keyword = keyword;
+            this.low = low;
+            this.high = high;
+            this.x = x;
+            this.y = y;
+            this.radius = radius;
+            this.text = text;
+        }
+
+
+        /**
+         * @return the kind of predicate
+         */
+        public int getKind() {
+            return kind;
+        }
+
+
+        /**
+         * @return the keyword of a keyword predicate
+         */
+        public String getKeyword() {
+            return keyword;
+        }
+
+
+        /**
+         * @return the smallest value of a range, a date as its index key
+         */
+        public int getLow() {
+            return low;
+        }
+
+
+        /**
+         * @return the largest value of a range, a date as its index key
+         */
+        public int getHigh() {
+            return high;
+        }
+
+
+        /**
+         * @return the x-coordinate of a radius
+         */
+        public int getX() {
+            return x;
+        }
+
+
+        /**
+         * @return the y-coordinate of a radius
+         */
+        public int getY() {
+            return y;
+        }
+
+
+        /**
+         * @return the distance of a radius
+         */
+        public int getRadius() {
+            return radius;
+        }
+
+
+        /**
+         * @return the predicate as written in the command
+         */
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    /** A keyword predicate. */
+    public static final int KEYWORD = 0;
+    /** An ID range predicate. */
+    public static final int ID = 1;
+    /** A cost range predicate. */
+    public static final int COST = 2;
+    /** A date range predicate. */
+    public static final int DATE = 3;
+    /** A location radius predicate. */
+    public static final int RADIUS = 4;
+
+    private Predicate[] predicates;
+    private int count;
+
+    /**
+     * Constructs a query with no predicates.
+     */
+    public Query() {
+        predicates = new Predicate[4];
+        count = 0;
+    }
+
+
+    /**
+     * Parses the predicates of a query command.
+     *
+     * @param parts
+     *            The words of the command.
+     * @param start
+     *            The index of the first word of the first predicate.
+     * @return The query.
+     * @throws IllegalArgumentException
+     *             if a predicate is unknown, incomplete or malformed
+     */
+    public static Query parse(String[] parts, int start) {
+        Query query = new Query();
+        int i = start;
+        while (i < parts.length) {
+            String name = parts[i];
+            int arguments;
+            switch (name) {
+                case "keyword":
+                    arguments = 1;
+                    break;
+                case "radius":
+                    arguments = 3;
+                    break;
+                case "id":
+                case "cost":
+                case "date":
+                    arguments = 2;
+                    break;
+                default:
+                    throw new IllegalArgumentException("bad predicate "
+                        + name);
+            }
+            if (i + arguments >= parts.length) {
+                throw new IllegalArgumentException("incomplete predicate "
+                    + name);
+            }
+            String[] args = new String[arguments];
+            System.arraycopy(parts, i + 1, args, 0, arguments);
+            switch (name) {
+                case "keyword":
+                    query.addKeyword(args[0]);
+                    break;
+                case "radius":
+                    query.addRadius(number(args[0]), number(args[1]), number(
+                        args[2]));
+                    break;
+                case "id":
+                    query.addIdRange(number(args[0]), number(args[1]));
+                    break;
+                case "cost":
+                    query.addCostRange(number(args[0]), number(args[1]));
+                    break;
+                default:
+                    query.addDateRange(args[0], args[1]);
+                    break;
+            }
+            i += arguments + 1;
+        }
+        return query;
+    }
+
+
+    /**
+     * Parses a number in a predicate.
+     *
+     * @param word
+     *            The word.
+     * @return Its value.
+     * @throws IllegalArgumentException
+     *             if it is not a number
+     */
+    private static int number(String word) {
+        try {
+            return Integer.parseInt(word);
+        }
+        catch (NumberFormatException e) {
+            throw new IllegalArgumentException("bad number " + word);
+        }
+    }
+
+
+    /**
+     * Adds a keyword predicate.
+     *
+     * @param keyword
+     *            The keyword.
+     */
+    public void addKeyword(String keyword) {
+        add(new Predicate(KEYWORD, keyword, 0, 0, 0, 0, 0, "keyword "
+            + keyword));
+    }
+
+
+    /**
+     * Adds an ID range predicate.
+     *
+     * @param low
+     *            The smallest ID.
+     * @param high
+     *            The largest ID.
+     */
+    public void addIdRange(int low, int high) {
+        add(new Predicate(ID, null, low, high, 0, 0, 0, "id " + low + " to "
+            + high));
+    }
+
+
+    /**
+     * Adds a cost range predicate.
+     *
+     * @param low
+     *            The smallest cost.
+     * @param high
+     *            The largest cost.
+     */
+    public void addCostRange(int low, int high) {
+        add(new Predicate(COST, null, low, high, 0, 0, 0, "cost " + low
+            + " to " + high));
+    }
+
+
+    /**
+     * Adds a date range predicate.
+     *
+     * @param from
+     *            The earliest date, as yyMMddhhmm.
+     * @param to
+     *            The latest date, as yyMMddhhmm.
+     * @throws IllegalArgumentException
+     *             if a date is malformed
+     */
+    public void addDateRange(String from, String to) {
+        int low = RangeIndex.dateKey(from);
+        int high = RangeIndex.dateKey(to);
+        if (low < 0 || high < 0) {
+            throw new IllegalArgumentException("bad date " + (low < 0
+                ? from
+                : to));
+        }
+        add(new Predicate(DATE, null, low, high, 0, 0, 0, "date " + from
+            + " to " + to));
+    }
+
+
+    /**
+     * Adds a location radius predicate.
+     *
+     * @param x
+     *            The x-coordinate of the center.
+     * @param y
+     *            The y-coordinate of the center.
+     * @param radius
+     *            The distance.
+     */
+    public void addRadius(int x, int y, int radius) {
+        add(new Predicate(RADIUS, null, 0, 0, x, y, radius, "radius "
+            + radius + " around " + x + ", " + y));
+    }
+
+
+    /**
+     * Appends a predicate, growing the array if needed.
+     *
+     * @param predicate
+     *            The predicate.
+     */
+    private void add(Predicate predicate) {
+        if (count == predicates.length) {
+            Predicate[] grown = new Predicate[count * 2];
+            System.arraycopy(predicates, 0, grown, 0, count);
+            predicates = grown;
+        }
+        predicates[count++] = predicate;
+    }
+
+
+    /**
+     * Returns one predicate.
+     *
+     * @param index
+     *            Its position, in the order added.
+     * @return The predicate.
+     */
+    public Predicate get(int index) {
+        return predicates[index];
+    }
+
+
+    /**
+     * Returns the number of predicates.
+     *
+     * @return The predicate count.
+     */
+    public int size() {
+        return count;
+    }
+}
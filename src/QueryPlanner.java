@@ -0,0 +1,201 @@
+import java.util.Arrays;
+
+/**
+ * Evaluates a {@link Query} against the seminar indexes without reading any
+ * records. The planner estimates how many seminars each predicate selects,
+ * then starts from the most selective one and intersects the sorted ID lists
+ * of the rest in order of increasing estimate, stopping as soon as nothing is
+ * left.
+ * <p>
+ * Keyword estimates are exact posting list lengths. Range estimates count
+ * the index entries in range, but stop once they pass the best estimate so
+ * far, so a wide range costs no more than the narrowest one; the plan marks
+ * such an estimate with a "+". A radius is estimated by running the search,
+ * whose result is then reused.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class QueryPlanner {
+    private final SkipList<Integer, Handle> idIndex;
+    private final KeywordIndex keywordIndex;
+    private final QuadTree locationIndex;
+    private final RangeIndex costIndex;
+    private final RangeIndex dateIndex;
+
+    /**
+     * Constructs a planner over a set of indexes.
+     *
+     * @param idIndex
+     *            The ordered ID index.
+     * @param keywordIndex
+     *            The keyword index.
+     * @param locationIndex
+     *            The location index.
+     * @param costIndex
+     *            The cost index.
+     * @param dateIndex
+     *            The date index, keyed by {@link RangeIndex#dateKey(String)}.
+     */
+    public QueryPlanner(
+        SkipList<Integer, Handle> idIndex,
+        KeywordIndex keywordIndex,
+        QuadTree locationIndex,
+        RangeIndex costIndex,
+        RangeIndex dateIndex) {
+        this.idIndex = idIndex;
+        this.keywordIndex = keywordIndex;
+        this.locationIndex = locationIndex;
+        this.costIndex = costIndex;
+        this.dateIndex = dateIndex;
+    }
+
+
+    /**
+     * Finds the seminars that match every predicate of a query.
+     *
+     * @param query
+     *            The query, with at least one predicate.
+     * @param plan
+     *            Receives one line per predicate, in the order evaluated,
+     *            with its estimate and the candidates left after it.
+     * @return The matching IDs in increasing order.
+     */
+    public int[] execute(Query query, StringBuilder plan) {
+        int n = query.size();
+        int[] estimates = new int[n];
+        boolean[] capped = new boolean[n];
+        int[][] cached = new int[n][];
+        int best = Integer.MAX_VALUE;
+
+        // Exact, cheap estimates first, so they can cap the range counts
+        for (int phase = 0; phase < 3; phase++) {
+            for (int i = 0; i < n; i++) {
+                Query.Predicate predicate = query.get(i);
+                if (phase(predicate.getKind()) != phase) {
+                    continue;
+                }
+                if (predicate.getKind() == Query.RADIUS) {
+                    cached[i] = candidates(predicate);
+                    estimates[i] = cached[i].length;
+                }
+                else {
+                    int limit = best == Integer.MAX_VALUE ? best : best + 1;
+                    estimates[i] = estimate(predicate, limit);
+                    capped[i] = predicate.getKind() != Query.KEYWORD
+                        && estimates[i] == limit;
+                }
+                best = Math.min(best, estimates[i]);
+            }
+        }
+
+        // Order by estimate, keeping the written order among ties
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            int j = i - 1;
+            while (j >= 0 && estimates[order[j]] > estimates[i]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = i;
+        }
+
+        int[] result = null;
+        for (int step = 0; step < n; step++) {
+            int i = order[step];
+            Query.Predicate predicate = query.get(i);
+            plan.append(step + 1).append(". ").append(predicate).append(
+                ": estimate ").append(estimates[i]);
+            if (capped[i]) {
+                plan.append("+");
+            }
+            if (result != null && result.length == 0) {
+                plan.append(", skipped\n");
+                continue;
+            }
+            int[] ids = cached[i] != null ? cached[i] : candidates(predicate);
+            result = result == null ? ids : PostingList.intersect(result, ids);
+            plan.append(", ").append(result.length).append(" candidates\n");
+        }
+        return result;
+    }
+
+
+    /**
+     * Returns when a kind of predicate is estimated: keywords first, then
+     * ranges, then a radius.
+     *
+     * @param kind
+     *            The kind of predicate.
+     * @return 0, 1 or 2.
+     */
+    private static int phase(int kind) {
+        if (kind == Query.KEYWORD) {
+            return 0;
+        }
+        return kind == Query.RADIUS ? 2 : 1;
+    }
+
+
+    /**
+     * Estimates how many seminars a keyword or range predicate selects.
+     *
+     * @param predicate
+     *            The predicate.
+     * @param limit
+     *            The count at which a range count may stop.
+     * @return The estimate.
+     */
+    private int estimate(Query.Predicate predicate, int limit) {
+        switch (predicate.getKind()) {
+            case Query.KEYWORD:
+                return keywordIndex.count(predicate.getKeyword());
+            case Query.ID:
+                return idIndex.countRange(predicate.getLow(), predicate
+                    .getHigh(), limit);
+            case Query.COST:
+                return costIndex.count(predicate.getLow(), predicate
+                    .getHigh(), limit);
+            default:
+                return dateIndex.count(predicate.getLow(), predicate
+                    .getHigh(), limit);
+        }
+    }
+
+
+    /**
+     * Finds the seminars a predicate selects.
+     *
+     * @param predicate
+     *            The predicate.
+     * @return Their IDs in increasing order.
+     */
+    private int[] candidates(Query.Predicate predicate) {
+        int low = predicate.getLow();
+        int high = predicate.getHigh();
+        switch (predicate.getKind()) {
+            case Query.KEYWORD:
+                return keywordIndex.find(predicate.getKeyword());
+            case Query.RADIUS:
+                return locationIndex.searchRadius(predicate.getX(), predicate
+                    .getY(), predicate.getRadius());
+            case Query.ID:
+                DLList<KVPair<Integer, Handle>> found = idIndex.range(low,
+                    high);
+                int[] ids = new int[found.size()];
+                int k = 0;
+                for (KVPair<Integer, Handle> pair : found) {
+                    ids[k++] = pair.getKey();
+                }
+                return ids;
+            default:
+                RangeIndex index = predicate.getKind() == Query.COST
+                    ? costIndex
+                    : dateIndex;
+                int[] sorted = index.find(low, high);
+                Arrays.sort(sorted);
+                return sorted;
+        }
+    }
+}
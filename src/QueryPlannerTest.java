@@ -0,0 +1,90 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the QueryPlanner class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class QueryPlannerTest {
+    private QueryPlanner planner;
+    private StringBuilder plan;
+
+    /**
+     * Setup method indexes 100 seminars: cost equal to the ID, keyword
+     * "even" on even IDs, "rare" on IDs 10 and 20, dates a day apart and
+     * locations along the diagonal.
+     */
+    @Before
+    public void setUp() {
+        SkipList<Integer, Handle> ids = new SkipList<>();
+        KeywordIndex keywords = new KeywordIndex();
+        QuadTree locations = new QuadTree();
+        RangeIndex costs = new RangeIndex();
+        RangeIndex dates = new RangeIndex();
+        for (int id = 1; id <= 100; id++) {
+            ids.insert(id, new Handle(id, 1));
+            if (id % 2 == 0) {
+                keywords.add(new String[] { "even" }, id);
+            }
+            if (id == 10 || id == 20) {
+                keywords.add(new String[] { "rare" }, id);
+            }
+            locations.insert(id, id, id);
+            costs.add(id, id);
+            dates.add(RangeIndex.dateKey("0610010000") + id * 24 * 60, id);
+        }
+        planner = new QueryPlanner(ids, keywords, locations, costs, dates);
+        plan = new StringBuilder();
+    }
+
+
+    /**
+     * Tests that the most selective predicate runs first and that range
+     * counts stop early.
+     */
+    @Test
+    public void testPlanOrder() {
+        Query query = new Query();
+        query.addCostRange(1, 60);
+        query.addKeyword("even");
+        query.addKeyword("rare");
+        query.addIdRange(15, 30);
+        assertArrayEquals(new int[] { 20 }, planner.execute(query, plan));
+        assertEquals("1. keyword rare: estimate 2, 2 candidates\n"
+            + "2. cost 1 to 60: estimate 3+, 2 candidates\n"
+            + "3. id 15 to 30: estimate 3+, 1 candidates\n"
+            + "4. keyword even: estimate 50, 1 candidates\n", plan
+                .toString());
+    }
+
+
+    /**
+     * Tests radius and date predicates and that steps after an empty result
+     * are skipped.
+     */
+    @Test
+    public void testRadiusDateAndSkip() {
+        Query query = new Query();
+        query.addRadius(50, 50, 3);
+        query.addDateRange("0611080000", "0612312359");
+        assertArrayEquals(new int[] { 48, 49, 50, 51, 52 }, planner.execute(
+            query, plan));
+        assertTrue(plan.toString().startsWith(
+            "1. radius 3 around 50, 50: estimate 5, 5 candidates\n"));
+
+        plan = new StringBuilder();
+        query = new Query();
+        query.addKeyword("missing");
+        query.addRadius(50, 50, 3);
+        query.addCostRange(1, 100);
+        assertArrayEquals(new int[0], planner.execute(query, plan));
+        assertEquals("1. keyword missing: estimate 0, 0 candidates\n"
+            + "2. cost 1 to 100: estimate 1+, skipped\n"
+            + "3. radius 3 around 50, 50: estimate 5, skipped\n", plan
+                .toString());
+    }
+}
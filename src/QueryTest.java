@@ -0,0 +1,58 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the Query class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class QueryTest {
+
+    /**
+     * Tests parsing every kind of predicate.
+     */
+    @Test
+    public void testParse() {
+        Query query = Query.parse(("query keyword VT cost 10 50 date "
+            + "0610051600 0612312359 radius 5 -6 7 id 1 9").split(" "), 1);
+        assertEquals(5, query.size());
+        assertEquals(Query.KEYWORD, query.get(0).getKind());
+        assertEquals("VT", query.get(0).getKeyword());
+        assertEquals("keyword VT", query.get(0).toString());
+        assertEquals(Query.COST, query.get(1).getKind());
+        assertEquals(50, query.get(1).getHigh());
+        assertEquals(RangeIndex.dateKey("0610051600"), query.get(2)
+            .getLow());
+        assertEquals("date 0610051600 to 0612312359", query.get(2)
+            .toString());
+        assertEquals(-6, query.get(3).getY());
+        assertEquals(7, query.get(3).getRadius());
+        assertEquals("radius 7 around 5, -6", query.get(3).toString());
+        assertEquals(Query.ID, query.get(4).getKind());
+        assertEquals(0, Query.parse(new String[] { "query" }, 1).size());
+    }
+
+
+    /**
+     * Tests that malformed predicates are rejected with a reason.
+     */
+    @Test
+    public void testParseErrors() {
+        String[] bad = { "query color red", "query cost 10", "query id 1 x",
+            "query date 0610051600 061005", "query radius 1 2" };
+        String[] reasons = { "bad predicate color", "incomplete predicate "
+            + "cost", "bad number x", "bad date 061005",
+            "incomplete predicate radius" };
+        for (int i = 0; i < bad.length; i++) {
+            try {
+                Query.parse(bad[i].split(" "), 1);
+                fail(bad[i]);
+            }
+            catch (IllegalArgumentException e) {
+                assertEquals(reasons[i], e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+/**
+ * A secondary index from an int field of the seminars, such as the cost or
+ * the date, to their IDs, answering range queries without reading any
+ * records. Entries are kept in a {@link SkipList} under a composite key: the
+ * field value in the high 32 bits and the ID in the low 32 bits, so seminars
+ * sharing a value stay distinct and come out in ID order.
+ * <p>
+ * Dates come in the yyMMddhhmm form used by the command files and are parsed
+ * once by {@link #dateKey(String)} into a count of minutes, an int that
+ * orders the same way the digit strings do.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class RangeIndex {
+    private final SkipList<Long, Integer> entries;
+
+    /** The number of digits in a date. */
+    static final int DATE_LENGTH = 10;
+
+    /**
+     * Constructs an empty index.
+     */
+    public RangeIndex() {
+        entries = new SkipList<>();
+    }
+
+
+    /**
+     * Returns the composite key of an entry.
+     *
+     * @param value
+     *            The field value.
+     * @param id
+     *            The seminar ID.
+     * @return The value in the high bits, the ID in the low bits with its
+     *         sign bit flipped so that negative IDs sort first.
+     */
+    private static long key(int value, int id) {
+        return ((long)value << 32) | ((id ^ Integer.MIN_VALUE) & 0xFFFFFFFFL);
+    }
+
+
+    /**
+     * Indexes a seminar.
+     *
+     * @param value
+     *            The seminar's field value.
+     * @param id
+     *            The seminar's ID.
+     */
+    public void add(int value, int id) {
+        entries.insert(key(value, id), id);
+    }
+
+
+    /**
+     * Removes a seminar.
+     *
+     * @param value
+     *            The seminar's field value.
+     * @param id
+     *            The seminar's ID.
+     * @return True if removed, false if it was not indexed with that value.
+     */
+    public boolean remove(int value, int id) {
+        return entries.remove(key(value, id)) != null;
+    }
+
+
+    /**
+     * Finds the seminars whose field lies in a range.
+     *
+     * @param low
+     *            The smallest value to include.
+     * @param high
+     *            The largest value to include.
+     * @return The IDs ordered by field value, then by ID.
+     */
+    public int[] find(int low, int high) {
+        if (low > high) {
+            return new int[0];
+        }
+        DLList<KVPair<Long, Integer>> found = entries.range(key(low,
+            Integer.MIN_VALUE), key(high, Integer.MAX_VALUE));
+        int[] ids = new int[found.size()];
+        int n = 0;
+        for (KVPair<Long, Integer> pair : found) {
+            ids[n++] = pair.getValue();
+        }
+        return ids;
+    }
+
+
+    /**
+     * Counts the seminars whose field lies in a range, up to a limit.
+     *
+     * @param low
+     *            The smallest value to include.
+     * @param high
+     *            The largest value to include.
+     * @param limit
+     *            The count at which to stop.
+     * @return The number of matching seminars, or limit if there are at
+     *         least that many.
+     */
+    public int count(int low, int high, int limit) {
+        if (low > high) {
+            return 0;
+        }
+        return entries.countRange(key(low, Integer.MIN_VALUE), key(high,
+            Integer.MAX_VALUE), limit);
+    }
+
+
+    /**
+     * Returns the number of seminars indexed.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Parses a yyMMddhhmm date into its index key: minutes since the start of
+     * year 00, counting every month as 31 days so that the key is a simple
+     * mixed-radix number.
+     *
+     * @param date
+     *            The date, ten digits.
+     * @return The key, or -1 if the date is not ten digits or a field is out
+     *         of range.
+     */
+    public static int dateKey(String date) {
+        if (date.length() != DATE_LENGTH) {
+            return -1;
+        }
+        for (int i = 0; i < DATE_LENGTH; i++) {
+            char c = date.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+        }
+        int year = twoDigits(date, 0);
+        int month = twoDigits(date, 2);
+        int day = twoDigits(date, 4);
+        int hour = twoDigits(date, 6);
+        int minute = twoDigits(date, 8);
+        if (month < 1 || month > 12 || day < 1 || day > 31 || hour > 23
+            || minute > 59) {
+            return -1;
+        }
+        return (((year * 12 + month - 1) * 31 + day - 1) * 24 + hour) * 60
+            + minute;
+    }
+
+
+    /**
+     * Reads two decimal digits.
+     *
+     * @param date
+     *            The digits.
+     * @param start
+     *            The index of the first digit.
+     * @return Their value.
+     */
+    private static int twoDigits(String date, int start) {
+        return (date.charAt(start) - '0') * 10 + date.charAt(start + 1) - '0';
+    }
+}
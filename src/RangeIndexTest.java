@@ -0,0 +1,73 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the RangeIndex class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.28
+ */
+public class RangeIndexTest {
+    private RangeIndex index;
+
+    /**
+     * Setup method creates an empty index.
+     */
+    @Before
+    public void setUp() {
+        index = new RangeIndex();
+    }
+
+
+    /**
+     * Tests range queries with shared values, negative values and IDs, and
+     * removal.
+     */
+    @Test
+    public void testFindRemove() {
+        index.add(30, 1);
+        index.add(10, 2);
+        index.add(30, -5);
+        index.add(-4, 7);
+        index.add(Integer.MAX_VALUE, 8);
+        assertEquals(5, index.size());
+
+        assertArrayEquals(new int[] { 2, -5, 1 }, index.find(10, 30));
+        assertArrayEquals(new int[] { 7, 2 }, index.find(Integer.MIN_VALUE,
+            29));
+        assertArrayEquals(new int[] { 8 }, index.find(31,
+            Integer.MAX_VALUE));
+        assertArrayEquals(new int[0], index.find(30, 10));
+        assertEquals(3, index.count(10, 30, 10));
+        assertEquals(2, index.count(10, 30, 2));
+        assertEquals(0, index.count(30, 10, 2));
+
+        assertTrue(index.remove(30, -5));
+        assertFalse(index.remove(30, -5));
+        assertFalse(index.remove(31, 1));
+        assertArrayEquals(new int[] { 1 }, index.find(30, 30));
+    }
+
+
+    /**
+     * Tests that date keys order like the date strings and that malformed
+     * dates are rejected.
+     */
+    @Test
+    public void testDateKey() {
+        assertEquals(0, RangeIndex.dateKey("0001010000"));
+        assertTrue(RangeIndex.dateKey("0610051600") < RangeIndex.dateKey(
+            "0610071600"));
+        assertTrue(RangeIndex.dateKey("0612312359") < RangeIndex.dateKey(
+            "0701010000"));
+        assertEquals(RangeIndex.dateKey("0610051601") - 1, RangeIndex
+            .dateKey("0610051600"));
+        assertTrue(RangeIndex.dateKey("9912312359") > 0);
+        assertEquals(-1, RangeIndex.dateKey("061005160"));
+        assertEquals(-1, RangeIndex.dateKey("06100516a0"));
+        assertEquals(-1, RangeIndex.dateKey("0613051600"));
+        assertEquals(-1, RangeIndex.dateKey("0610002400"));
+    }
+}
@@ -0,0 +1,290 @@
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+/**
+ * Measures how fast each record format encodes and decodes a seminar and
+ * how many bytes it stores for it. The first seminar of the sample input is
+ * encoded into a freshly allocated buffer, as an insert sizes and reserves
+ * its space, and decoded from one buffer over and over. The insert path is
+ * also timed both ways it has worked: serializing to a new array and
+ * copying that into the memory pool, and sizing the record and encoding it
+ * straight into the pool. A seminar with a long generated description is
+ * timed through the compressing format, which also reports its own
+ * counters as "print stats" shows them. Finally searches are timed through
+ * a Controller with and without its decoded record cache, on a skewed load
+ * where most searches ask for a few hot IDs. Each timing is run a few times
+ * and the best round is reported, so the JIT has warmed up.
+ * <p>
+ * Usage: {@code java RecordBenchmark [iterations] [rounds]}
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class RecordBenchmark {
+    private static final String[] WORDS = { "learn", "what", "kind", "of",
+        "research", "is", "done", "on", "HPC", "and", "CSE", "at", "VT",
+        "with", "systems", "computing", "biology", "data" };
+
+    /** Decoded fields are summed here so the JIT cannot drop the work. */
+    private static long checksum;
+
+    /**
+     * Runs the benchmark.
+     *
+     * @param args
+     *            The number of iterations per round and the number of
+     *            rounds, defaulting to 500000 and 5.
+     * @throws Exception
+     *             if the seminar cannot be serialized
+     */
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 500000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 5;
+        Seminar seminar = sample();
+        String[] names = { "canonical", "compact", "dictionary" };
+        RecordCodec[] codecs = { new CanonicalCodec(), new CompactCodec(),
+            new DictionaryCodec() };
+        System.out.println("format      bytes  encode ns  decode ns");
+        for (int i = 0; i < codecs.length; i++) {
+            System.out.println(String.format("%-10s %6d %10.0f %10.0f",
+                names[i], codecs[i].encodedSize(seminar), encodeNanos(
+                    codecs[i], seminar, iterations, rounds), decodeNanos(
+                        codecs[i], seminar, iterations, rounds)));
+        }
+        System.out.println(String.format(
+            "insert: serialize and copy %.0f ns, encode in place %.0f ns",
+            serializeCopyNanos(seminar, iterations, rounds),
+            encodeInPlaceNanos(new CanonicalCodec(), seminar, iterations,
+                rounds)));
+        Seminar large = largeSample(1024, 45);
+        CompressedCodec compressed = new CompressedCodec(
+            new CanonicalCodec(), 256);
+        int plain = new CanonicalCodec().encodedSize(large);
+        int packed = compressed.encodedSize(large);
+        System.out.println(String.format("compressed: %d of %d bytes, "
+            + "ratio %.2f, encode %.0f ns, decode %.0f ns", packed, plain,
+            (double)packed / plain, encodeNanos(compressed, large,
+                iterations / 10, rounds), decodeNanos(compressed, large,
+                    iterations / 10, rounds)));
+        System.out.println(compressed.getStats());
+        System.out.println(String.format(
+            "search, 80%% on 10 of 1000 IDs: cached %.0f ns, uncached %.0f ns",
+            searchNanos(Controller.DEFAULT_CACHE_BYTES, 1000, iterations,
+                rounds), searchNanos(0, 1000, iterations, rounds)));
+    }
+
+
+    /**
+     * @return the first seminar of the sample input
+     */
+    public static Seminar sample() {
+        return new Seminar(1, "Overview of HCI Research at VT", "0610051600",
+            90, (short)10, (short)10, 45, new String[] { "HCI",
+                "Computer_Science", "VT", "Virginia_Tech" },
+            "This seminar will present an overview of HCI research at VT");
+    }
+
+
+    /**
+     * Generates a seminar whose description is a long run of words from a
+     * small vocabulary, like the large records compression is for.
+     *
+     * @param descriptionLength
+     *            The least number of characters in the description.
+     * @param seed
+     *            The random seed.
+     * @return The seminar.
+     */
+    public static Seminar largeSample(int descriptionLength, long seed) {
+        Random random = new Random(seed);
+        StringBuilder description = new StringBuilder();
+        while (description.length() < descriptionLength) {
+            description.append(WORDS[random.nextInt(WORDS.length)]).append(
+                ' ');
+        }
+        return new Seminar(10, "Overview of HPC and CSE Research at VT",
+            "0703301125", 35, (short)0, (short)0, 25, new String[] { "HPC",
+                "CSE", "computer_science" }, description.toString().trim());
+    }
+
+
+    /**
+     * Times sizing a seminar, allocating its buffer and encoding it.
+     *
+     * @param codec
+     *            The record format.
+     * @param seminar
+     *            The seminar.
+     * @param iterations
+     *            The encodes per round.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best time per encode in nanoseconds.
+     */
+    public static double encodeNanos(
+        RecordCodec codec,
+        Seminar seminar,
+        int iterations,
+        int rounds) {
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                byte[] buffer = new byte[codec.encodedSize(seminar)];
+                checksum += codec.encode(seminar, buffer, 0);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / iterations;
+    }
+
+
+    /**
+     * Times decoding a seminar from its encoded bytes.
+     *
+     * @param codec
+     *            The record format.
+     * @param seminar
+     *            The seminar.
+     * @param iterations
+     *            The decodes per round.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best time per decode in nanoseconds.
+     */
+    public static double decodeNanos(
+        RecordCodec codec,
+        Seminar seminar,
+        int iterations,
+        int rounds) {
+        byte[] buffer = new byte[codec.encodedSize(seminar)];
+        int length = codec.encode(seminar, buffer, 0);
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += codec.decode(buffer, 0, length).getCost();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / iterations;
+    }
+
+
+    /**
+     * Times storing a seminar the way inserts used to: serializing it to a
+     * new array and copying that into the memory pool.
+     *
+     * @param seminar
+     *            The seminar.
+     * @param iterations
+     *            The stores per round.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best time per store in nanoseconds.
+     * @throws Exception
+     *             if the seminar cannot be serialized
+     */
+    public static double serializeCopyNanos(
+        Seminar seminar,
+        int iterations,
+        int rounds)
+        throws Exception {
+        byte[] pool = new byte[4096];
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                byte[] record = seminar.serialize();
+                System.arraycopy(record, 0, pool, 0, record.length);
+                checksum += record.length;
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / iterations;
+    }
+
+
+    /**
+     * Times storing a seminar the way inserts do now: sizing it and encoding
+     * it straight into the memory pool.
+     *
+     * @param codec
+     *            The record format.
+     * @param seminar
+     *            The seminar.
+     * @param iterations
+     *            The stores per round.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best time per store in nanoseconds.
+     */
+    public static double encodeInPlaceNanos(
+        RecordCodec codec,
+        Seminar seminar,
+        int iterations,
+        int rounds) {
+        byte[] pool = new byte[4096];
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                checksum += codec.encodedSize(seminar);
+                checksum += codec.encode(seminar, pool, 0);
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / iterations;
+    }
+
+
+    /**
+     * Times searches through a Controller, with the output thrown away. Four
+     * searches in five ask for one of ten hot IDs and the rest for any ID.
+     *
+     * @param cacheBudget
+     *            The byte budget of the decoded record cache, 0 for none.
+     * @param records
+     *            The number of records inserted first, at least 10.
+     * @param searches
+     *            The searches per round.
+     * @param rounds
+     *            The number of rounds to run.
+     * @return The best time per search in nanoseconds.
+     * @throws Exception
+     *             if a search fails
+     */
+    public static double searchNanos(
+        long cacheBudget,
+        int records,
+        int searches,
+        int rounds)
+        throws Exception {
+        Controller controller = new Controller(1024, 1 << 20);
+        controller.setOutput(OutputSink.buffered(new PrintStream(OutputStream
+            .nullOutputStream()), OutputSink.DEFAULT_BUFFER_SIZE, false));
+        controller.setCacheBudget(cacheBudget);
+        Seminar seminar = sample();
+        for (int id = 0; id < records; id++) {
+            controller.insert(id, seminar.getTitle(), seminar.getDate(),
+                seminar.getLength(), seminar.getX(), seminar.getY(), seminar
+                    .getCost(), seminar.getKeywords(), seminar
+                        .getDescription());
+        }
+        long best = Long.MAX_VALUE;
+        for (int r = 0; r < rounds; r++) {
+            Random random = new Random(46);
+            long start = System.nanoTime();
+            for (int i = 0; i < searches; i++) {
+                int id = random.nextInt(5) < 4
+                    ? random.nextInt(10)
+                    : random.nextInt(records);
+                checksum += controller.search(id).getCost();
+            }
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return (double)best / searches;
+    }
+}
@@ -0,0 +1,75 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the RecordBenchmark class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class RecordBenchmarkTest {
+
+    /**
+     * Tests that every format is timed on the sample seminar and that the
+     * sample has the size the sample output shows.
+     */
+    @Test
+    public void testCodecTimes() {
+        Seminar seminar = RecordBenchmark.sample();
+        assertEquals(173, new CanonicalCodec().encodedSize(seminar));
+        RecordCodec[] codecs = { new CanonicalCodec(), new CompactCodec(),
+            new DictionaryCodec() };
+        for (RecordCodec codec : codecs) {
+            assertTrue(RecordBenchmark.encodeNanos(codec, seminar, 100,
+                1) > 0);
+            assertTrue(RecordBenchmark.decodeNanos(codec, seminar, 100,
+                1) > 0);
+        }
+    }
+
+
+    /**
+     * Tests that both ways of storing a record are timed.
+     *
+     * @throws Exception
+     *             if the seminar cannot be serialized
+     */
+    @Test
+    public void testInsertTimes() throws Exception {
+        Seminar seminar = RecordBenchmark.sample();
+        assertTrue(RecordBenchmark.serializeCopyNanos(seminar, 100, 1) > 0);
+        assertTrue(RecordBenchmark.encodeInPlaceNanos(new CanonicalCodec(),
+            seminar, 100, 1) > 0);
+    }
+
+
+    /**
+     * Tests that the large sample compresses and is timed through the
+     * compressing format.
+     */
+    @Test
+    public void testCompressedTimes() {
+        Seminar large = RecordBenchmark.largeSample(1024, 45);
+        assertTrue(large.getDescription().length() >= 1024);
+        RecordCodec codec = new CompressedCodec(new CanonicalCodec(), 256);
+        assertTrue(codec.encodedSize(large) < new CanonicalCodec()
+            .encodedSize(large));
+        assertTrue(RecordBenchmark.encodeNanos(codec, large, 10, 1) > 0);
+        assertTrue(RecordBenchmark.decodeNanos(codec, large, 10, 1) > 0);
+    }
+
+
+    /**
+     * Tests that searches are timed with and without the cache.
+     *
+     * @throws Exception
+     *             if a search fails
+     */
+    @Test
+    public void testSearchTimes() throws Exception {
+        assertTrue(RecordBenchmark.searchNanos(
+            Controller.DEFAULT_CACHE_BYTES, 20, 100, 1) > 0);
+        assertTrue(RecordBenchmark.searchNanos(0, 20, 100, 1) > 0);
+    }
+}
@@ -0,0 +1,216 @@
+/**
+ * A cache of decoded seminars for the IDs that are searched most, so that a
+ * hot record is not copied out of the memory pool and decoded on every
+ * search. Entries are kept in least recently used order in a {@link DLList}
+ * whose nodes are found through a {@link SkipList} by ID, so a hit moves its
+ * node to the front in constant time after one lookup among the cached IDs.
+ * When the estimated size of the cached seminars passes the byte budget,
+ * entries are evicted from the back.
+ * <p>
+ * The cache holds copies of what is in the pool, so the controller must
+ * remove an ID whenever its record is deleted or replaced.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.04
+ */
+public class RecordCache {
+
+    /**
+     * One cached seminar with its ID and estimated size.
+     */
+    private static class Entry {
+        private final int id;
+        private final Seminar seminar;
+        private final long bytes;
+
+        /**
+         * Creates an entry.
+         *
+         * @param id
+         *            The ID.
+         * @param seminar
+         *            The seminar.
+         * @param bytes
+         *            Its estimated size.
+         */
+        Entry(int id, Seminar seminar, long bytes) {
+            this.id = id;
+            this.seminar = seminar;
+            this.bytes = bytes;
+        }
+    }
+
+    private final long budget;
+    private final DLList<Entry> recency;
+    private final SkipList<Integer, DLList.Node<Entry>> nodes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    /**
+     * Constructs an empty cache.
+     *
+     * @param budget
+     *            The most bytes the cached seminars may take, by the
+     *            estimate of {@link #footprint(Seminar)}; 0 disables the
+     *            cache.
+     */
+    public RecordCache(long budget) {
+        this.budget = budget;
+        this.recency = new DLList<>();
+        this.nodes = new SkipList<>();
+    }
+
+
+    /**
+     * Estimates the heap size of a decoded seminar: the object and its
+     * fields, and each string as an object with a header and two bytes per
+     * character.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The estimated size in bytes.
+     */
+    public static long footprint(Seminar seminar) {
+        String[] keywords = seminar.getKeywords();
+        long size = 48 + 16 + 4L * keywords.length + stringFootprint(seminar
+            .getTitle()) + stringFootprint(seminar.getDate())
+            + stringFootprint(seminar.getDescription());
+        for (String keyword : keywords) {
+            size += stringFootprint(keyword);
+        }
+        return size;
+    }
+
+
+    /**
+     * Estimates the heap size of a string.
+     *
+     * @param s
+     *            The string.
+     * @return The estimated size in bytes.
+     */
+    private static long stringFootprint(String s) {
+        return 40 + 2L * s.length();
+    }
+
+
+    /**
+     * Looks up a seminar, making it the most recently used on a hit.
+     *
+     * @param id
+     *            The ID.
+     * @return The cached seminar, or null on a miss.
+     */
+    public Seminar get(int id) {
+        DLList.Node<Entry> node = nodes.find(id);
+        if (node == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        recency.moveToFront(node);
+        return node.getData().seminar;
+    }
+
+
+    /**
+     * Caches a seminar as the most recently used, replacing any seminar
+     * cached under the same ID and evicting the least recently used ones
+     * until the cache fits its budget. A seminar larger than the whole
+     * budget is not cached.
+     *
+     * @param id
+     *            The ID.
+     * @param seminar
+     *            The seminar.
+     */
+    public void put(int id, Seminar seminar) {
+        remove(id);
+        long size = footprint(seminar);
+        if (size > budget) {
+            return;
+        }
+        while (bytes + size > budget) {
+            Entry victim = recency.removeLast();
+            nodes.remove(victim.id);
+            bytes -= victim.bytes;
+            evictions++;
+        }
+        nodes.insert(id, recency.addFirst(new Entry(id, seminar, size)));
+        bytes += size;
+    }
+
+
+    /**
+     * Removes a seminar from the cache.
+     *
+     * @param id
+     *            The ID.
+     * @return True if it was cached.
+     */
+    public boolean remove(int id) {
+        DLList.Node<Entry> node = nodes.remove(id);
+        if (node == null) {
+            return false;
+        }
+        bytes -= recency.unlink(node).bytes;
+        return true;
+    }
+
+
+    /**
+     * @return the number of seminars cached
+     */
+    public int size() {
+        return recency.size();
+    }
+
+
+    /**
+     * @return the estimated bytes the cached seminars take
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+
+    /**
+     * @return the number of lookups that found a seminar
+     */
+    public long getHits() {
+        return hits;
+    }
+
+
+    /**
+     * @return the number of lookups that found nothing
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+
+    /**
+     * Returns the counters as text: entries and bytes against the budget,
+     * then hits, misses, the hit rate and evictions.
+     *
+     * @return The summary.
+     */
+    @Override
+    public String toString() {
+        long lookups = hits + misses;
+        StringBuilder result = new StringBuilder();
+        result.append("cache: " + size() + " records, " + bytes + " of "
+            + budget + " bytes\n");
+        result.append("cache hits: " + hits + ", misses: " + misses
+            + ", hit rate: ");
+        result.append(lookups == 0
+            ? "0.0"
+            : String.format("%.1f", 100.0 * hits / lookups));
+        result.append("%, evictions: " + evictions);
+        return result.toString();
+    }
+}
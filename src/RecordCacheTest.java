@@ -0,0 +1,99 @@
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the RecordCache class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.04
+ */
+public class RecordCacheTest {
+    private RecordCache cache;
+
+    /**
+     * Setup method creates a cache with room for three small seminars.
+     */
+    @Before
+    public void setUp() {
+        cache = new RecordCache(3 * RecordCache.footprint(seminar(0)));
+    }
+
+
+    /**
+     * Creates a small seminar.
+     *
+     * @param id
+     *            The ID.
+     * @return The seminar.
+     */
+    private Seminar seminar(int id) {
+        return new Seminar(id, "T", "0610051600", 90, (short)1, (short)2, 3,
+            new String[] { "VT" }, "D");
+    }
+
+
+    /**
+     * Tests that the least recently used seminar is evicted first.
+     */
+    @Test
+    public void testEviction() {
+        Seminar one = seminar(1);
+        cache.put(1, one);
+        cache.put(2, seminar(2));
+        cache.put(3, seminar(3));
+        assertSame(one, cache.get(1));
+        cache.put(4, seminar(4));
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertNotNull(cache.get(1));
+        assertNotNull(cache.get(3));
+        assertNotNull(cache.get(4));
+        assertEquals(4, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertTrue(cache.toString().endsWith(
+            "cache hits: 4, misses: 1, hit rate: 80.0%, evictions: 1"));
+    }
+
+
+    /**
+     * Tests removing and replacing entries.
+     */
+    @Test
+    public void testRemoveAndReplace() {
+        cache.put(1, seminar(1));
+        cache.put(2, seminar(2));
+        long bytes = cache.getBytes();
+        assertTrue(cache.remove(1));
+        assertFalse(cache.remove(1));
+        assertNull(cache.get(1));
+        assertEquals(bytes / 2, cache.getBytes());
+
+        Seminar replacement = seminar(2);
+        cache.put(2, replacement);
+        assertEquals(1, cache.size());
+        assertSame(replacement, cache.get(2));
+        assertEquals(bytes / 2, cache.getBytes());
+    }
+
+
+    /**
+     * Tests that a seminar larger than the budget is not cached, and that a
+     * zero budget caches nothing.
+     */
+    @Test
+    public void testOverBudget() {
+        Seminar big = new Seminar(9, "T", "0610051600", 90, (short)1,
+            (short)2, 3, new String[0], new String(new char[1000]));
+        cache.put(1, seminar(1));
+        cache.put(9, big);
+        assertNull(cache.get(9));
+        assertNotNull(cache.get(1));
+
+        cache = new RecordCache(0);
+        cache.put(1, seminar(1));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getBytes());
+    }
+}
@@ -0,0 +1,70 @@
+/**
+ * Converts seminars to and from the bytes stored in the memory pool. A
+ * codec writes into a buffer the caller provides, so the caller decides
+ * where the record goes and can size it first.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.29
+ */
+public interface RecordCodec {
+
+    /**
+     * Returns the number of bytes a seminar encodes to.
+     *
+     * @param seminar
+     *            The seminar.
+     * @return The encoded size.
+     * @throws IllegalArgumentException
+     *             if the seminar cannot be encoded
+     */
+    int encodedSize(Seminar seminar);
+
+
+    /**
+     * Encodes a seminar into a buffer.
+     *
+     * @param seminar
+     *            The seminar.
+     * @param buffer
+     *            The buffer, with at least encodedSize bytes free at offset.
+     * @param offset
+     *            Where to write the first byte.
+     * @return The number of bytes written.
+     * @throws IllegalArgumentException
+     *             if the seminar cannot be encoded
+     */
+    int encode(Seminar seminar, byte[] buffer, int offset);
+
+
+    /**
+     * Decodes a seminar.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The seminar.
+     * @throws IllegalArgumentException
+     *             if the bytes are not a record in this format
+     */
+    Seminar decode(byte[] buffer, int offset, int length);
+
+
+    /**
+     * Returns a view of a record that decodes fields only as they are read.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The view.
+     * @throws IllegalArgumentException
+     *             if the bytes are not a record in this format
+     */
+    SeminarView view(byte[] buffer, int offset, int length);
+}
@@ -0,0 +1,285 @@
+/**
+ * A hash table from seminar ID to Handle that uses Robin Hood linear probing.
+ * On insert, a record that is further from its home slot than the resident
+ * record takes the slot, and the resident continues probing. Probe lengths
+ * therefore stay short and even, which lets the table run at a much higher
+ * load than the 50% used by {@link Hash}.
+ * <p>
+ * Removal uses backward shifting: the records that follow the removed one in
+ * its cluster move back one slot, so the table never holds tombstones and
+ * lookups never walk past deleted entries.
+ * <p>
+ * The capacity is always a power of two and IDs are hashed with
+ * {@link Hash#mix(int)}.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class RobinHoodHash {
+    private Record[] allRecords;
+    private int numberOfRecords;
+    private int capacity;
+    private final int maxLoadPercent;
+    private OutputSink output = OutputSink.console();
+
+    /**
+     * The default maximum load factor, in percent.
+     */
+    public static final int DEFAULT_MAX_LOAD_PERCENT = 85;
+
+    /**
+     * Constructs a new table with the default maximum load.
+     *
+     * @param initialCapacity
+     *            The initial capacity, rounded up to a power of two.
+     */
+    public RobinHoodHash(int initialCapacity) {
+        this(initialCapacity, DEFAULT_MAX_LOAD_PERCENT);
+    }
+
+
+    /**
+     * Constructs a new table.
+     *
+     * @param initialCapacity
+     *            The initial capacity, rounded up to a power of two.
+     * @param maxLoadPercent
+     *            The load, in percent, above which the table doubles. Must be
+     *            between 1 and 99.
+     */
+    public RobinHoodHash(int initialCapacity, int maxLoadPercent) {
+        if (maxLoadPercent < 1 || maxLoadPercent > 99) {
+            throw new IllegalArgumentException(
+                "Maximum load must be between 1 and 99 percent");
+        }
+        this.capacity = Hash.roundUpToPowerOfTwo(initialCapacity);
+        this.allRecords = new Record[capacity];
+        this.numberOfRecords = 0;
+        this.maxLoadPercent = maxLoadPercent;
+    }
+
+
+    /**
+     * Computes the home slot for the given ID.
+     *
+     * @param id
+     *            The ID to be hashed.
+     * @return The home slot of the ID.
+     */
+    public int hash(int id) {
+        return Hash.mix(id) & (capacity - 1);
+    }
+
+
+    /**
+     * Sends the table's messages to a sink instead of the console.
+     *
+     * @param sink
+     *            The sink.
+     */
+    public void setOutput(OutputSink sink) {
+        output = sink;
+    }
+
+
+    /**
+     * Returns how far the given slot lies past the home slot of the record
+     * stored there.
+     *
+     * @param pos
+     *            An occupied slot.
+     * @return The probe distance of the record at pos.
+     */
+    private int distance(int pos) {
+        return (pos - hash(allRecords[pos].getId())) & (capacity - 1);
+    }
+
+
+    /**
+     * Inserts an ID into the hash table with its associated memory handle.
+     *
+     * @param id
+     *            The ID to insert into the table.
+     * @param handle
+     *            The associated memory handle in the memory pool.
+     * @return The index where the ID was inserted, or -1 if the ID is already
+     *         present.
+     */
+    public int insert(int id, Handle handle) {
+        if ((long)(numberOfRecords + 1) * 100 > (long)capacity
+            * maxLoadPercent) {
+            output.println("Hash table expanded to " + (capacity * 2)
+                + " records");
+            resize();
+        }
+
+        Record carried = new Record(id, handle);
+        int pos = hash(id);
+        int dist = 0;
+        int result = -1;
+
+        while (true) {
+            Record resident = allRecords[pos];
+            if (resident == null) {
+                allRecords[pos] = carried;
+                numberOfRecords++;
+                return result == -1 ? pos : result;
+            }
+            if (result == -1 && resident.getId() == id) {
+                output.println(
+                    "Insert FAILED - There is already a record with ID " + id);
+                return -1;
+            }
+            int residentDist = distance(pos);
+            if (residentDist < dist) {
+                // The poorer record takes the slot; keep placing the richer
+                allRecords[pos] = carried;
+                carried = resident;
+                dist = residentDist;
+                if (result == -1) {
+                    result = pos;
+                }
+            }
+            pos = (pos + 1) & (capacity - 1);
+            dist++;
+        }
+    }
+
+
+    /**
+     * Doubles the capacity and reinserts every record.
+     */
+    private void resize() {
+        Record[] oldTable = allRecords;
+        capacity *= 2;
+        allRecords = new Record[capacity];
+        numberOfRecords = 0;
+
+        for (Record record : oldTable) {
+            if (record != null) {
+                insert(record.getId(), record.getHandle());
+            }
+        }
+    }
+
+
+    /**
+     * Returns the slot holding the given ID. The search stops as soon as it
+     * reaches a record that is closer to its home than the probe is, since
+     * Robin Hood placement would have put the ID there.
+     *
+     * @param id
+     *            The ID to look for.
+     * @return The slot holding the ID, or -1 if it is not present.
+     */
+    private int indexOf(int id) {
+        int pos = hash(id);
+        int dist = 0;
+
+        while (allRecords[pos] != null && distance(pos) >= dist) {
+            if (allRecords[pos].getId() == id) {
+                return pos;
+            }
+            pos = (pos + 1) & (capacity - 1);
+            dist++;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Finds the handle associated with the given ID.
+     *
+     * @param id
+     *            The ID to find in the table.
+     * @return The handle associated with the ID, or null if not found.
+     */
+    public Handle find(int id) {
+        int pos = indexOf(id);
+        return pos == -1 ? null : allRecords[pos].getHandle();
+    }
+
+
+    /**
+     * Removes the specified ID from the hash table and shifts the rest of its
+     * cluster back by one slot.
+     *
+     * @param id
+     *            The ID to remove.
+     * @return The handle associated with the removed ID, or null if the ID is
+     *         not found.
+     */
+    public Handle remove(int id) {
+        int pos = indexOf(id);
+        if (pos == -1) {
+            return null;
+        }
+        Handle handle = allRecords[pos].getHandle();
+
+        int next = (pos + 1) & (capacity - 1);
+        while (allRecords[next] != null && distance(next) > 0) {
+            allRecords[pos] = allRecords[next];
+            pos = next;
+            next = (next + 1) & (capacity - 1);
+        }
+        allRecords[pos] = null;
+        numberOfRecords--;
+        return handle;
+    }
+
+
+    /**
+     * Returns the current capacity of the hash table.
+     *
+     * @return The capacity of the hash table.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the number of records in the table.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return numberOfRecords;
+    }
+
+
+    /**
+     * Returns the longest probe distance of any record in the table.
+     *
+     * @return The maximum probe distance, 0 for an empty table.
+     */
+    public int maxProbeDistance() {
+        int max = 0;
+        for (int i = 0; i < capacity; i++) {
+            if (allRecords[i] != null) {
+                max = Math.max(max, distance(i));
+            }
+        }
+        return max;
+    }
+
+
+    /**
+     * Prints the contents of the hash table.
+     *
+     * @return A string representation of the hash table contents.
+     */
+    public String printToString() {
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < capacity; i++) {
+            if (allRecords[i] != null) {
+                result.append(i + ": " + allRecords[i].getId() + "\n");
+            }
+        }
+
+        result.append("total records: " + numberOfRecords);
+        return result.toString();
+    }
+}
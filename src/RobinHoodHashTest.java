@@ -0,0 +1,143 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the RobinHoodHash class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.20
+ */
+public class RobinHoodHashTest {
+    private RobinHoodHash hashTable;
+    private Handle handle1;
+    private Handle handle2;
+
+    /**
+     * Setup method initializes the hash table and Handle objects for testing.
+     */
+    @Before
+    public void setUp() {
+        hashTable = new RobinHoodHash(8);
+        handle1 = new Handle(10, 50);
+        handle2 = new Handle(60, 100);
+    }
+
+
+    /**
+     * Tests inserting, finding and rejecting duplicate IDs.
+     */
+    @Test
+    public void testInsertAndFind() {
+        assertTrue(hashTable.insert(12345, handle1) >= 0);
+        assertTrue(hashTable.insert(67890, handle2) >= 0);
+        assertEquals(handle1, hashTable.find(12345));
+        assertEquals(handle2, hashTable.find(67890));
+        assertEquals(-1, hashTable.insert(12345, handle2));
+        assertEquals(handle1, hashTable.find(12345));
+        assertNull(hashTable.find(1));
+        assertEquals(2, hashTable.size());
+    }
+
+
+    /**
+     * Tests that the table runs above 50% load and doubles past its maximum.
+     */
+    @Test
+    public void testHighLoadAndResize() {
+        for (int id = 0; id < 6; id++) {
+            hashTable.insert(id, new Handle(id, 1));
+        }
+        assertEquals(8, hashTable.getCapacity());
+        hashTable.insert(6, handle1);
+        hashTable.insert(7, handle2);
+        assertEquals(16, hashTable.getCapacity());
+        for (int id = 0; id < 6; id++) {
+            assertEquals(new Handle(id, 1), hashTable.find(id));
+        }
+        assertEquals(handle2, hashTable.find(7));
+    }
+
+
+    /**
+     * Tests that removal shifts the cluster back instead of leaving
+     * tombstones, so churn keeps every record reachable.
+     */
+    @Test
+    public void testBackwardShiftDeletion() {
+        RobinHoodHash table = new RobinHoodHash(1024, 90);
+        for (int id = 0; id < 900; id++) {
+            table.insert(id, new Handle(id, 1));
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int id = round * 900; id < round * 900 + 900; id += 2) {
+                assertEquals(new Handle(id, 1), table.remove(id));
+                assertTrue(table.insert(id + 900, new Handle(id + 900,
+                    1)) >= 0);
+            }
+            for (int id = round * 900 + 1; id < round * 900 + 900; id += 2) {
+                assertEquals(new Handle(id, 1), table.remove(id));
+                assertTrue(table.insert(id + 900, new Handle(id + 900,
+                    1)) >= 0);
+            }
+        }
+        assertEquals(1024, table.getCapacity());
+        assertEquals(900, table.size());
+        for (int id = 18000; id < 18900; id++) {
+            assertEquals(new Handle(id, 1), table.find(id));
+        }
+        assertNull(table.find(0));
+        assertFalse(table.printToString().contains("TOMBSTONE"));
+        assertTrue(table.maxProbeDistance() < 64);
+    }
+
+
+    /**
+     * Tests removing missing IDs and printing.
+     */
+    @Test
+    public void testRemoveAndPrint() {
+        assertNull(hashTable.remove(5));
+        hashTable.insert(5, handle1);
+        assertEquals(handle1, hashTable.remove(5));
+        assertNull(hashTable.remove(5));
+        assertEquals("total records: 0", hashTable.printToString());
+        hashTable.insert(5, handle1);
+        assertEquals(hashTable.hash(5) + ": 5\ntotal records: 1", hashTable
+            .printToString());
+        assertEquals(0, hashTable.maxProbeDistance());
+    }
+
+
+    /**
+     * Tests that an out-of-range load factor is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadLoad() {
+        new RobinHoodHash(8, 100);
+    }
+
+
+    /**
+     * Tests that the duplicate and expansion messages go to the sink.
+     */
+    @Test
+    public void testOutput() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(new PrintStream(bytes), 64,
+            false);
+        hashTable.setOutput(sink);
+        hashTable.insert(1, handle1);
+        hashTable.insert(1, handle2);
+        for (int id = 2; id < 9; id++) {
+            hashTable.insert(id, handle1);
+        }
+        sink.flush();
+        String nl = System.lineSeparator();
+        assertEquals("Insert FAILED - There is already a record with ID 1"
+            + nl + "Hash table expanded to 16 records" + nl, bytes.toString());
+    }
+}
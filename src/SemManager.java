@@ -41,37 +41,205 @@ public class SemManager {
      *            Command line parameters:
      *            args[0] = initial memory pool size,
      *            args[1] = initial hash table size,
-     *            args[2] = path to command file.
+     *            args[2] = path to command file,
+     *            followed by any of these options:
+     *            "-presize" to scan the command file first and build the
+     *            hash table and memory pool at the sizes they would grow to,
+     *            "-pow2hash" to give the hash table power-of-two capacities
+     *            and a mixed hash, which keeps strided IDs from colliding
+     *            but changes the layout "print hashtable" shows,
+     *            "-incremental" to move the hash table's records a few
+     *            slots per operation when it doubles, instead of all at once;
+     *            a record deleted before it moves leaves no tombstone in the
+     *            new table, so "print hashtable" can show fewer of them,
+     *            "-shrink N" to halve the hash table when a delete leaves it
+     *            less than N percent full, N from 0 to 20,
+     *            "-tombstones N" to rehash the hash table in place when an
+     *            insert would leave live records and tombstones over N
+     *            percent of it, N from 51 to 100, which changes the layout
+     *            "print hashtable" shows after deletes,
+     *            "-compact" to store records in the compact format instead
+     *            of the canonical serialized form,
+     *            "-dictionary" to store them in the compact format with
+     *            keywords and dates replaced by dictionary codes,
+     *            "-compress N" to compress the records of at least N bytes,
+     *            mostly those with long descriptions,
+     *            "-cache N" to cache up to N bytes of decoded records
+     *            instead of the default, 0 to cache none,
+     *            "-async" to write the buffered output on a background
+     *            thread,
+     *            "-mapped" to read the command file through a memory
+     *            mapping instead of a FileReader.
+     *            Output is buffered and written when a buffer fills and
+     *            when the command file is done.
      */
     public static void main(String[] args) {
         // Ensure correct number of arguments
-        if (args.length != 3) {
-            throw new IllegalArgumentException("Expected exactly 3 arguments: "
-            + "<memory pool size>, <hash table size>, <command file>");
+        if (args.length < 3) {
+            throw new IllegalArgumentException("Expected 3 arguments: "
+            + "<memory pool size>, <hash table size>, <command file>"
+            + " [-presize] [-pow2hash] [-incremental] [-shrink <percent>]"
+            + " [-tombstones <percent>]"
+            + " [-compact | -dictionary]"
+            + " [-compress <size>] [-cache <bytes>] [-async] [-mapped]");
+        }
+        boolean presize = false;
+        boolean powerOfTwoHash = false;
+        boolean incremental = false;
+        int shrinkPercent = 0;
+        int tombstonePercent = Hash.DEFAULT_TOMBSTONE_LIMIT_PERCENT;
+        RecordCodec codec = new CanonicalCodec();
+        int compressThreshold = -1;
+        long cacheBudget = Controller.DEFAULT_CACHE_BYTES;
+        boolean async = false;
+        boolean mapped = false;
+        for (int i = 3; i < args.length; i++) {
+            if (args[i].equals("-presize")) {
+                presize = true;
+            }
+            else if (args[i].equals("-pow2hash")) {
+                powerOfTwoHash = true;
+            }
+            else if (args[i].equals("-incremental")) {
+                incremental = true;
+            }
+            else if (args[i].equals("-shrink")) {
+                long value = optionValue(args, ++i, 0, 20);
+                if (value < 0) {
+                    return;
+                }
+                shrinkPercent = (int)value;
+            }
+            else if (args[i].equals("-tombstones")) {
+                long value = optionValue(args, ++i, 51, 100);
+                if (value < 0) {
+                    return;
+                }
+                tombstonePercent = (int)value;
+            }
+            else if (args[i].equals("-compact")) {
+                codec = new CompactCodec();
+            }
+            else if (args[i].equals("-dictionary")) {
+                codec = new DictionaryCodec();
+            }
+            else if (args[i].equals("-compress")) {
+                long value = optionValue(args, ++i, 0, Integer.MAX_VALUE);
+                if (value < 0) {
+                    return;
+                }
+                compressThreshold = (int)value;
+            }
+            else if (args[i].equals("-cache")) {
+                cacheBudget = optionValue(args, ++i, 0, Long.MAX_VALUE);
+                if (cacheBudget < 0) {
+                    return;
+                }
+            }
+            else if (args[i].equals("-async")) {
+                async = true;
+            }
+            else if (args[i].equals("-mapped")) {
+                mapped = true;
+            }
+            else {
+                throw new IllegalArgumentException("Unknown option "
+                    + args[i]);
+            }
+        }
+
+        if (compressThreshold >= 0) {
+            codec = new CompressedCodec(codec, compressThreshold);
         }
 
+        OutputSink output = OutputSink.buffered(System.out,
+            OutputSink.DEFAULT_BUFFER_SIZE, async);
         try {
             int memoryPoolSize = Integer.parseInt(args[0]);
             int hashTableSize = Integer.parseInt(args[1]);
             String commandFilePath = args[2];
 
-            Controller controller = new Controller(hashTableSize,
-                memoryPoolSize);
+            Controller controller;
+            if (presize) {
+                CommandPrescan prescan = CommandPrescan.scan(commandFilePath);
+                controller = new Controller(prescan.hashSize(hashTableSize),
+                    prescan.poolSize(memoryPoolSize), memoryPoolSize, codec,
+                    powerOfTwoHash);
+            }
+            else {
+                controller = new Controller(hashTableSize, memoryPoolSize,
+                    memoryPoolSize, codec, powerOfTwoHash);
+            }
+            controller.setIncrementalResize(incremental);
+            controller.setShrinkLoadPercent(shrinkPercent);
+            controller.setTombstoneLimitPercent(tombstonePercent);
+            controller.setCacheBudget(cacheBudget);
+            controller.setOutput(output);
             CommandParser commandParser = new CommandParser(controller);
 
-            try (BufferedReader reader = new BufferedReader(new FileReader(
-                commandFilePath))) {
-                commandParser.parseCommands(reader);
+            if (mapped) {
+                try (MappedLineReader reader = new MappedLineReader(
+                    commandFilePath)) {
+                    commandParser.parseCommands(reader);
+                }
+            }
+            else {
+                try (BufferedReader reader = new BufferedReader(
+                    new FileReader(commandFilePath))) {
+                    commandParser.parseCommands(reader);
+                }
             }
 
         }
         catch (NumberFormatException e) {
-            System.out.println(
-                "Error: Invalid memory pool or hash table size."
-                    + "Must be integers.");
+            output.println("Error: Invalid memory pool or hash table size."
+                + "Must be integers.");
         }
         catch (IOException e) {
-            System.out.println("Error: Could not read command file " + args[2]);
+            output.println("Error: Could not read command file " + args[2]);
+        }
+        finally {
+            output.close();
+        }
+    }
+
+
+    /**
+     * Reads the number after an option, printing an error if it is missing
+     * or not a whole number in range. Options are read before the output is
+     * set up, so the error goes straight to the console.
+     *
+     * @param args
+     *            The command line parameters.
+     * @param i
+     *            The index of the value, just after the option.
+     * @param min
+     *            The smallest value allowed, at least 0.
+     * @param max
+     *            The largest value allowed.
+     * @return The value, or -1 if it is invalid.
+     */
+    private static long optionValue(
+        String[] args,
+        int i,
+        long min,
+        long max) {
+        if (i >= args.length) {
+            System.out.println("Error: Missing value for " + args[i - 1]);
+            return -1;
+        }
+        long value;
+        try {
+            value = Long.parseLong(args[i]);
+        }
+        catch (NumberFormatException e) {
+            value = -1;
+        }
+        if (value < min || value > max) {
+            System.out.println("Error: Invalid value for " + args[i - 1]
+                + ": " + args[i]);
+            return -1;
         }
+        return value;
     }
 }
@@ -23,4 +23,160 @@ public class SemManagerTest extends TestCase {
         SemManager.main(args);
     }
 
+
+    /**
+     * Test an unknown fourth argument.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testIllegalOption() {
+        SemManager.main(new String[] { "16", "2",
+            "TestData/P4SimpSample_input.txt", "-fast" });
+    }
+
+
+    /**
+     * Test that pre-sizing builds the structures at their final sizes, so the
+     * run prints no expansion messages but otherwise matches.
+     */
+    public void testPresize() {
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt", "-presize" });
+        String output = systemOut().getHistory();
+        assertFalse(output.contains("expanded"));
+        assertTrue(output.contains("Successfully inserted record with ID 10"));
+        assertTrue(output.contains("total records: 3"));
+    }
+
+
+    /**
+     * Test that the compact format changes only the record sizes.
+     */
+    public void testCompact() {
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt", "-compact", "-presize" });
+        String output = systemOut().getHistory();
+        assertFalse(output.contains("Size: 173"));
+        assertTrue(output.contains("Size: 147"));
+        assertTrue(output.contains("Keywords: HCI, Computer_Science, VT, "
+            + "Virginia_Tech"));
+    }
+
+
+    /**
+     * Tests running the sample with keywords and dates stored as dictionary
+     * codes.
+     */
+    public void testDictionary() {
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt", "-dictionary" });
+        String output = systemOut().getHistory();
+        assertTrue(output.contains("Size: 103"));
+        assertTrue(output.contains("Keywords: HCI, Computer_Science, VT, "
+            + "Virginia_Tech"));
+        assertTrue(output.contains("Date: 0610051600"));
+    }
+
+
+    /**
+     * Test that writing the output on a background thread changes nothing.
+     */
+    public void testAsync() {
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt" });
+        String expected = systemOut().getHistory();
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt", "-async" });
+        assertEquals(expected, systemOut().getHistory());
+    }
+
+
+    /**
+     * Test that reading the command files through a memory mapping changes
+     * nothing.
+     */
+    public void testMapped() {
+        String[] files = { "TestData/P4Sample_input.txt",
+            "TestData/P4SimpSample_input.txt", "TestData/custom_input.txt" };
+        for (String file : files) {
+            SemManager.main(new String[] { "512", "4", file });
+            String expected = systemOut().getHistory();
+            systemOut().clearHistory();
+            SemManager.main(new String[] { "512", "4", file, "-mapped" });
+            assertEquals(expected, systemOut().getHistory());
+            systemOut().clearHistory();
+        }
+    }
+
+
+    /**
+     * Test that a bad or missing option value is reported instead of
+     * escaping main, and that no commands run.
+     */
+    public void testBadOptionValue() {
+        String file = "TestData/P4SimpSample_input.txt";
+        SemManager.main(new String[] { "512", "4", file, "-compress", "x" });
+        assertEquals("Error: Invalid value for -compress: x\n", systemOut()
+            .getHistory());
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4", file, "-cache", "-5" });
+        assertEquals("Error: Invalid value for -cache: -5\n", systemOut()
+            .getHistory());
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4", file, "-compress",
+            "99999999999" });
+        assertEquals("Error: Invalid value for -compress: 99999999999\n",
+            systemOut().getHistory());
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4", file, "-cache" });
+        assertEquals("Error: Missing value for -cache\n", systemOut()
+            .getHistory());
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4", file, "-shrink", "21" });
+        assertEquals("Error: Invalid value for -shrink: 21\n", systemOut()
+            .getHistory());
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4", file, "-tombstones",
+            "50" });
+        assertEquals("Error: Invalid value for -tombstones: 50\n",
+            systemOut().getHistory());
+    }
+
+
+    /**
+     * Test that the power-of-two hash table stores the same records and
+     * only moves them to other slots.
+     */
+    public void testPow2Hash() {
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt" });
+        String expected = systemOut().getHistory();
+        systemOut().clearHistory();
+        SemManager.main(new String[] { "512", "4",
+            "TestData/P4Sample_input.txt", "-pow2hash" });
+        String output = systemOut().getHistory();
+        assertFalse(expected.equals(output));
+        assertEquals(expected.replaceAll("\\d+: (\\d+|TOMBSTONE)\n", ""),
+            output.replaceAll("\\d+: (\\d+|TOMBSTONE)\n", ""));
+    }
+
+
+    /**
+     * Test that doubling the hash table incrementally changes nothing in
+     * the output of files that delete no records during a move, since every
+     * print finishes the move first.
+     */
+    public void testIncremental() {
+        String[] files = { "TestData/P4Sample_input.txt",
+            "TestData/custom_input.txt" };
+        for (String file : files) {
+            SemManager.main(new String[] { "512", "4", file });
+            String expected = systemOut().getHistory();
+            systemOut().clearHistory();
+            SemManager.main(new String[] { "512", "4", file,
+                "-incremental" });
+            assertEquals(expected, systemOut().getHistory());
+            systemOut().clearHistory();
+        }
+    }
 }
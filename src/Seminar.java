@@ -144,6 +144,78 @@ public class Seminar implements Serializable {
     }
 
 
+    /**
+     * @return the seminar's ID
+     */
+    public int getId() {
+        return id;
+    }
+
+
+    /**
+     * @return the seminar's title
+     */
+    public String getTitle() {
+        return title;
+    }
+
+
+    /**
+     * @return the seminar's date
+     */
+    public String getDate() {
+        return date;
+    }
+
+
+    /**
+     * @return the seminar's length
+     */
+    public int getLength() {
+        return length;
+    }
+
+
+    /**
+     * @return the seminar's cost
+     */
+    public int getCost() {
+        return cost;
+    }
+
+
+    /**
+     * @return the seminar's x coordinate
+     */
+    public short getX() {
+        return x;
+    }
+
+
+    /**
+     * @return the seminar's y coordinate
+     */
+    public short getY() {
+        return y;
+    }
+
+
+    /**
+     * @return the seminar's description
+     */
+    public String getDescription() {
+        return desc;
+    }
+
+
+    /**
+     * @return the seminar's keywords
+     */
+    public String[] getKeywords() {
+        return keywords;
+    }
+
+
     /**
      * @return a string representation of the object in the specified format.
      */
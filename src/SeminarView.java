@@ -0,0 +1,459 @@
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A read-only view of a stored record that decodes each field only when it
+ * is asked for. Building a view makes one pass over the record to find where
+ * each field starts, skipping over strings by their length prefixes without
+ * decoding them; a listing that needs only the ID, cost and title never
+ * builds the description or keyword strings.
+ * <p>
+ * Both record formats are supported. In the canonical format the fields sit
+ * inside the block data of an object stream: numbers are big-endian ints and
+ * shorts and strings have a 2-byte length and modified UTF-8. In the compact
+ * format numbers are zigzag varints and strings have a varint length and
+ * UTF-8; the dictionary format is the compact one with the date and keywords
+ * stored as varint codes of a {@link StringDictionary}.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.02
+ */
+public class SeminarView {
+    private static final int ID = 0;
+    private static final int TITLE = 1;
+    private static final int DATE = 2;
+    private static final int LENGTH = 3;
+    private static final int X = 4;
+    private static final int Y = 5;
+    private static final int COST = 6;
+    private static final int KEYWORDS = 7;
+    private static final int DESCRIPTION = 8;
+
+    private static final int STREAM_HEADER = 4;
+    private static final byte BLOCK_DATA = 0x77;
+    private static final byte BLOCK_DATA_LONG = 0x7A;
+
+    private final byte[] data;
+    private final boolean compact;
+    private final StringDictionary dictionary;
+    private final int end;
+    private final int[] offsets;
+    private int pos;
+
+    /**
+     * Creates a view over contiguous field bytes.
+     *
+     * @param data
+     *            The bytes.
+     * @param start
+     *            The first byte of the ID.
+     * @param end
+     *            The index after the last field byte.
+     * @param compact
+     *            True for the compact format, false for the canonical one.
+     * @param dictionary
+     *            The dictionary of a compact record whose date and keywords
+     *            are codes, or null if they are strings.
+     */
+    private SeminarView(
+        byte[] data,
+        int start,
+        int end,
+        boolean compact,
+        StringDictionary dictionary) {
+        this.data = data;
+        this.end = end;
+        this.compact = compact;
+        this.dictionary = dictionary;
+        this.offsets = new int[DESCRIPTION + 1];
+        pos = start;
+        for (int field = ID; field <= DESCRIPTION; field++) {
+            offsets[field] = pos;
+            switch (field) {
+                case TITLE:
+                case DESCRIPTION:
+                    skipString();
+                    break;
+                case DATE:
+                    skipEntry();
+                    break;
+                case X:
+                case Y:
+                    readNumber(2);
+                    break;
+                case KEYWORDS:
+                    int count = readNumber(4);
+                    if (count < 0 || count > end - pos) {
+                        throw new IllegalArgumentException(
+                            "bad keyword count " + count);
+                    }
+                    for (int i = 0; i < count; i++) {
+                        skipEntry();
+                    }
+                    break;
+                default:
+                    readNumber(4);
+                    break;
+            }
+        }
+    }
+
+
+    /**
+     * Creates a view of a record in the canonical format. A record whose
+     * fields fit in one block, as all but very long ones do, is read in
+     * place; otherwise the blocks are first joined into one array.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The view.
+     * @throws IllegalArgumentException
+     *             if the bytes are not a canonical record
+     */
+    public static SeminarView canonical(byte[] buffer, int offset, int length) {
+        int end = offset + length;
+        if (length < STREAM_HEADER + 2 || buffer[offset] != (byte)0xAC
+            || buffer[offset + 1] != (byte)0xED) {
+            throw new IllegalArgumentException("not a serialized record");
+        }
+        int pos = offset + STREAM_HEADER;
+        byte[] joined = null;
+        int joinedLength = 0;
+        while (pos < end) {
+            int size;
+            if (buffer[pos] == BLOCK_DATA && pos + 2 <= end) {
+                size = buffer[pos + 1] & 0xFF;
+                pos += 2;
+            }
+            else if (buffer[pos] == BLOCK_DATA_LONG && pos + 5 <= end) {
+                size = ((buffer[pos + 1] & 0xFF) << 24) | ((buffer[pos + 2]
+                    & 0xFF) << 16) | ((buffer[pos + 3] & 0xFF) << 8)
+                    | (buffer[pos + 4] & 0xFF);
+                pos += 5;
+            }
+            else {
+                throw new IllegalArgumentException("bad block header");
+            }
+            if (size < 0 || size > end - pos) {
+                throw new IllegalArgumentException("record is truncated");
+            }
+            if (joined == null && pos + size == end) {
+                // The common case: one block holding every field
+                return new SeminarView(buffer, pos, end, false, null);
+            }
+            if (joined == null) {
+                joined = new byte[length];
+            }
+            System.arraycopy(buffer, pos, joined, joinedLength, size);
+            joinedLength += size;
+            pos += size;
+        }
+        return new SeminarView(joined == null ? new byte[0] : joined, 0,
+            joinedLength, false, null);
+    }
+
+
+    /**
+     * Creates a view of a record in the compact format.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @return The view.
+     * @throws IllegalArgumentException
+     *             if the bytes are not a compact record
+     */
+    public static SeminarView compact(byte[] buffer, int offset, int length) {
+        return new SeminarView(buffer, offset, offset + length, true, null);
+    }
+
+
+    /**
+     * Creates a view of a record in the dictionary format.
+     *
+     * @param buffer
+     *            The buffer.
+     * @param offset
+     *            The first byte of the record.
+     * @param length
+     *            The number of bytes in the record.
+     * @param dictionary
+     *            The dictionary the record was written with.
+     * @return The view.
+     * @throws IllegalArgumentException
+     *             if the bytes are not a dictionary record
+     */
+    public static SeminarView dictionary(
+        byte[] buffer,
+        int offset,
+        int length,
+        StringDictionary dictionary) {
+        return new SeminarView(buffer, offset, offset + length, true,
+            dictionary);
+    }
+
+
+    /**
+     * Reads a number at the cursor: a zigzag varint in the compact format,
+     * else a big-endian int or short.
+     *
+     * @param bytes
+     *            The width in the canonical format, 4 or 2.
+     * @return The value.
+     */
+    private int readNumber(int bytes) {
+        if (compact) {
+            int raw = 0;
+            int shift = 0;
+            byte b;
+            do {
+                if (shift > 28) {
+                    throw new IllegalArgumentException("varint is too long");
+                }
+                b = next();
+                raw |= (b & 0x7F) << shift;
+                shift += 7;
+            }
+            while (b < 0);
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+        int value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (next() & 0xFF);
+        }
+        return bytes == 2 ? (short)value : value;
+    }
+
+
+    /**
+     * Reads the length prefix of a string at the cursor.
+     *
+     * @return The number of bytes that follow.
+     */
+    private int readStringLength() {
+        int size = compact ? readNumber(4) : readNumber(2) & 0xFFFF;
+        if (size < 0 || size > end - pos) {
+            throw new IllegalArgumentException("record is truncated");
+        }
+        return size;
+    }
+
+
+    /**
+     * Moves the cursor past a string without decoding it.
+     */
+    private void skipString() {
+        int size = readStringLength();
+        pos += size;
+    }
+
+
+    /**
+     * Moves the cursor past a date or keyword without decoding it.
+     */
+    private void skipEntry() {
+        if (dictionary == null) {
+            skipString();
+        }
+        else {
+            readNumber(4);
+        }
+    }
+
+
+    /**
+     * Reads one byte at the cursor.
+     *
+     * @return The byte.
+     */
+    private byte next() {
+        if (pos >= end) {
+            throw new IllegalArgumentException("record is truncated");
+        }
+        return data[pos++];
+    }
+
+
+    /**
+     * Decodes the string at the cursor.
+     *
+     * @return The string.
+     */
+    private String readString() {
+        int size = readStringLength();
+        int start = pos;
+        pos += size;
+        if (compact) {
+            return new String(data, start, size, StandardCharsets.UTF_8);
+        }
+        return decodeModifiedUtf8(data, start, size);
+    }
+
+
+    /**
+     * Decodes the date or keyword at the cursor, looking up its code in the
+     * dictionary if there is one.
+     *
+     * @return The string.
+     */
+    private String readEntry() {
+        if (dictionary == null) {
+            return readString();
+        }
+        return dictionary.get(readNumber(4));
+    }
+
+
+    /**
+     * Decodes the modified UTF-8 written by DataOutput.writeUTF.
+     *
+     * @param bytes
+     *            The buffer.
+     * @param start
+     *            The first byte.
+     * @param size
+     *            The number of bytes.
+     * @return The string.
+     */
+    static String decodeModifiedUtf8(byte[] bytes, int start, int size) {
+        char[] chars = new char[size];
+        int n = 0;
+        int i = start;
+        int limit = start + size;
+        while (i < limit) {
+            int c = bytes[i] & 0xFF;
+            if (c < 0x80) {
+                chars[n++] = (char)c;
+                i++;
+            }
+            else if ((c >> 5) == 0x6 && i + 1 < limit) {
+                chars[n++] = (char)(((c & 0x1F) << 6) | (bytes[i + 1]
+                    & 0x3F));
+                i += 2;
+            }
+            else if ((c >> 4) == 0xE && i + 2 < limit) {
+                chars[n++] = (char)(((c & 0x0F) << 12) | ((bytes[i + 1]
+                    & 0x3F) << 6) | (bytes[i + 2] & 0x3F));
+                i += 3;
+            }
+            else {
+                throw new IllegalArgumentException("bad UTF-8 data");
+            }
+        }
+        return new String(chars, 0, n);
+    }
+
+
+    /**
+     * Moves the cursor to a field.
+     *
+     * @param field
+     *            The field.
+     */
+    private void seek(int field) {
+        pos = offsets[field];
+    }
+
+
+    /**
+     * @return the seminar's ID
+     */
+    public int getId() {
+        seek(ID);
+        return readNumber(4);
+    }
+
+
+    /**
+     * @return the seminar's title
+     */
+    public String getTitle() {
+        seek(TITLE);
+        return readString();
+    }
+
+
+    /**
+     * @return the seminar's date
+     */
+    public String getDate() {
+        seek(DATE);
+        return readEntry();
+    }
+
+
+    /**
+     * @return the seminar's length
+     */
+    public int getLength() {
+        seek(LENGTH);
+        return readNumber(4);
+    }
+
+
+    /**
+     * @return the seminar's x coordinate
+     */
+    public short getX() {
+        seek(X);
+        return (short)readNumber(2);
+    }
+
+
+    /**
+     * @return the seminar's y coordinate
+     */
+    public short getY() {
+        seek(Y);
+        return (short)readNumber(2);
+    }
+
+
+    /**
+     * @return the seminar's cost
+     */
+    public int getCost() {
+        seek(COST);
+        return readNumber(4);
+    }
+
+
+    /**
+     * @return the seminar's keywords
+     */
+    public String[] getKeywords() {
+        seek(KEYWORDS);
+        String[] keywords = new String[readNumber(4)];
+        for (int i = 0; i < keywords.length; i++) {
+            keywords[i] = readEntry();
+        }
+        return keywords;
+    }
+
+
+    /**
+     * @return the seminar's description
+     */
+    public String getDescription() {
+        seek(DESCRIPTION);
+        return readString();
+    }
+
+
+    /**
+     * Decodes every field.
+     *
+     * @return The seminar.
+     */
+    public Seminar toSeminar() {
+        return new Seminar(getId(), getTitle(), getDate(), getLength(), getX(),
+            getY(), getCost(), getKeywords(), getDescription());
+    }
+}
@@ -0,0 +1,113 @@
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the SeminarView class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.30
+ */
+public class SeminarViewTest {
+
+    /**
+     * Creates a seminar with the given description.
+     *
+     * @param description
+     *            The description.
+     * @return The seminar.
+     */
+    private Seminar seminar(String description) {
+        return new Seminar(-12, "Caf\u00e9 \u0000 \u4e2d", "0610051600", 90,
+            (short)-10, (short)32767, 45, new String[] { "HCI", "VT" },
+            description);
+    }
+
+
+    /**
+     * Checks every field of a view against a seminar.
+     *
+     * @param expected
+     *            The seminar.
+     * @param view
+     *            The view.
+     */
+    private void assertFields(Seminar expected, SeminarView view) {
+        assertEquals(expected.getCost(), view.getCost());
+        assertEquals(expected.getId(), view.getId());
+        assertEquals(expected.getY(), view.getY());
+        assertEquals(expected.getTitle(), view.getTitle());
+        assertArrayEquals(expected.getKeywords(), view.getKeywords());
+        assertEquals(expected.getX(), view.getX());
+        assertEquals(expected.getDate(), view.getDate());
+        assertEquals(expected.getLength(), view.getLength());
+        assertEquals(expected.getDescription(), view.getDescription());
+        assertEquals(expected.toString(), view.toSeminar().toString());
+    }
+
+
+    /**
+     * Tests reading fields of a canonical record in any order, from the
+     * middle of a buffer.
+     */
+    @Test
+    public void testCanonical() throws Exception {
+        Seminar seminar = seminar("Short");
+        byte[] bytes = seminar.serialize();
+        byte[] buffer = new byte[bytes.length + 7];
+        System.arraycopy(bytes, 0, buffer, 7, bytes.length);
+        assertFields(seminar, SeminarView.canonical(buffer, 7, bytes.length));
+    }
+
+
+    /**
+     * Tests a canonical record whose fields span several blocks.
+     */
+    @Test
+    public void testCanonicalBlocks() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            text.append("word").append(i).append(' ');
+        }
+        Seminar seminar = seminar(text.toString());
+        byte[] bytes = seminar.serialize();
+        assertTrue(bytes.length > 2048);
+        assertFields(seminar, SeminarView.canonical(bytes, 0, bytes.length));
+    }
+
+
+    /**
+     * Tests reading fields of a compact record.
+     */
+    @Test
+    public void testCompact() {
+        Seminar seminar = seminar("Compact \ud83d\ude00");
+        CompactCodec codec = new CompactCodec();
+        byte[] bytes = new byte[codec.encodedSize(seminar)];
+        codec.encode(seminar, bytes, 0);
+        assertFields(seminar, codec.view(bytes, 0, bytes.length));
+    }
+
+
+    /**
+     * Tests that malformed records are rejected.
+     */
+    @Test
+    public void testMalformed() throws Exception {
+        byte[] bytes = seminar("Short").serialize();
+        try {
+            SeminarView.canonical(bytes, 0, bytes.length - 1);
+            fail();
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("record is truncated", e.getMessage());
+        }
+        try {
+            SeminarView.canonical(bytes, 1, bytes.length - 1);
+            fail();
+        }
+        catch (IllegalArgumentException e) {
+            assertEquals("not a serialized record", e.getMessage());
+        }
+    }
+}
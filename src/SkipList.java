@@ -0,0 +1,274 @@
+import java.util.Random;
+
+/**
+ * A skip list that keeps values ordered by a unique key. Insert, remove and
+ * find take expected logarithmic time, and a range query walks the bottom
+ * level from the first key in range, so it costs one search plus the size of
+ * the result.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.26
+ * @param <K>
+ *            The key type.
+ * @param <V>
+ *            The value type.
+ */
+public class SkipList<K extends Comparable<? super K>, V> {
+
+    /**
+     * A node of the skip list: one key and value with a forward pointer per
+     * level.
+     *
+     * @param <K>
+     *            The key type.
+     * @param <V>
+     *            The value type.
+     */
+    private static class SkipNode<K, V> {
+        private final K key;
+        private final V value;
+        private final SkipNode<K, V>[] forward;
+
+        /**
+         * Creates a node.
+         *
+         * @param key
+         *            The key, null for the head.
+         * @param value
+         *            The value.
+         * @param levels
+         *            The number of forward pointers.
+         */
+        SkipNode(K key, V value, int levels) {
+            this.key = key;
+            this.value = value;
+            this.forward = newNodes(levels);
+        }
+
+
+        /**
+         * Creates an array of node references. Java cannot create an array
+         * of a generic type, so this is the one place the raw array is made.
+         *
+         * @param <K>
+         *            The key type.
+         * @param <V>
+         *            The value type.
+         * @param length
+         *            The length of the array.
+         * @return The array, all null.
+         */
+        @SuppressWarnings({ "unchecked", "rawtypes" })
+        static <K, V> SkipNode<K, V>[] newNodes(int length) {
+            return new SkipNode[length];
+        }
+    }
+
+    private static final int MAX_LEVEL = 32;
+
+    private final SkipNode<K, V> head;
+    private int level;
+    private int size;
+    private final Random random;
+
+    /**
+     * Constructs an empty skip list.
+     */
+    public SkipList() {
+        this(new Random());
+    }
+
+
+    /**
+     * Constructs an empty skip list that draws node levels from the given
+     * source, for reproducible shapes in tests.
+     *
+     * @param random
+     *            The random source.
+     */
+    public SkipList(Random random) {
+        this.head = new SkipNode<>(null, null, MAX_LEVEL);
+        this.level = 1;
+        this.size = 0;
+        this.random = random;
+    }
+
+
+    /**
+     * Picks a level for a new node: each extra level with probability 1/2.
+     *
+     * @return The number of levels, at least 1.
+     */
+    private int randomLevel() {
+        int bits = random.nextInt();
+        int lev = 1;
+        while ((bits & 1) != 0 && lev < MAX_LEVEL) {
+            lev++;
+            bits >>>= 1;
+        }
+        return lev;
+    }
+
+
+    /**
+     * Fills update with the last node before key on every level.
+     *
+     * @param key
+     *            The key to search for.
+     * @param update
+     *            An array of MAX_LEVEL nodes to fill, or null.
+     * @return The last node before key on the bottom level.
+     */
+    private SkipNode<K, V> findPredecessor(K key, SkipNode<K, V>[] update) {
+        SkipNode<K, V> x = head;
+        for (int i = level - 1; i >= 0; i--) {
+            while (x.forward[i] != null && x.forward[i].key.compareTo(
+                key) < 0) {
+                x = x.forward[i];
+            }
+            if (update != null) {
+                update[i] = x;
+            }
+        }
+        return x;
+    }
+
+
+    /**
+     * Inserts a key and value.
+     *
+     * @param key
+     *            The key.
+     * @param value
+     *            The value.
+     * @return True if inserted, false if the key is already present.
+     */
+    public boolean insert(K key, V value) {
+        SkipNode<K, V>[] update = SkipNode.newNodes(MAX_LEVEL);
+        SkipNode<K, V> x = findPredecessor(key, update).forward[0];
+        if (x != null && x.key.compareTo(key) == 0) {
+            return false;
+        }
+
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int i = level; i < newLevel; i++) {
+                update[i] = head;
+            }
+            level = newLevel;
+        }
+        SkipNode<K, V> node = new SkipNode<>(key, value, newLevel);
+        for (int i = 0; i < newLevel; i++) {
+            node.forward[i] = update[i].forward[i];
+            update[i].forward[i] = node;
+        }
+        size++;
+        return true;
+    }
+
+
+    /**
+     * Removes a key.
+     *
+     * @param key
+     *            The key to remove.
+     * @return The value of the removed key, or null if it was not present.
+     */
+    public V remove(K key) {
+        SkipNode<K, V>[] update = SkipNode.newNodes(MAX_LEVEL);
+        SkipNode<K, V> x = findPredecessor(key, update).forward[0];
+        if (x == null || x.key.compareTo(key) != 0) {
+            return null;
+        }
+
+        for (int i = 0; i < x.forward.length; i++) {
+            update[i].forward[i] = x.forward[i];
+        }
+        while (level > 1 && head.forward[level - 1] == null) {
+            level--;
+        }
+        size--;
+        return x.value;
+    }
+
+
+    /**
+     * Finds the value of a key.
+     *
+     * @param key
+     *            The key to look for.
+     * @return Its value, or null if it is not present.
+     */
+    public V find(K key) {
+        SkipNode<K, V> x = findPredecessor(key, null).forward[0];
+        if (x != null && x.key.compareTo(key) == 0) {
+            return x.value;
+        }
+        return null;
+    }
+
+
+    /**
+     * Returns the pairs whose keys lie in a range, in key order.
+     *
+     * @param low
+     *            The smallest key to include.
+     * @param high
+     *            The largest key to include.
+     * @return The pairs with low &lt;= key &lt;= high.
+     */
+    public DLList<KVPair<K, V>> range(K low, K high) {
+        DLList<KVPair<K, V>> result = new DLList<>();
+        SkipNode<K, V> x = findPredecessor(low, null).forward[0];
+        while (x != null && x.key.compareTo(high) <= 0) {
+            result.add(new KVPair<>(x.key, x.value));
+            x = x.forward[0];
+        }
+        return result;
+    }
+
+
+    /**
+     * Counts the keys in a range, stopping early once the count passes a
+     * limit, so that a caller comparing ranges pays at most the limit.
+     *
+     * @param low
+     *            The smallest key to include.
+     * @param high
+     *            The largest key to include.
+     * @param limit
+     *            The count at which to stop.
+     * @return The number of keys with low &lt;= key &lt;= high, or limit if
+     *         there are at least that many.
+     */
+    public int countRange(K low, K high, int limit) {
+        int count = 0;
+        SkipNode<K, V> x = findPredecessor(low, null).forward[0];
+        while (count < limit && x != null && x.key.compareTo(high) <= 0) {
+            count++;
+            x = x.forward[0];
+        }
+        return count;
+    }
+
+
+    /**
+     * Returns the number of keys in the list.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return size;
+    }
+
+
+    /**
+     * Returns whether the list is empty.
+     *
+     * @return True if there are no keys.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+}
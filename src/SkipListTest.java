@@ -0,0 +1,84 @@
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the SkipList class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.26
+ */
+public class SkipListTest {
+    private SkipList<Integer, String> list;
+
+    /**
+     * Setup method creates a list with reproducible levels.
+     */
+    @Before
+    public void setUp() {
+        list = new SkipList<>(new Random(3114));
+    }
+
+
+    /**
+     * Tests insert, duplicate keys, find and remove.
+     */
+    @Test
+    public void testInsertFindRemove() {
+        assertTrue(list.isEmpty());
+        assertTrue(list.insert(5, "five"));
+        assertTrue(list.insert(1, "one"));
+        assertFalse(list.insert(5, "again"));
+        assertEquals("five", list.find(5));
+        assertNull(list.find(3));
+        assertEquals(2, list.size());
+        assertEquals("one", list.remove(1));
+        assertNull(list.remove(1));
+        assertEquals(1, list.size());
+        assertFalse(list.isEmpty());
+    }
+
+
+    /**
+     * Tests that ranges come back in key order with inclusive bounds, over a
+     * list with many levels and removals.
+     */
+    @Test
+    public void testRange() {
+        for (int k = 999; k >= 0; k--) {
+            list.insert(k * 2, "v" + k);
+        }
+        for (int k = 0; k < 2000; k += 6) {
+            list.remove(k);
+        }
+        DLList<KVPair<Integer, String>> found = list.range(-5, 20);
+        assertEquals(7, found.size());
+        int expected = 2;
+        for (KVPair<Integer, String> pair : found) {
+            assertEquals(Integer.valueOf(expected), pair.getKey());
+            assertEquals("v" + expected / 2, pair.getValue());
+            expected += expected % 6 == 2 ? 2 : 4;
+        }
+        assertEquals(0, list.range(1999, 5000).size());
+        assertEquals(0, list.range(7, 7).size());
+        assertEquals(1, list.range(8, 8).size());
+        assertEquals(666, list.size());
+    }
+
+
+    /**
+     * Tests counting a range with and without reaching the limit.
+     */
+    @Test
+    public void testCountRange() {
+        for (int k = 0; k < 100; k++) {
+            list.insert(k, "v" + k);
+        }
+        assertEquals(11, list.countRange(10, 20, 1000));
+        assertEquals(5, list.countRange(10, 20, 5));
+        assertEquals(0, list.countRange(20, 10, 5));
+        assertEquals(1, list.countRange(99, 200, 5));
+    }
+}
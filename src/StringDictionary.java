@@ -0,0 +1,141 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A dictionary of the strings that repeat across the store, such as keywords
+ * and dates, each mapped to a small integer code. Codes are handed out in
+ * order of first use, starting at 0, and are never reused or taken back, so
+ * a code stored in a record stays valid for as long as the dictionary lives,
+ * even after every record using it has been deleted. Strings are looked up
+ * by a {@link SkipList} and codes by an array.
+ * <p>
+ * The codes mean nothing without the dictionary, so it must be saved with
+ * the memory pool: {@link #writeTo(DataOutput)} writes the strings in code
+ * order and {@link #readFrom(DataInput)} reads them back under the same
+ * codes.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.02
+ */
+public class StringDictionary {
+    private final SkipList<String, Integer> codes;
+    private String[] strings;
+    private int count;
+
+    /**
+     * Constructs an empty dictionary.
+     */
+    public StringDictionary() {
+        codes = new SkipList<>();
+        strings = new String[16];
+        count = 0;
+    }
+
+
+    /**
+     * Returns the code of a string, adding the string if it is new.
+     *
+     * @param s
+     *            The string.
+     * @return Its code.
+     */
+    public int code(String s) {
+        Integer code = codes.find(s);
+        if (code != null) {
+            return code;
+        }
+        if (count == strings.length) {
+            String[] grown = new String[count * 2];
+            System.arraycopy(strings, 0, grown, 0, count);
+            strings = grown;
+        }
+        strings[count] = s;
+        codes.insert(s, count);
+        return count++;
+    }
+
+
+    /**
+     * Returns the code of a string without adding it.
+     *
+     * @param s
+     *            The string.
+     * @return Its code, or -1 if it is not in the dictionary.
+     */
+    public int find(String s) {
+        Integer code = codes.find(s);
+        return code == null ? -1 : code;
+    }
+
+
+    /**
+     * Returns the string with a code.
+     *
+     * @param code
+     *            The code.
+     * @return The string.
+     * @throws IllegalArgumentException
+     *             if no string has the code
+     */
+    public String get(int code) {
+        if (code < 0 || code >= count) {
+            throw new IllegalArgumentException("unknown code " + code);
+        }
+        return strings[code];
+    }
+
+
+    /**
+     * Returns the number of strings.
+     *
+     * @return The size.
+     */
+    public int size() {
+        return count;
+    }
+
+
+    /**
+     * Writes the dictionary: the number of strings, then each string in code
+     * order as written by writeUTF.
+     *
+     * @param out
+     *            The output.
+     * @throws IOException
+     *             if the output fails
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeUTF(strings[i]);
+        }
+    }
+
+
+    /**
+     * Reads a dictionary written by {@link #writeTo(DataOutput)}.
+     *
+     * @param in
+     *            The input.
+     * @return The dictionary, with every string under its saved code.
+     * @throws IOException
+     *             if the input fails, or holds a negative count or a
+     *             repeated string
+     */
+    public static StringDictionary readFrom(DataInput in) throws IOException {
+        int n = in.readInt();
+        if (n < 0) {
+            throw new IOException("bad dictionary size " + n);
+        }
+        StringDictionary dictionary = new StringDictionary();
+        for (int i = 0; i < n; i++) {
+            String s = in.readUTF();
+            if (dictionary.code(s) != i) {
+                throw new IOException("repeated dictionary string " + s);
+            }
+        }
+        return dictionary;
+    }
+}
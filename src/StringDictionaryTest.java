@@ -0,0 +1,92 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the StringDictionary class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.02
+ */
+public class StringDictionaryTest {
+    private StringDictionary dictionary;
+
+    /**
+     * Setup method creates an empty dictionary.
+     */
+    @Before
+    public void setUp() {
+        dictionary = new StringDictionary();
+    }
+
+
+    /**
+     * Tests that codes are handed out in order of first use and kept.
+     */
+    @Test
+    public void testCode() {
+        assertEquals(0, dictionary.code("VT"));
+        assertEquals(1, dictionary.code("HCI"));
+        assertEquals(0, dictionary.code("VT"));
+        assertEquals(-1, dictionary.find("CSE"));
+        assertEquals(1, dictionary.find("HCI"));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i + 2, dictionary.code("k" + i));
+        }
+        assertEquals(102, dictionary.size());
+        assertEquals("VT", dictionary.get(0));
+        assertEquals("k99", dictionary.get(101));
+    }
+
+
+    /**
+     * Tests that an unknown code is rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownCode() {
+        dictionary.code("VT");
+        dictionary.get(1);
+    }
+
+
+    /**
+     * Tests saving and restoring the dictionary.
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+        dictionary.code("VT");
+        dictionary.code("0610051600");
+        dictionary.code("Caf\u00e9");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        dictionary.writeTo(new DataOutputStream(bytes));
+        StringDictionary copy = StringDictionary.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes
+                .toByteArray())));
+        assertEquals(3, copy.size());
+        assertEquals("VT", copy.get(0));
+        assertEquals("0610051600", copy.get(1));
+        assertEquals("Caf\u00e9", copy.get(2));
+        assertEquals(3, copy.code("HCI"));
+    }
+
+
+    /**
+     * Tests that a saved dictionary with a repeated string is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testReadRepeated() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(2);
+        out.writeUTF("VT");
+        out.writeUTF("VT");
+        StringDictionary.readFrom(new DataInputStream(
+            new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}
@@ -0,0 +1,370 @@
+import java.util.Arrays;
+
+/**
+ * A hash table from seminar ID to Handle laid out like a Swiss table. Next to
+ * the key and handle arrays it keeps one control byte per slot: EMPTY,
+ * DELETED, or the low 7 bits of the ID's hash for a full slot. Control bytes
+ * are packed eight to a long, one long per group of slots.
+ * <p>
+ * A probe loads a whole group of control bytes and compares all eight
+ * against the 7-bit tag at once with word-wide bit arithmetic. Only slots
+ * whose tag matches have their key compared, so almost every mismatching
+ * slot, and almost every miss, is rejected without touching the key array.
+ * A lookup stops at the first group that holds an EMPTY byte.
+ * <p>
+ * The capacity is a power of two of at least one group, IDs are hashed with
+ * {@link Hash#mix(int)}, and groups are probed triangularly. The table
+ * grows once live records pass half the capacity, and is rehashed in place
+ * when live and deleted slots together reach seven eighths.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.12.09
+ */
+public class SwissHash {
+    private long[] control;
+    private int[] keys;
+    private Handle[] handles;
+    private int capacity;
+    private int numberOfRecords;
+    private int numberOfDeleted;
+    private OutputSink output = OutputSink.console();
+
+    /**
+     * The number of slots described by one control word.
+     */
+    public static final int GROUP_SIZE = 8;
+
+    private static final int EMPTY = 0x80;
+    private static final int DELETED = 0xFE;
+    private static final long LSB = 0x0101010101010101L;
+    private static final long MSB = 0x8080808080808080L;
+    private static final long LOW7 = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Constructs a new table.
+     *
+     * @param initialCapacity
+     *            The initial capacity, rounded up to a power of two and to at
+     *            least one group.
+     */
+    public SwissHash(int initialCapacity) {
+        allocate(Math.max(GROUP_SIZE, Hash.roundUpToPowerOfTwo(
+            initialCapacity)));
+    }
+
+
+    /**
+     * Sends the table's messages to a sink instead of the console.
+     *
+     * @param sink
+     *            The sink.
+     */
+    public void setOutput(OutputSink sink) {
+        output = sink;
+    }
+
+
+    /**
+     * Replaces the arrays with empty ones of the given capacity.
+     *
+     * @param newCapacity
+     *            A power of two of at least one group.
+     */
+    private void allocate(int newCapacity) {
+        capacity = newCapacity;
+        control = new long[capacity / GROUP_SIZE];
+        Arrays.fill(control, LSB * EMPTY);
+        keys = new int[capacity];
+        handles = new Handle[capacity];
+        numberOfRecords = 0;
+        numberOfDeleted = 0;
+    }
+
+
+    /**
+     * Returns a word with the high bit set in every byte of x that is zero.
+     *
+     * @param x
+     *            Eight packed bytes.
+     * @return The high bits of the zero bytes.
+     */
+    private static long zeroBytes(long x) {
+        return ~(((x & LOW7) + LOW7) | x | LOW7);
+    }
+
+
+    /**
+     * Returns the high bits of the bytes in a control word equal to a byte
+     * value.
+     *
+     * @param word
+     *            A control word.
+     * @param value
+     *            The byte value to look for.
+     * @return The high bits of the matching bytes.
+     */
+    private static long matchByte(long word, int value) {
+        return zeroBytes(word ^ (LSB * value));
+    }
+
+
+    /**
+     * Converts a bit from a match mask into a slot index.
+     *
+     * @param group
+     *            The group the mask came from.
+     * @param mask
+     *            A non-zero match mask.
+     * @return The slot of the lowest match.
+     */
+    private static int slotOf(int group, long mask) {
+        return group * GROUP_SIZE + (Long.numberOfTrailingZeros(mask) >>> 3);
+    }
+
+
+    /**
+     * Returns the slot holding the given ID.
+     *
+     * @param id
+     *            The ID to look for.
+     * @return The slot holding the ID, or -1 if it is not present.
+     */
+    private int indexOf(int id) {
+        int h = Hash.mix(id);
+        int tag = h & 0x7F;
+        int groupMask = control.length - 1;
+        int group = (h >>> 7) & groupMask;
+
+        for (int step = 1; step <= control.length; step++) {
+            long word = control[group];
+            long match = matchByte(word, tag);
+            while (match != 0) {
+                int slot = slotOf(group, match);
+                if (keys[slot] == id) {
+                    return slot;
+                }
+                match &= match - 1;
+            }
+            if (matchByte(word, EMPTY) != 0) {
+                return -1;
+            }
+            group = (group + step) & groupMask;
+        }
+        return -1;
+    }
+
+
+    /**
+     * Inserts an ID into the hash table with its associated memory handle.
+     *
+     * @param id
+     *            The ID to insert into the table.
+     * @param handle
+     *            The associated memory handle in the memory pool.
+     * @return The index where the ID was inserted, or -1 if the ID is already
+     *         present.
+     */
+    public int insert(int id, Handle handle) {
+        if (indexOf(id) != -1) {
+            output.println(
+                "Insert FAILED - There is already a record with ID " + id);
+            return -1;
+        }
+        if (numberOfRecords >= capacity / 2) {
+            output.println("Hash table expanded to " + (capacity * 2)
+                + " records");
+            rebuild(capacity * 2);
+        }
+        else if ((numberOfRecords + numberOfDeleted + 1) * 8 > capacity * 7) {
+            rebuild(capacity);
+        }
+        int slot = place(id, handle);
+        numberOfRecords++;
+        return slot;
+    }
+
+
+    /**
+     * Stores an ID known not to be in the table in the first EMPTY or DELETED
+     * slot of its probe sequence.
+     *
+     * @param id
+     *            The ID to store.
+     * @param handle
+     *            Its handle.
+     * @return The slot used.
+     */
+    private int place(int id, Handle handle) {
+        int h = Hash.mix(id);
+        int groupMask = control.length - 1;
+        int group = (h >>> 7) & groupMask;
+        int step = 1;
+
+        // EMPTY and DELETED are the only control bytes with the high bit set
+        long free = control[group] & MSB;
+        while (free == 0) {
+            group = (group + step) & groupMask;
+            step++;
+            free = control[group] & MSB;
+        }
+        int slot = slotOf(group, free);
+        if (controlByte(control, slot) == DELETED) {
+            numberOfDeleted--;
+        }
+        setControl(slot, h & 0x7F);
+        keys[slot] = id;
+        handles[slot] = handle;
+        return slot;
+    }
+
+
+    /**
+     * Moves every record into fresh arrays of the given capacity, dropping
+     * DELETED markers.
+     *
+     * @param newCapacity
+     *            The capacity of the rebuilt table.
+     */
+    private void rebuild(int newCapacity) {
+        long[] oldControl = control;
+        int[] oldKeys = keys;
+        Handle[] oldHandles = handles;
+        int live = numberOfRecords;
+        allocate(newCapacity);
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (controlByte(oldControl, slot) < EMPTY) {
+                place(oldKeys[slot], oldHandles[slot]);
+            }
+        }
+        numberOfRecords = live;
+    }
+
+
+    /**
+     * Returns the control byte of a slot.
+     *
+     * @param words
+     *            The packed control bytes.
+     * @param slot
+     *            The slot.
+     * @return Its control byte, 0 to 255.
+     */
+    private static int controlByte(long[] words, int slot) {
+        return (int)(words[slot / GROUP_SIZE] >>> ((slot % GROUP_SIZE)
+            * 8)) & 0xFF;
+    }
+
+
+    /**
+     * Sets the control byte of a slot.
+     *
+     * @param slot
+     *            The slot.
+     * @param value
+     *            The new control byte.
+     */
+    private void setControl(int slot, int value) {
+        int shift = (slot % GROUP_SIZE) * 8;
+        int group = slot / GROUP_SIZE;
+        control[group] = (control[group] & ~(0xFFL << shift))
+            | ((long)value << shift);
+    }
+
+
+    /**
+     * Finds the handle associated with the given ID.
+     *
+     * @param id
+     *            The ID to find in the table.
+     * @return The handle associated with the ID, or null if not found.
+     */
+    public Handle find(int id) {
+        int slot = indexOf(id);
+        return slot == -1 ? null : handles[slot];
+    }
+
+
+    /**
+     * Removes the specified ID from the hash table. The slot goes straight
+     * back to EMPTY when its group already holds an EMPTY byte, because every
+     * probe that reaches that group stops there anyway; otherwise it is
+     * marked DELETED.
+     *
+     * @param id
+     *            The ID to remove.
+     * @return The handle associated with the removed ID, or null if the ID is
+     *         not found.
+     */
+    public Handle remove(int id) {
+        int slot = indexOf(id);
+        if (slot == -1) {
+            return null;
+        }
+        Handle handle = handles[slot];
+        handles[slot] = null;
+        if (matchByte(control[slot / GROUP_SIZE], EMPTY) != 0) {
+            setControl(slot, EMPTY);
+        }
+        else {
+            setControl(slot, DELETED);
+            numberOfDeleted++;
+        }
+        numberOfRecords--;
+        return handle;
+    }
+
+
+    /**
+     * Returns the current capacity of the hash table.
+     *
+     * @return The capacity of the hash table.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+
+    /**
+     * Returns the number of records in the table.
+     *
+     * @return The number of records.
+     */
+    public int size() {
+        return numberOfRecords;
+    }
+
+
+    /**
+     * Returns the number of slots marked DELETED.
+     *
+     * @return The deleted slot count.
+     */
+    public int getDeletedCount() {
+        return numberOfDeleted;
+    }
+
+
+    /**
+     * Prints the contents of the hash table.
+     *
+     * @return A string representation of the hash table contents.
+     */
+    public String printToString() {
+        StringBuilder result = new StringBuilder();
+
+        for (int i = 0; i < capacity; i++) {
+            int tag = controlByte(control, i);
+            if (tag == DELETED) {
+                result.append(i + ": TOMBSTONE\n");
+            }
+            else if (tag != EMPTY) {
+                result.append(i + ": " + keys[i] + "\n");
+            }
+        }
+
+        result.append("total records: " + numberOfRecords);
+        return result.toString();
+    }
+}
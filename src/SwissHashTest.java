@@ -0,0 +1,121 @@
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the SwissHash class.
+ *
+ * @author Zhengyang Lu
+ * @author Xingyi Wang
+ * @version 2024.11.22
+ */
+public class SwissHashTest {
+    private SwissHash hashTable;
+    private Handle handle1;
+    private Handle handle2;
+
+    /**
+     * Setup method initializes the hash table and Handle objects for testing.
+     */
+    @Before
+    public void setUp() {
+        hashTable = new SwissHash(4);
+        handle1 = new Handle(10, 50);
+        handle2 = new Handle(60, 100);
+    }
+
+
+    /**
+     * Tests that the capacity covers at least one group.
+     */
+    @Test
+    public void testCapacity() {
+        assertEquals(SwissHash.GROUP_SIZE, hashTable.getCapacity());
+        assertEquals(32, new SwissHash(20).getCapacity());
+    }
+
+
+    /**
+     * Tests insert, find, duplicates and misses.
+     */
+    @Test
+    public void testInsertAndFind() {
+        assertTrue(hashTable.insert(12345, handle1) >= 0);
+        assertTrue(hashTable.insert(-7, handle2) >= 0);
+        assertEquals(-1, hashTable.insert(12345, handle2));
+        assertEquals(handle1, hashTable.find(12345));
+        assertEquals(handle2, hashTable.find(-7));
+        assertNull(hashTable.find(7));
+        assertEquals(2, hashTable.size());
+    }
+
+
+    /**
+     * Tests that removal in a group with an empty slot leaves no tombstone.
+     */
+    @Test
+    public void testRemoveToEmpty() {
+        hashTable.insert(1, handle1);
+        assertEquals(handle1, hashTable.remove(1));
+        assertNull(hashTable.remove(1));
+        assertNull(hashTable.find(1));
+        assertEquals(0, hashTable.getDeletedCount());
+        assertEquals("total records: 0", hashTable.printToString());
+    }
+
+
+    /**
+     * Tests many records across groups, growth, deleted markers and in-place
+     * rehashing under churn.
+     */
+    @Test
+    public void testGrowthAndChurn() {
+        SwissHash table = new SwissHash(64);
+        for (int id = 0; id < 32; id++) {
+            table.insert(id * 1024, new Handle(id, 1));
+        }
+        assertEquals(64, table.getCapacity());
+        table.insert(99999, handle1);
+        assertEquals(128, table.getCapacity());
+
+        for (int round = 0; round < 50; round++) {
+            for (int id = 0; id < 32; id++) {
+                assertEquals(new Handle(id + round * 32, 1), table.remove(
+                    (id + round * 32) * 1024));
+                table.insert((id + round * 32 + 32) * 1024, new Handle(id
+                    + round * 32 + 32, 1));
+            }
+        }
+        assertEquals(128, table.getCapacity());
+        assertEquals(33, table.size());
+        for (int id = 1600; id < 1632; id++) {
+            assertEquals(new Handle(id, 1), table.find(id * 1024));
+        }
+        assertEquals(handle1, table.find(99999));
+        assertNull(table.find(0));
+        assertTrue(table.printToString().endsWith("total records: 33"));
+    }
+
+
+    /**
+     * Tests that the duplicate and expansion messages go to the sink.
+     */
+    @Test
+    public void testOutput() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        OutputSink sink = OutputSink.buffered(new PrintStream(bytes), 64,
+            false);
+        hashTable.setOutput(sink);
+        hashTable.insert(1, handle1);
+        hashTable.insert(1, handle2);
+        for (int id = 2; id < 6; id++) {
+            hashTable.insert(id, handle1);
+        }
+        sink.flush();
+        String nl = System.lineSeparator();
+        assertEquals("Insert FAILED - There is already a record with ID 1"
+            + nl + "Hash table expanded to 16 records" + nl, bytes.toString());
+    }
+}